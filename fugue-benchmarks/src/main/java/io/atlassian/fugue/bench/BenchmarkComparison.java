@@ -0,0 +1,152 @@
+package io.atlassian.fugue.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON reports and fails when a benchmark regressed by more
+ * than a threshold, so it can gate a build:
+ *
+ * <pre>
+ * mvn -Pbenchmarks package
+ * java -jar fugue-benchmarks/target/benchmarks.jar -prof gc -rf json -rff current.json
+ * java -cp fugue-benchmarks/target/benchmarks.jar io.atlassian.fugue.bench.BenchmarkComparison baseline.json current.json 10
+ * </pre>
+ *
+ * Every benchmark and parameter combination of the baseline is compared on its
+ * score, higher being better for throughput and lower for every other mode,
+ * and on the bytes allocated per operation when run with the gc profiler.
+ * Allocation may also grow by one byte per operation, as it is not exact. The
+ * process exits with 1 on any regression, and with 0 otherwise, including for
+ * benchmarks only one report has.
+ */
+public final class BenchmarkComparison {
+
+  static final String ALLOCATION = "gc.alloc.rate.norm";
+  static final double ALLOCATION_SLACK = 1.0;
+
+  private BenchmarkComparison() {}
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("usage: BenchmarkComparison <baseline.json> <current.json> [threshold in percent, default 10]");
+      System.exit(2);
+    }
+    final double threshold = args.length == 3 ? Double.parseDouble(args[2]) / 100 : 0.1;
+    final List<Comparison> comparisons = compare(read(args[0]), read(args[1]), threshold);
+    boolean regressed = false;
+    for (final Comparison comparison : comparisons) {
+      System.out.println(comparison);
+      regressed |= comparison.regressed;
+    }
+    System.exit(regressed ? 1 : 0);
+  }
+
+  private static Map<String, Metric> read(final String path) throws IOException {
+    return metrics(new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * the metrics of a JMH JSON report, by benchmark, parameters and metric name
+   */
+  static Map<String, Metric> metrics(final String json) {
+    final Map<String, Metric> metrics = new TreeMap<>();
+    for (final Object o : list(Json.parse(json))) {
+      final Map<String, Object> run = map(o);
+      final String name = run.get("benchmark") + params(run.get("params"));
+      final Map<String, Object> primary = map(run.get("primaryMetric"));
+      metrics.put(name + " " + run.get("mode"), new Metric(primary, "thrpt".equals(run.get("mode")), 0));
+      final Object secondaries = run.get("secondaryMetrics");
+      if (secondaries != null) {
+        for (final Map.Entry<String, Object> secondary : map(secondaries).entrySet()) {
+          if (secondary.getKey().endsWith(ALLOCATION)) {
+            metrics.put(name + " " + ALLOCATION, new Metric(map(secondary.getValue()), false, ALLOCATION_SLACK));
+          }
+        }
+      }
+    }
+    return metrics;
+  }
+
+  /**
+   * compare every metric of the baseline to the current one, a threshold of
+   * 0.1 allowing each to get 10% worse
+   */
+  static List<Comparison> compare(final Map<String, Metric> baseline, final Map<String, Metric> current, final double threshold) {
+    final List<Comparison> comparisons = new ArrayList<>(baseline.size());
+    for (final Map.Entry<String, Metric> entry : baseline.entrySet()) {
+      comparisons.add(new Comparison(entry.getKey(), entry.getValue(), current.get(entry.getKey()), threshold));
+    }
+    return comparisons;
+  }
+
+  private static String params(final Object params) {
+    if (params == null) {
+      return "";
+    }
+    final StringBuilder sb = new StringBuilder("(");
+    for (final Map.Entry<String, Object> param : new TreeMap<>(map(params)).entrySet()) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(param.getKey()).append('=').append(param.getValue());
+    }
+    return sb.append(')').toString();
+  }
+
+  @SuppressWarnings("unchecked") private static Map<String, Object> map(final Object o) {
+    return o instanceof Map ? (Map<String, Object>) o : Collections.emptyMap();
+  }
+
+  @SuppressWarnings("unchecked") private static List<Object> list(final Object o) {
+    if (!(o instanceof List)) {
+      throw new IllegalArgumentException("not a JMH JSON report");
+    }
+    return (List<Object>) o;
+  }
+
+  static final class Metric {
+    final double score;
+    final String unit;
+    final boolean higherIsBetter;
+    final double slack;
+
+    Metric(final Map<String, Object> metric, final boolean higherIsBetter, final double slack) {
+      final Object score = metric.get("score");
+      this.score = score instanceof Double ? (Double) score : Double.NaN;
+      this.unit = String.valueOf(metric.get("scoreUnit"));
+      this.higherIsBetter = higherIsBetter;
+      this.slack = slack;
+    }
+  }
+
+  static final class Comparison {
+    final String name;
+    final Metric baseline;
+    final Metric current;
+    final boolean regressed;
+
+    Comparison(final String name, final Metric baseline, final Metric current, final double threshold) {
+      this.name = name;
+      this.baseline = baseline;
+      this.current = current;
+      this.regressed = current != null && (baseline.higherIsBetter ? current.score < baseline.score * (1 - threshold) : current.score > baseline.score
+        * (1 + threshold) + baseline.slack);
+    }
+
+    @Override public String toString() {
+      if (current == null) {
+        return String.format("%s: %.3f %s, missing", name, baseline.score, baseline.unit);
+      }
+      return String.format("%s: %.3f -> %.3f %s (%+.1f%%)%s", name, baseline.score, current.score, current.unit,
+        (current.score / baseline.score - 1) * 100, regressed ? " REGRESSED" : "");
+    }
+  }
+}
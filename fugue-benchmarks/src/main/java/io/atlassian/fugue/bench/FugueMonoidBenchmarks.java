@@ -0,0 +1,45 @@
+package io.atlassian.fugue.bench;
+
+import io.atlassian.fugue.Monoid;
+import io.atlassian.fugue.Monoids;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MonoidBenchmarks} for the monoids of {@link Monoids}.
+ */
+public final class FugueMonoidBenchmarks {
+
+  private FugueMonoidBenchmarks() {}
+
+  public static class IntAddition extends MonoidBenchmarks<Integer> {
+    @Override protected Monoid<Integer> monoid() {
+      return Monoids.intAddition;
+    }
+
+    @Override protected Integer element(final int i) {
+      return i;
+    }
+  }
+
+  public static class Strings extends MonoidBenchmarks<String> {
+    @Override protected Monoid<String> monoid() {
+      return Monoids.string;
+    }
+
+    @Override protected String element(final int i) {
+      return Integer.toString(i);
+    }
+  }
+
+  public static class Lists extends MonoidBenchmarks<List<Integer>> {
+    @Override protected Monoid<List<Integer>> monoid() {
+      return Monoids.list();
+    }
+
+    @Override protected List<Integer> element(final int i) {
+      return Collections.singletonList(i);
+    }
+  }
+}
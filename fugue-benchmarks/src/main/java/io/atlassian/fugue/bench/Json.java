@@ -0,0 +1,179 @@
+package io.atlassian.fugue.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough of a JSON parser to read JMH result files, so the comparison
+ * needs nothing but the JDK. Objects become maps, arrays lists and numbers
+ * doubles, including the unquoted NaN and Infinity JMH writes for missing
+ * scores.
+ */
+final class Json {
+
+  private final String s;
+  private int i = 0;
+
+  private Json(final String s) {
+    this.s = s;
+  }
+
+  static Object parse(final String s) {
+    final Json json = new Json(s);
+    final Object value = json.value();
+    json.whitespace();
+    if (json.i != s.length()) {
+      throw json.error("end of input");
+    }
+    return value;
+  }
+
+  private Object value() {
+    whitespace();
+    if (i == s.length()) {
+      throw error("a value");
+    }
+    final char c = s.charAt(i);
+    switch (c) {
+      case '{':
+        return object();
+      case '[':
+        return array();
+      case '"':
+        return string();
+      default:
+        if (s.startsWith("true", i)) {
+          i += 4;
+          return Boolean.TRUE;
+        }
+        if (s.startsWith("false", i)) {
+          i += 5;
+          return Boolean.FALSE;
+        }
+        if (s.startsWith("null", i)) {
+          i += 4;
+          return null;
+        }
+        return number();
+    }
+  }
+
+  private Map<String, Object> object() {
+    final Map<String, Object> object = new LinkedHashMap<>();
+    i++;
+    whitespace();
+    if (peek('}')) {
+      return object;
+    }
+    do {
+      whitespace();
+      final String key = string();
+      whitespace();
+      expect(':');
+      object.put(key, value());
+      whitespace();
+    } while (peek(','));
+    expect('}');
+    return object;
+  }
+
+  private List<Object> array() {
+    final List<Object> array = new ArrayList<>();
+    i++;
+    whitespace();
+    if (peek(']')) {
+      return array;
+    }
+    do {
+      array.add(value());
+      whitespace();
+    } while (peek(','));
+    expect(']');
+    return array;
+  }
+
+  private String string() {
+    expect('"');
+    final StringBuilder sb = new StringBuilder();
+    while (i < s.length()) {
+      final char c = s.charAt(i++);
+      if (c == '"') {
+        return sb.toString();
+      }
+      if (c != '\\') {
+        sb.append(c);
+        continue;
+      }
+      if (i == s.length()) {
+        break;
+      }
+      final char e = s.charAt(i++);
+      switch (e) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          if (i + 4 > s.length()) {
+            throw error("four hex digits");
+          }
+          sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+          i += 4;
+          break;
+        default:
+          sb.append(e);
+      }
+    }
+    throw error("a closing quote");
+  }
+
+  private Double number() {
+    final int start = i;
+    while (i < s.length() && "+-.0123456789eEINaity".indexOf(s.charAt(i)) >= 0) {
+      i++;
+    }
+    try {
+      return Double.valueOf(s.substring(start, i));
+    } catch (final NumberFormatException e) {
+      i = start;
+      throw error("a value");
+    }
+  }
+
+  private void whitespace() {
+    while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+      i++;
+    }
+  }
+
+  private boolean peek(final char c) {
+    if (i < s.length() && s.charAt(i) == c) {
+      i++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(final char c) {
+    if (!peek(c)) {
+      throw error("'" + c + "'");
+    }
+  }
+
+  private IllegalArgumentException error(final String expected) {
+    return new IllegalArgumentException("expected " + expected + " at offset " + i);
+  }
+}
@@ -0,0 +1,81 @@
+package io.atlassian.fugue.bench;
+
+import io.atlassian.fugue.Monoid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for any {@link Monoid}, the performance counterpart of
+ * {@link io.atlassian.fugue.law.MonoidLaws}. Extend it with the instance under
+ * test and a way to make its elements; JMH runs every benchmark below for each
+ * concrete subclass and each {@link #size}.
+ * <p>
+ * Run with {@code -prof gc} to also record the bytes allocated per operation,
+ * and {@code -rf json} for a report {@link BenchmarkComparison} can check
+ * against a baseline.
+ *
+ * @param <A> the type of the monoid
+ */
+@State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public abstract class MonoidBenchmarks<A> {
+
+  /**
+   * the number of elements summed, and the multiplier
+   */
+  @Param({ "10", "1000", "100000" }) public int size;
+
+  private Monoid<A> monoid;
+  private List<A> as;
+  private A a1;
+  private A a2;
+
+  /**
+   * @return the monoid under test
+   */
+  protected abstract Monoid<A> monoid();
+
+  /**
+   * @param i the index of the element in the summed list
+   * @return an element of the monoid
+   */
+  protected abstract A element(int i);
+
+  @Setup public void setup() {
+    monoid = monoid();
+    as = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      as.add(element(i));
+    }
+    a1 = element(0);
+    a2 = element(1);
+  }
+
+  @Benchmark public A append() {
+    return monoid.append(a1, a2);
+  }
+
+  @Benchmark public A sum() {
+    return monoid.sum(as);
+  }
+
+  @Benchmark public A sumParallel() {
+    return monoid.sumParallel(as.spliterator());
+  }
+
+  @Benchmark public A multiply() {
+    return monoid.multiply(size, a1);
+  }
+}
@@ -0,0 +1,113 @@
+package io.atlassian.fugue.bench;
+
+import io.atlassian.fugue.Monoid;
+import io.atlassian.fugue.Monoids;
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.Semigroups;
+import io.atlassian.fugue.WindowedAggregator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds a value to a sliding window of the last {@link #size} values and gets
+ * the sum, through a {@link WindowedAggregator} and by naively summing an
+ * {@link ArrayDeque} of the window. Extend it with the monoid under test and a
+ * way to make its values.
+ *
+ * @param <A> the type of the values
+ */
+@State(Scope.Thread) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public abstract class WindowedAggregatorBenchmarks<A> {
+
+  /**
+   * the number of values in the window
+   */
+  @Param({ "10", "1000", "100000" }) public int size;
+
+  private Monoid<A> monoid;
+  private Object[] values;
+  private int next;
+  private WindowedAggregator<A> aggregator;
+  private ArrayDeque<A> window;
+
+  /**
+   * @return the monoid under test
+   */
+  protected abstract Monoid<A> monoid();
+
+  /**
+   * @param i the index of the value in the stream
+   * @return a value of the monoid
+   */
+  protected abstract A element(int i);
+
+  @Setup public void setup() {
+    monoid = monoid();
+    // made up front and reused, so neither side pays for making values
+    values = new Object[1024];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = element(i);
+    }
+    aggregator = WindowedAggregator.lastN(monoid, size);
+    window = new ArrayDeque<>(size + 1);
+    for (int i = 0; i < size; i++) {
+      final A a = value();
+      aggregator.add(a);
+      window.addLast(a);
+    }
+  }
+
+  private A value() {
+    @SuppressWarnings("unchecked")
+    final A a = (A) values[next++ & (values.length - 1)];
+    return a;
+  }
+
+  @Benchmark public A windowed() {
+    aggregator.add(value());
+    return aggregator.get();
+  }
+
+  @Benchmark public A naive() {
+    window.addLast(value());
+    if (window.size() > size) {
+      window.removeFirst();
+    }
+    return monoid.sum(window);
+  }
+
+  public static class IntAddition extends WindowedAggregatorBenchmarks<Integer> {
+    @Override protected Monoid<Integer> monoid() {
+      return Monoids.intAddition;
+    }
+
+    @Override protected Integer element(final int i) {
+      return i;
+    }
+  }
+
+  /**
+   * a monoid without an inverse, which a windowed sum cannot subtract from
+   */
+  public static class IntMaximum extends WindowedAggregatorBenchmarks<Option<Integer>> {
+    @Override protected Monoid<Option<Integer>> monoid() {
+      return Monoids.option(Semigroups.intMaximum);
+    }
+
+    @Override protected Option<Integer> element(final int i) {
+      return Option.some(i);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+package io.atlassian.fugue.optic.bench;
+
+import io.atlassian.fugue.Pair;
+import io.atlassian.fugue.optic.Lens;
+import io.atlassian.fugue.optic.PLens;
+import io.atlassian.fugue.optic.PTraversal;
+import io.atlassian.fugue.optic.std.ArrayOptics;
+import io.atlassian.fugue.optic.std.ListOptics;
+import io.atlassian.fugue.optic.std.MapOptics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link OpticBenchmarks} for the optics of fugue-optics.
+ */
+public final class FugueOpticBenchmarks {
+
+  private static final Function<Integer, Integer> PLUS_ONE = i -> i + 1;
+
+  private static final Lens<Object, Object> left = Lens.lens(s -> ((Pair<?, ?>) s).left(), a -> s -> Pair.pair(a, ((Pair<?, ?>) s).right()));
+
+  private FugueOpticBenchmarks() {}
+
+  /**
+   * {@code size} composed lenses down the left of nested pairs
+   */
+  public static class NestedPairLens extends OpticBenchmarks.LensBenchmark<Object, Object> {
+    @Override protected PLens<Object, Object, Object, Object> lens(final int size) {
+      Lens<Object, Object> lens = Lens.id();
+      for (int i = 0; i < size; i++) {
+        lens = lens.composeLens(left);
+      }
+      return lens;
+    }
+
+    @Override protected Object source(final int size) {
+      Object s = 0;
+      for (int i = 0; i < size; i++) {
+        s = Pair.pair(s, "right");
+      }
+      return s;
+    }
+
+    @Override protected Object target() {
+      return 1;
+    }
+
+    @Override protected Function<Object, Object> update() {
+      return a -> (Integer) a + 1;
+    }
+  }
+
+  /**
+   * {@link NestedPairLens} fused into a single lens
+   */
+  public static class FusedNestedPairLens extends NestedPairLens {
+    @Override protected PLens<Object, Object, Object, Object> lens(final int size) {
+      return super.lens(size).fuse();
+    }
+  }
+
+  public static class ListEach extends OpticBenchmarks.TraversalBenchmark<List<Integer>, Integer> {
+    @Override protected PTraversal<List<Integer>, List<Integer>, Integer, Integer> traversal(final int size) {
+      return ListOptics.each();
+    }
+
+    @Override protected List<Integer> source(final int size) {
+      final List<Integer> as = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        as.add(i);
+      }
+      return Collections.unmodifiableList(as);
+    }
+
+    @Override protected Function<Integer, Integer> update() {
+      return PLUS_ONE;
+    }
+  }
+
+  public static class MapEach extends OpticBenchmarks.TraversalBenchmark<Map<Integer, Integer>, Integer> {
+    @Override protected PTraversal<Map<Integer, Integer>, Map<Integer, Integer>, Integer, Integer> traversal(final int size) {
+      return MapOptics.each();
+    }
+
+    @Override protected Map<Integer, Integer> source(final int size) {
+      final Map<Integer, Integer> m = new LinkedHashMap<>();
+      for (int i = 0; i < size; i++) {
+        m.put(i, i);
+      }
+      return Collections.unmodifiableMap(m);
+    }
+
+    @Override protected Function<Integer, Integer> update() {
+      return PLUS_ONE;
+    }
+  }
+
+  public static class ArrayEach extends OpticBenchmarks.TraversalBenchmark<Integer[], Integer> {
+    @Override protected PTraversal<Integer[], Integer[], Integer, Integer> traversal(final int size) {
+      return ArrayOptics.each();
+    }
+
+    @Override protected Integer[] source(final int size) {
+      final Integer[] as = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        as[i] = i;
+      }
+      return as;
+    }
+
+    @Override protected Function<Integer, Integer> update() {
+      return PLUS_ONE;
+    }
+  }
+
+  /**
+   * the plain loops the collection traversals are measured against: copy the
+   * elements while applying the same function, and count them
+   */
+  @State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public static class PlainLoops {
+
+    /**
+     * the number of elements, the same sizes as the traversal benchmarks
+     */
+    @Param({ "10", "1000", "100000" }) public int size;
+
+    private List<Integer> list;
+    private Integer[] array;
+
+    @Setup public void setup() {
+      list = new ListEach().source(size);
+      array = new ArrayEach().source(size);
+    }
+
+    @Benchmark public List<Integer> listModify() {
+      final List<Integer> bs = new ArrayList<>(list.size());
+      for (final Integer a : list) {
+        bs.add(PLUS_ONE.apply(a));
+      }
+      return bs;
+    }
+
+    @Benchmark public Integer[] arrayModify() {
+      final Integer[] bs = new Integer[array.length];
+      for (int i = 0; i < array.length; i++) {
+        bs[i] = PLUS_ONE.apply(array[i]);
+      }
+      return bs;
+    }
+
+    @Benchmark public int listFold() {
+      int n = 0;
+      for (final Integer a : list) {
+        n += a == null ? 0 : 1;
+      }
+      return n;
+    }
+
+    @Benchmark public int arrayFold() {
+      int n = 0;
+      for (final Integer a : array) {
+        n += a == null ? 0 : 1;
+      }
+      return n;
+    }
+  }
+}
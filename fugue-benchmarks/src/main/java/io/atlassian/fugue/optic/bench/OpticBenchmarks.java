@@ -0,0 +1,149 @@
+package io.atlassian.fugue.optic.bench;
+
+import io.atlassian.fugue.Monoids;
+import io.atlassian.fugue.optic.PLens;
+import io.atlassian.fugue.optic.PTraversal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Benchmarks for any lens or traversal, the performance counterpart of the laws
+ * in {@link io.atlassian.fugue.optic.law}. Extend {@link LensBenchmark} or
+ * {@link TraversalBenchmark} with the optic under test and a source of a given
+ * size; JMH runs every benchmark of the base class for each concrete subclass
+ * and each size.
+ * <p>
+ * Run with {@code -prof gc} to also record the bytes allocated per operation,
+ * and {@code -rf json} for a report
+ * {@link io.atlassian.fugue.bench.BenchmarkComparison} can check against a
+ * baseline.
+ */
+public final class OpticBenchmarks {
+
+  private OpticBenchmarks() {}
+
+  /**
+   * get, set and modify through a lens
+   *
+   * @param <S> the source of the lens
+   * @param <A> the target of the lens
+   */
+  @State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public abstract static class LensBenchmark<S, A> {
+
+    /**
+     * the size of the structure, such as the depth of a composed lens
+     */
+    @Param({ "1", "4", "16" }) public int size;
+
+    private PLens<S, S, A, A> lens;
+    private S s;
+    private A a;
+    private Function<A, A> f;
+
+    /**
+     * @param size the size of the structure
+     * @return the lens under test
+     */
+    protected abstract PLens<S, S, A, A> lens(int size);
+
+    /**
+     * @param size the size of the structure
+     * @return a source for the lens
+     */
+    protected abstract S source(int size);
+
+    /**
+     * @return the target to set
+     */
+    protected abstract A target();
+
+    /**
+     * @return the function to modify the target with
+     */
+    protected abstract Function<A, A> update();
+
+    @Setup public void setup() {
+      lens = lens(size);
+      s = source(size);
+      a = target();
+      f = update();
+    }
+
+    @Benchmark public A get() {
+      return lens.get(s);
+    }
+
+    @Benchmark public S set() {
+      return lens.set(a).apply(s);
+    }
+
+    @Benchmark public S modify() {
+      return lens.modify(f).apply(s);
+    }
+  }
+
+  /**
+   * modify and fold the targets of a traversal
+   *
+   * @param <S> the source of the traversal
+   * @param <A> the targets of the traversal
+   */
+  @State(Scope.Benchmark) @BenchmarkMode(Mode.Throughput) @OutputTimeUnit(TimeUnit.SECONDS) @Warmup(iterations = 5, time = 1) @Measurement(iterations = 5, time = 1) @Fork(1) public abstract static class TraversalBenchmark<S, A> {
+
+    /**
+     * the size of the structure, such as the number of targets
+     */
+    @Param({ "10", "1000", "100000" }) public int size;
+
+    private PTraversal<S, S, A, A> traversal;
+    private S s;
+    private Function<A, A> f;
+
+    /**
+     * @param size the size of the structure
+     * @return the traversal under test
+     */
+    protected abstract PTraversal<S, S, A, A> traversal(int size);
+
+    /**
+     * @param size the size of the structure
+     * @return a source for the traversal
+     */
+    protected abstract S source(int size);
+
+    /**
+     * @return the function to modify the targets with
+     */
+    protected abstract Function<A, A> update();
+
+    @Setup public void setup() {
+      traversal = traversal(size);
+      s = source(size);
+      f = update();
+    }
+
+    @Benchmark public S modify() {
+      return traversal.modify(f).apply(s);
+    }
+
+    /**
+     * count the targets, so that only the cost of the traversal is measured
+     */
+    @Benchmark public Integer foldMap() {
+      return traversal.foldMap(Monoids.intAddition, a -> 1).apply(s);
+    }
+  }
+}
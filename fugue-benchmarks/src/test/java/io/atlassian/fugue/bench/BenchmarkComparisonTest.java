@@ -0,0 +1,78 @@
+package io.atlassian.fugue.bench;
+
+import io.atlassian.fugue.bench.BenchmarkComparison.Comparison;
+import io.atlassian.fugue.bench.BenchmarkComparison.Metric;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class BenchmarkComparisonTest {
+
+  private static String report(final String mode, final double score, final double allocation) {
+    return "[ { \"benchmark\" : \"io.atlassian.fugue.bench.FugueMonoidBenchmarks.IntAddition.sum\", \"mode\" : \"" + mode + "\", "
+      + "\"params\" : { \"size\" : \"1000\" }, \"primaryMetric\" : { \"score\" : " + score + ", \"scoreUnit\" : \"ops/s\", "
+      + "\"rawData\" : [ [ 1.0, 2.0 ] ] }, \"secondaryMetrics\" : { \"\u00b7gc.alloc.rate.norm\" : { \"score\" : " + allocation
+      + ", \"scoreUnit\" : \"B/op\" }, \"\u00b7gc.count\" : { \"score\" : NaN } } } ]";
+  }
+
+  private static List<Comparison> compare(final String baseline, final String current) {
+    return BenchmarkComparison.compare(BenchmarkComparison.metrics(baseline), BenchmarkComparison.metrics(current), 0.1);
+  }
+
+  private static Comparison metric(final List<Comparison> comparisons, final String metric) {
+    for (final Comparison comparison : comparisons) {
+      if (comparison.name.endsWith(" " + metric)) {
+        return comparison;
+      }
+    }
+    throw new AssertionError("no " + metric + " in " + comparisons);
+  }
+
+  @Test public void readsScoreAndAllocationByParameters() {
+    final Map<String, Metric> metrics = BenchmarkComparison.metrics(report("thrpt", 100.0, 16.0));
+    assertThat(metrics.keySet(), contains("io.atlassian.fugue.bench.FugueMonoidBenchmarks.IntAddition.sum(size=1000) gc.alloc.rate.norm",
+      "io.atlassian.fugue.bench.FugueMonoidBenchmarks.IntAddition.sum(size=1000) thrpt"));
+  }
+
+  @Test public void throughputWithinThresholdPasses() {
+    for (final Comparison comparison : compare(report("thrpt", 100.0, 16.0), report("thrpt", 91.0, 16.0))) {
+      assertThat(comparison.toString(), comparison.regressed, is(false));
+    }
+  }
+
+  @Test public void throughputDropRegresses() {
+    final List<Comparison> comparisons = compare(report("thrpt", 100.0, 16.0), report("thrpt", 89.0, 16.0));
+    assertThat(metric(comparisons, "thrpt").regressed, is(true));
+    assertThat(metric(comparisons, "thrpt").toString(), containsString("REGRESSED"));
+  }
+
+  @Test public void averageTimeIncreaseRegresses() {
+    assertThat(metric(compare(report("avgt", 100.0, 16.0), report("avgt", 111.0, 16.0)), "avgt").regressed, is(true));
+    assertThat(metric(compare(report("avgt", 100.0, 16.0), report("avgt", 80.0, 16.0)), "avgt").regressed, is(false));
+  }
+
+  @Test public void allocationIncreaseRegresses() {
+    assertThat(metric(compare(report("thrpt", 100.0, 16.0), report("thrpt", 100.0, 24.0)), BenchmarkComparison.ALLOCATION).regressed, is(true));
+  }
+
+  @Test public void allocationFreeMayStayWithinNoise() {
+    assertThat(metric(compare(report("thrpt", 100.0, 0.0), report("thrpt", 100.0, 0.001)), BenchmarkComparison.ALLOCATION).regressed, is(false));
+  }
+
+  @Test public void missingBenchmarksAreReportedNotFailed() {
+    final List<Comparison> comparisons = compare(report("thrpt", 100.0, 16.0), "[]");
+    assertThat(metric(comparisons, "thrpt").regressed, is(false));
+    assertThat(metric(comparisons, "thrpt").toString(), containsString("missing"));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void rejectsMalformedReports() {
+    BenchmarkComparison.metrics("[ { \"benchmark\" : ");
+  }
+}
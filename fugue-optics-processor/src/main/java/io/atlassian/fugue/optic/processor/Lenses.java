@@ -0,0 +1,36 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.optic.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code Lens} for every instance field of an immutable class.
+ * <p>
+ * For a class {@code Person} the {@link OpticsProcessor} writes a class
+ * {@code PersonLenses} in the same package, with a {@code Lens} constant named
+ * after each field. The lenses read a field directly, or through a method named
+ * after the field, its {@code get} or its {@code is} accessor when the field is
+ * private, and set a field by calling the constructor that takes every field in
+ * declaration order. Generic classes are not supported.
+ *
+ * @since 5.0
+ */
+@Documented @Retention(RetentionPolicy.SOURCE) @Target(ElementType.TYPE) public @interface Lenses {}
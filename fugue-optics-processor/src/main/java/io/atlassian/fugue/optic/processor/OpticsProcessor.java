@@ -0,0 +1,244 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.optic.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the lens and prism constants for types annotated with {@link Lenses}
+ * and {@link Prisms}. The generated code calls constructors, fields and
+ * accessors directly, so no reflection happens at runtime.
+ *
+ * @since 5.0
+ */
+public final class OpticsProcessor extends AbstractProcessor {
+
+  private static final String LENS = "io.atlassian.fugue.optic.Lens";
+  private static final String PRISM = "io.atlassian.fugue.optic.Prism";
+  private static final String OPTION = "io.atlassian.fugue.Option";
+
+  @Override public Set<String> getSupportedAnnotationTypes() {
+    return new HashSet<>(Arrays.asList(Lenses.class.getCanonicalName(), Prisms.class.getCanonicalName()));
+  }
+
+  @Override public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+    for (final TypeElement type : ElementFilter.typesIn(round.getElementsAnnotatedWith(Lenses.class))) {
+      lenses(type);
+    }
+    for (final TypeElement type : ElementFilter.typesIn(round.getElementsAnnotatedWith(Prisms.class))) {
+      prisms(type);
+    }
+    return true;
+  }
+
+  //
+  // lenses
+  //
+
+  private void lenses(final TypeElement type) {
+    if (!type.getTypeParameters().isEmpty()) {
+      error(type, "@Lenses does not support generic types");
+      return;
+    }
+    final List<VariableElement> fields = new ArrayList<>();
+    for (final VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      if (!field.getModifiers().contains(Modifier.STATIC)) {
+        fields.add(field);
+      }
+    }
+    if (!hasConstructor(type, fields)) {
+      error(type, "@Lenses requires a constructor taking every field in declaration order");
+      return;
+    }
+    final List<String> getters = new ArrayList<>(fields.size());
+    for (final VariableElement field : fields) {
+      final String getter = getter(type, field);
+      if (getter == null) {
+        error(field, "@Lenses requires a non private field or accessor for " + field.getSimpleName());
+        return;
+      }
+      getters.add(getter);
+    }
+    final String source = type.getQualifiedName().toString();
+    final StringBuilder body = new StringBuilder();
+    for (int i = 0; i < fields.size(); i++) {
+      final List<String> arguments = new ArrayList<>(getters);
+      arguments.set(i, "v");
+      body.append("  public static final ").append(LENS).append('<').append(source).append(", ").append(boxed(fields.get(i).asType())).append("> ")
+        .append(fields.get(i).getSimpleName()).append(" = ").append(LENS).append(".lens(s -> ").append(getters.get(i)).append(", v -> s -> new ")
+        .append(source).append('(').append(String.join(", ", arguments)).append("));\n\n");
+    }
+    write(type, "Lenses", body);
+  }
+
+  private boolean hasConstructor(final TypeElement type, final List<VariableElement> fields) {
+    for (final ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      final List<? extends VariableElement> parameters = constructor.getParameters();
+      if (constructor.getModifiers().contains(Modifier.PRIVATE) || parameters.size() != fields.size()) {
+        continue;
+      }
+      boolean matches = true;
+      for (int i = 0; i < fields.size(); i++) {
+        matches &= processingEnv.getTypeUtils().isSameType(parameters.get(i).asType(), fields.get(i).asType());
+      }
+      if (matches) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * the expression reading a field from a source named s, or null if it cannot
+   * be read from outside the class
+   */
+  private String getter(final TypeElement type, final VariableElement field) {
+    final String name = field.getSimpleName().toString();
+    if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+      return "s." + name;
+    }
+    final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    final List<String> candidates = Arrays.asList(name, "get" + capitalized, "is" + capitalized);
+    for (final ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+      if (candidates.contains(method.getSimpleName().toString()) && method.getParameters().isEmpty()
+        && !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)
+        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+        return "s." + method.getSimpleName() + "()";
+      }
+    }
+    return null;
+  }
+
+  //
+  // prisms
+  //
+
+  private void prisms(final TypeElement type) {
+    if (!type.getTypeParameters().isEmpty()) {
+      error(type, "@Prisms does not support generic types");
+      return;
+    }
+    if (type.getKind() != ElementKind.INTERFACE && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+      error(type, "@Prisms requires an abstract class or an interface");
+      return;
+    }
+    final String source = type.getQualifiedName().toString();
+    final StringBuilder body = new StringBuilder();
+    for (final TypeElement member : ElementFilter.typesIn(type.getEnclosedElements())) {
+      if (!member.getTypeParameters().isEmpty() || member.getModifiers().contains(Modifier.PRIVATE)
+        || !processingEnv.getTypeUtils().isSubtype(member.asType(), type.asType())) {
+        continue;
+      }
+      final String target = member.getQualifiedName().toString();
+      body.append("  public static final ").append(PRISM).append('<').append(source).append(", ").append(target).append("> ")
+        .append(constantName(member.getSimpleName().toString())).append(" = ").append(PRISM).append(".prism(s -> s instanceof ").append(target)
+        .append(" ? ").append(OPTION).append(".some((").append(target).append(") s) : ").append(OPTION).append(".<").append(target)
+        .append("> none(), a -> a);\n\n");
+    }
+    if (body.length() == 0) {
+      error(type, "@Prisms requires nested classes that extend the annotated type");
+      return;
+    }
+    write(type, "Prisms", body);
+  }
+
+  private static String constantName(final String simpleName) {
+    final String name = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+    return SourceVersion.isKeyword(name) ? name + "_" : name;
+  }
+
+  //
+  // output
+  //
+
+  private void write(final TypeElement type, final String suffix, final CharSequence body) {
+    final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+    final String name = flatName(type) + suffix;
+    final String qualified = pkg.isUnnamed() ? name : pkg.getQualifiedName() + "." + name;
+    final String visibility = type.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+    try (Writer writer = processingEnv.getFiler().createSourceFile(qualified, type).openWriter()) {
+      if (!pkg.isUnnamed()) {
+        writer.write("package " + pkg.getQualifiedName() + ";\n\n");
+      }
+      writer.write("/** Generated from {@link " + type.getQualifiedName() + "}. */\n");
+      writer.write(visibility + "final class " + name + " {\n\n");
+      writer.write("  private " + name + "() {}\n\n");
+      writer.write(body.toString());
+      writer.write("}\n");
+    } catch (final IOException e) {
+      error(type, "Could not write " + qualified + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * the simple names of a type and the types enclosing it, joined
+   */
+  private static String flatName(final TypeElement type) {
+    final Element enclosing = type.getEnclosingElement();
+    final String name = type.getSimpleName().toString();
+    return (enclosing instanceof TypeElement) ? flatName((TypeElement) enclosing) + name : name;
+  }
+
+  private static String boxed(final TypeMirror type) {
+    switch (type.getKind()) {
+      case BOOLEAN:
+        return "java.lang.Boolean";
+      case BYTE:
+        return "java.lang.Byte";
+      case SHORT:
+        return "java.lang.Short";
+      case INT:
+        return "java.lang.Integer";
+      case LONG:
+        return "java.lang.Long";
+      case CHAR:
+        return "java.lang.Character";
+      case FLOAT:
+        return "java.lang.Float";
+      case DOUBLE:
+        return "java.lang.Double";
+      default:
+        return type.toString();
+    }
+  }
+
+  private void error(final Element element, final String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
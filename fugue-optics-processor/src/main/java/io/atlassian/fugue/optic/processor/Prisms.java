@@ -0,0 +1,35 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.optic.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code Prism} for every case of a closed hierarchy, an abstract
+ * class or interface whose cases are the classes nested in it that extend it.
+ * <p>
+ * For a type {@code Shape} the {@link OpticsProcessor} writes a class
+ * {@code ShapePrisms} in the same package, with a {@code Prism} constant for
+ * each case named after the case with a lower case first letter. The prisms
+ * match with {@code instanceof} and a cast. Generic types are not supported.
+ *
+ * @since 5.0
+ */
+@Documented @Retention(RetentionPolicy.SOURCE) @Target(ElementType.TYPE) public @interface Prisms {}
@@ -0,0 +1,146 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.optic.processor;
+
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.optic.Lens;
+import io.atlassian.fugue.optic.Prism;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class OpticsProcessorTest {
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private static final String PERSON = "package test;\n" //
+    + "@io.atlassian.fugue.optic.processor.Lenses\n" //
+    + "public final class Person {\n" //
+    + "  private final String name;\n" //
+    + "  final int age;\n" //
+    + "  private final boolean admin;\n" //
+    + "  private static int count;\n" //
+    + "  public Person(String name, int age, boolean admin) { this.name = name; this.age = age; this.admin = admin; }\n" //
+    + "  public String getName() { return name; }\n" //
+    + "  public boolean isAdmin() { return admin; }\n" //
+    + "  @Override public String toString() { return name + \" \" + age + \" \" + admin; }\n" //
+    + "}\n";
+
+  private static final String SHAPE = "package test;\n" //
+    + "@io.atlassian.fugue.optic.processor.Prisms\n" //
+    + "public abstract class Shape {\n" //
+    + "  private Shape() {}\n" //
+    + "  public static final class Circle extends Shape {}\n" //
+    + "  public static final class Square extends Shape {}\n" //
+    + "}\n";
+
+  @Test public void lensesReadAndRebuild() throws Exception {
+    final ClassLoader loader = compile(PERSON);
+    final Class<?> person = loader.loadClass("test.Person");
+    final Object alice = person.getConstructor(String.class, int.class, boolean.class).newInstance("alice", 30, false);
+    final Lens<Object, String> name = constant(loader.loadClass("test.PersonLenses"), "name");
+    final Lens<Object, Integer> age = constant(loader.loadClass("test.PersonLenses"), "age");
+    final Lens<Object, Boolean> admin = constant(loader.loadClass("test.PersonLenses"), "admin");
+    assertThat(name.get(alice), is("alice"));
+    assertThat(age.modify(a -> a + 1).apply(alice).toString(), is("alice 31 false"));
+    assertThat(admin.set(true).apply(alice).toString(), is("alice 30 true"));
+    assertThat(name.set("bob").apply(alice).toString(), is("bob 30 false"));
+  }
+
+  @Test public void prismsMatchCases() throws Exception {
+    final ClassLoader loader = compile(SHAPE);
+    final Object circle = construct(loader.loadClass("test.Shape$Circle"));
+    final Prism<Object, Object> circlePrism = constant(loader.loadClass("test.ShapePrisms"), "circle");
+    final Prism<Object, Object> squarePrism = constant(loader.loadClass("test.ShapePrisms"), "square");
+    assertThat(circlePrism.getOption(circle), is(Option.some(circle)));
+    assertThat(squarePrism.getOption(circle), is(Option.none()));
+    assertThat(circlePrism.reverseGet(circle), is(circle));
+  }
+
+  @Test public void lensesWithoutConstructorIsAnError() throws Exception {
+    final String source = "package test;\n" //
+      + "@io.atlassian.fugue.optic.processor.Lenses\n" //
+      + "public final class Broken {\n" //
+      + "  final String name;\n" //
+      + "  public Broken() { name = \"\"; }\n" //
+      + "}\n";
+    assertThat(errors(source), containsString("requires a constructor taking every field"));
+  }
+
+  @Test public void prismsOnConcreteClassIsAnError() throws Exception {
+    final String source = "package test;\n" //
+      + "@io.atlassian.fugue.optic.processor.Prisms\n" //
+      + "public class Broken {}\n";
+    assertThat(errors(source), containsString("requires an abstract class or an interface"));
+  }
+
+  @SuppressWarnings("unchecked") private static <A> A constant(final Class<?> type, final String name) throws Exception {
+    return (A) type.getField(name).get(null);
+  }
+
+  private static Object construct(final Class<?> type) throws Exception {
+    return type.getConstructor().newInstance();
+  }
+
+  private ClassLoader compile(final String source) throws Exception {
+    final File out = folder.newFolder();
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    if (!run(source, out, diagnostics)) {
+      throw new AssertionError(diagnostics.getDiagnostics().toString());
+    }
+    return new URLClassLoader(new URL[] { out.toURI().toURL() }, getClass().getClassLoader());
+  }
+
+  private String errors(final String source) throws Exception {
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    assertThat(run(source, folder.newFolder(), diagnostics), is(false));
+    return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR).map(d -> d.getMessage(null))
+      .collect(Collectors.joining("\n"));
+  }
+
+  private static boolean run(final String source, final File out, final DiagnosticCollector<JavaFileObject> diagnostics) {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final String className = source.substring(source.indexOf("class ") + 6, source.indexOf(' ', source.indexOf("class ") + 6));
+    final JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics,
+      Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", out.getPath(), "-s", out.getPath()), null,
+      Collections.singletonList(file));
+    task.setProcessors(Collections.singletonList(new OpticsProcessor()));
+    return task.call();
+  }
+}
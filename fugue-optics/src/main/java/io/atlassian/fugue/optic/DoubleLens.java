@@ -0,0 +1,77 @@
+package io.atlassian.fugue.optic;
+
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link Lens} onto a double target, that gets, sets and modifies it without
+ * boxing.
+ *
+ * @param <S> the source of an {@link DoubleLens}
+ */
+public abstract class DoubleLens<S> {
+
+  DoubleLens() {
+    super();
+  }
+
+  /**
+   * get the target of an {@link DoubleLens}
+   */
+  public abstract double get(S s);
+
+  /**
+   * set the target of an {@link DoubleLens}
+   */
+  public abstract Function<S, S> set(double d);
+
+  /**
+   * modify the target of an {@link DoubleLens}
+   */
+  public abstract Function<S, S> modify(DoubleUnaryOperator f);
+
+  /**
+   * view an {@link DoubleLens} as a {@link Lens} onto the boxed target
+   */
+  public final Lens<S, Double> asLens() {
+    return Lens.lens(this::get, this::set);
+  }
+
+  /**
+   * create an {@link DoubleLens} using a pair of functions: one to get the
+   * target, one to set the target.
+   */
+  public static <S> DoubleLens<S> doubleLens(final ToDoubleFunction<S> get, final DoubleFunction<Function<S, S>> set) {
+    return new DoubleLens<S>() {
+      @Override public double get(final S s) {
+        return get.applyAsDouble(s);
+      }
+
+      @Override public Function<S, S> set(final double d) {
+        return set.apply(d);
+      }
+
+      @Override public Function<S, S> modify(final DoubleUnaryOperator f) {
+        return s -> set.apply(f.applyAsDouble(get.applyAsDouble(s))).apply(s);
+      }
+    };
+  }
+
+  static <S, A> DoubleLens<S> compose(final Lens<S, A> lens, final DoubleLens<A> other) {
+    return new DoubleLens<S>() {
+      @Override public double get(final S s) {
+        return other.get(lens.get(s));
+      }
+
+      @Override public Function<S, S> set(final double d) {
+        return lens.modify(other.set(d));
+      }
+
+      @Override public Function<S, S> modify(final DoubleUnaryOperator f) {
+        return lens.modify(other.modify(f));
+      }
+    };
+  }
+}
@@ -6,6 +6,7 @@ import io.atlassian.fugue.Monoids;
 import io.atlassian.fugue.Option;
 
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -29,6 +30,29 @@ public abstract class Fold<S, A> {
    */
   public abstract <M> Function<S, M> foldMap(Monoid<M> monoid, Function<A, M> f);
 
+  /**
+   * map each target to a {@link Monoid} and combine the results in order,
+   * stopping as soon as the combined result is {@code done}. A done result must
+   * absorb anything appended to it, like a defined first option or a true
+   * disjunction, so that the result is the same as
+   * {@link #foldMap(Monoid, Function)}. Built-in optics stop visiting targets
+   * once done; by default every target is visited.
+   */
+  public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+    return foldMap(monoid, f);
+  }
+
+  /**
+   * map each target to a {@link Monoid} and combine the results on a
+   * {@link ForkJoinPool}, relying on associativity. Folds over collections
+   * split their targets between tasks and combine the results in order; by
+   * default, and for optics with a single target, this is
+   * {@link #foldMap(Monoid, Function)}.
+   */
+  public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+    return foldMap(monoid, f);
+  }
+
   /**
    * combine all targets using a target's {@link Monoid}
    */
@@ -47,7 +71,7 @@ public abstract class Fold<S, A> {
    * find the first target of a {@link Fold} matching the predicate
    */
   public final Function<S, Option<A>> find(final Predicate<A> p) {
-    return foldMap(Monoids.firstOption(), a -> p.test(a) ? Option.some(a) : Option.none());
+    return foldMapWhile(Monoids.firstOption(), a -> p.test(a) ? Option.some(a) : Option.none(), Option::isDefined);
   }
 
   /**
@@ -61,14 +85,14 @@ public abstract class Fold<S, A> {
    * check if at least one target satisfies the predicate
    */
   public final Predicate<S> exist(final Predicate<A> p) {
-    return foldMap(Monoids.disjunction, p::test)::apply;
+    return foldMapWhile(Monoids.disjunction, p::test, b -> b)::apply;
   }
 
   /**
    * check if all targets satisfy the predicate
    */
   public final Function<S, Boolean> all(final Predicate<A> p) {
-    return foldMap(Monoids.conjunction, p::test)::apply;
+    return foldMapWhile(Monoids.conjunction, p::test, b -> !b)::apply;
   }
 
   /**
@@ -79,6 +103,14 @@ public abstract class Fold<S, A> {
       @Override public <B> Function<Either<S, S1>, B> foldMap(final Monoid<B> monoid, final Function<A, B> f) {
         return s -> s.fold(Fold.this.foldMap(monoid, f), other.foldMap(monoid, f));
       }
+
+      @Override public <B> Function<Either<S, S1>, B> foldMapWhile(final Monoid<B> monoid, final Function<A, B> f, final Predicate<B> done) {
+        return s -> s.fold(Fold.this.foldMapWhile(monoid, f, done), other.foldMapWhile(monoid, f, done));
+      }
+
+      @Override public <B> Function<Either<S, S1>, B> foldMapParallel(final Monoid<B> monoid, final Function<A, B> f, final ForkJoinPool pool) {
+        return s -> s.fold(Fold.this.foldMapParallel(monoid, f, pool), other.foldMapParallel(monoid, f, pool));
+      }
     };
   }
 
@@ -94,6 +126,14 @@ public abstract class Fold<S, A> {
       @Override public <C> Function<S, C> foldMap(final Monoid<C> monoid, final Function<B, C> f) {
         return Fold.this.foldMap(monoid, other.foldMap(monoid, f));
       }
+
+      @Override public <C> Function<S, C> foldMapWhile(final Monoid<C> monoid, final Function<B, C> f, final Predicate<C> done) {
+        return Fold.this.foldMapWhile(monoid, other.foldMapWhile(monoid, f, done), done);
+      }
+
+      @Override public <C> Function<S, C> foldMapParallel(final Monoid<C> monoid, final Function<B, C> f, final ForkJoinPool pool) {
+        return Fold.this.foldMapParallel(monoid, other.foldMapParallel(monoid, f, pool), pool);
+      }
     };
   }
 
@@ -0,0 +1,110 @@
+package io.atlassian.fugue.optic;
+
+import io.atlassian.fugue.Either;
+import io.atlassian.fugue.Iterables;
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.Pair;
+import io.atlassian.fugue.Suppliers;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PLens} made of a chain of getters and setters that are run in a
+ * single loop, rather than through one nested lens per step.
+ *
+ * @see PLens#fuse()
+ */
+final class FusedLens<S, T, A, B> extends PLens<S, T, A, B> {
+
+  private final Function<Object, Object>[] gets;
+  private final Function<Object, Function<Object, Object>>[] sets;
+
+  @SuppressWarnings("unchecked") FusedLens(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets) {
+    this.gets = gets.toArray(new Function[0]);
+    this.sets = sets.toArray(new Function[0]);
+  }
+
+  @Override public A get(final S s) {
+    Object x = s;
+    for (final Function<Object, Object> get : gets) {
+      x = get.apply(x);
+    }
+    @SuppressWarnings("unchecked")
+    final A a = (A) x;
+    return a;
+  }
+
+  @Override public Function<S, T> set(final B b) {
+    return s -> rebuild(s, null, b);
+  }
+
+  @Override public Function<S, T> modify(final Function<A, B> f) {
+    return s -> rebuild(s, f, null);
+  }
+
+  /**
+   * walk down the chain keeping each source, then set the new target from the
+   * innermost source outwards. The target is read only when modifying.
+   */
+  private T rebuild(final S s, final Function<A, B> f, final B b) {
+    final int n = gets.length;
+    final Object[] sources = new Object[n];
+    Object x = s;
+    for (int i = 0; i < n - 1; i++) {
+      sources[i] = x;
+      x = gets[i].apply(x);
+    }
+    sources[n - 1] = x;
+    Object y;
+    if (f == null) {
+      y = b;
+    } else {
+      @SuppressWarnings("unchecked")
+      final A a = (A) gets[n - 1].apply(x);
+      y = f.apply(a);
+    }
+    for (int i = n - 1; i >= 0; i--) {
+      y = sets[i].apply(y).apply(sources[i]);
+    }
+    @SuppressWarnings("unchecked")
+    final T t = (T) y;
+    return t;
+  }
+
+  @Override public <C> Function<S, Function<C, T>> modifyFunctionF(final Function<A, Function<C, B>> f) {
+    return s -> f.apply(get(s)).andThen(b -> rebuild(s, null, b));
+  }
+
+  @Override public <L> Function<S, Either<L, T>> modifyEitherF(final Function<A, Either<L, B>> f) {
+    return s -> f.apply(get(s)).right().map(b -> rebuild(s, null, b));
+  }
+
+  @Override public Function<S, Option<T>> modifyOptionF(final Function<A, Option<B>> f) {
+    return s -> f.apply(get(s)).map(b -> rebuild(s, null, b));
+  }
+
+  @Override public Function<S, Iterable<T>> modifyIterableF(final Function<A, Iterable<B>> f) {
+    return s -> Iterables.map(f.apply(get(s)), b -> rebuild(s, null, b));
+  }
+
+  @Override public Function<S, Supplier<T>> modifySupplierF(final Function<A, Supplier<B>> f) {
+    return s -> Suppliers.compose(b -> rebuild(s, null, b), f.apply(get(s)));
+  }
+
+  @Override public Function<S, Pair<T, T>> modifyPairF(final Function<A, Pair<B, B>> f) {
+    return s -> Pair.map(f.apply(get(s)), b -> rebuild(s, null, b));
+  }
+
+  @Override void steps(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets) {
+    for (int i = 0; i < this.gets.length; i++) {
+      gets.add(this.gets[i]);
+      sets.add(this.sets[i]);
+    }
+  }
+
+  @Override public PLens<S, T, A, B> fuse() {
+    return this;
+  }
+}
@@ -0,0 +1,77 @@
+package io.atlassian.fugue.optic;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link Lens} onto an int target, that gets, sets and modifies it without
+ * boxing.
+ *
+ * @param <S> the source of an {@link IntLens}
+ */
+public abstract class IntLens<S> {
+
+  IntLens() {
+    super();
+  }
+
+  /**
+   * get the target of an {@link IntLens}
+   */
+  public abstract int get(S s);
+
+  /**
+   * set the target of an {@link IntLens}
+   */
+  public abstract Function<S, S> set(int i);
+
+  /**
+   * modify the target of an {@link IntLens}
+   */
+  public abstract Function<S, S> modify(IntUnaryOperator f);
+
+  /**
+   * view an {@link IntLens} as a {@link Lens} onto the boxed target
+   */
+  public final Lens<S, Integer> asLens() {
+    return Lens.lens(this::get, this::set);
+  }
+
+  /**
+   * create an {@link IntLens} using a pair of functions: one to get the target,
+   * one to set the target.
+   */
+  public static <S> IntLens<S> intLens(final ToIntFunction<S> get, final IntFunction<Function<S, S>> set) {
+    return new IntLens<S>() {
+      @Override public int get(final S s) {
+        return get.applyAsInt(s);
+      }
+
+      @Override public Function<S, S> set(final int i) {
+        return set.apply(i);
+      }
+
+      @Override public Function<S, S> modify(final IntUnaryOperator f) {
+        return s -> set.apply(f.applyAsInt(get.applyAsInt(s))).apply(s);
+      }
+    };
+  }
+
+  static <S, A> IntLens<S> compose(final Lens<S, A> lens, final IntLens<A> other) {
+    return new IntLens<S>() {
+      @Override public int get(final S s) {
+        return other.get(lens.get(s));
+      }
+
+      @Override public Function<S, S> set(final int i) {
+        return lens.modify(other.set(i));
+      }
+
+      @Override public Function<S, S> modify(final IntUnaryOperator f) {
+        return lens.modify(other.modify(f));
+      }
+    };
+  }
+}
@@ -88,6 +88,27 @@ public final class Iso<S, A> extends PIso<S, S, A, A> {
     return new Iso<>(pIso.composeIso(other.pIso));
   }
 
+  /**
+   * compose an {@link Iso} with an {@link IntLens}
+   */
+  public final IntLens<S> composeIntLens(final IntLens<A> other) {
+    return asLens().composeIntLens(other);
+  }
+
+  /**
+   * compose an {@link Iso} with a {@link LongLens}
+   */
+  public final LongLens<S> composeLongLens(final LongLens<A> other) {
+    return asLens().composeLongLens(other);
+  }
+
+  /**
+   * compose an {@link Iso} with a {@link DoubleLens}
+   */
+  public final DoubleLens<S> composeDoubleLens(final DoubleLens<A> other) {
+    return asLens().composeDoubleLens(other);
+  }
+
   /****************************************************************/
   /** Transformation methods to view an {@link Iso} as another Optics */
   /****************************************************************/
@@ -4,6 +4,7 @@ import io.atlassian.fugue.Either;
 import io.atlassian.fugue.Option;
 import io.atlassian.fugue.Pair;
 
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -54,6 +55,23 @@ public final class Lens<S, A> extends PLens<S, S, A, A> {
     return pLens.modify(f);
   }
 
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance, so that reference equality shows no-op
+   * updates. Composed optics check at every level.
+   */
+  @Override public Function<S, S> modifyIfChanged(final Function<A, A> f) {
+    return pLens.modifyIfChanged(f);
+  }
+
+  @Override public Lens<S, A> fuse() {
+    return new Lens<>(pLens.fuse());
+  }
+
+  @Override void steps(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets) {
+    pLens.steps(gets, sets);
+  }
+
   /**
    * join two {@link Lens} with the same target
    */
@@ -107,6 +125,27 @@ public final class Lens<S, A> extends PLens<S, S, A, A> {
     return new Lens<>(pLens.composeIso(other.pIso));
   }
 
+  /**
+   * compose a {@link Lens} with an {@link IntLens}
+   */
+  public final IntLens<S> composeIntLens(final IntLens<A> other) {
+    return IntLens.compose(this, other);
+  }
+
+  /**
+   * compose a {@link Lens} with a {@link LongLens}
+   */
+  public final LongLens<S> composeLongLens(final LongLens<A> other) {
+    return LongLens.compose(this, other);
+  }
+
+  /**
+   * compose a {@link Lens} with a {@link DoubleLens}
+   */
+  public final DoubleLens<S> composeDoubleLens(final DoubleLens<A> other) {
+    return DoubleLens.compose(this, other);
+  }
+
   /****************************************************************/
   /** Transformation methods to view a {@link Lens} as another Optics */
   /****************************************************************/
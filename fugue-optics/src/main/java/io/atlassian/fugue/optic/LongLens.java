@@ -0,0 +1,77 @@
+package io.atlassian.fugue.optic;
+
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link Lens} onto a long target, that gets, sets and modifies it without
+ * boxing.
+ *
+ * @param <S> the source of an {@link LongLens}
+ */
+public abstract class LongLens<S> {
+
+  LongLens() {
+    super();
+  }
+
+  /**
+   * get the target of an {@link LongLens}
+   */
+  public abstract long get(S s);
+
+  /**
+   * set the target of an {@link LongLens}
+   */
+  public abstract Function<S, S> set(long l);
+
+  /**
+   * modify the target of an {@link LongLens}
+   */
+  public abstract Function<S, S> modify(LongUnaryOperator f);
+
+  /**
+   * view an {@link LongLens} as a {@link Lens} onto the boxed target
+   */
+  public final Lens<S, Long> asLens() {
+    return Lens.lens(this::get, this::set);
+  }
+
+  /**
+   * create an {@link LongLens} using a pair of functions: one to get the
+   * target, one to set the target.
+   */
+  public static <S> LongLens<S> longLens(final ToLongFunction<S> get, final LongFunction<Function<S, S>> set) {
+    return new LongLens<S>() {
+      @Override public long get(final S s) {
+        return get.applyAsLong(s);
+      }
+
+      @Override public Function<S, S> set(final long l) {
+        return set.apply(l);
+      }
+
+      @Override public Function<S, S> modify(final LongUnaryOperator f) {
+        return s -> set.apply(f.applyAsLong(get.applyAsLong(s))).apply(s);
+      }
+    };
+  }
+
+  static <S, A> LongLens<S> compose(final Lens<S, A> lens, final LongLens<A> other) {
+    return new LongLens<S>() {
+      @Override public long get(final S s) {
+        return other.get(lens.get(s));
+      }
+
+      @Override public Function<S, S> set(final long l) {
+        return lens.modify(other.set(l));
+      }
+
+      @Override public Function<S, S> modify(final LongUnaryOperator f) {
+        return lens.modify(other.modify(f));
+      }
+    };
+  }
+}
@@ -0,0 +1,203 @@
+package io.atlassian.fugue.optic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A batch of updates to a structure of type S, applied in a single pass.
+ * <p>
+ * Each lens is split into the steps it is composed of (see {@link PLens#fuse()}
+ * ) and the updates are merged into a tree of their paths, so that an ancestor
+ * shared by several updates is read once and set once with all of its updated
+ * children, rather than rebuilt once per update. Steps are shared when they
+ * have the same getter and setter, as they do when they come from the same lens
+ * made with {@link PLens#pLens(Function, Function)}, so paths composed from the
+ * same lens constants share their common prefix. Updating several fields of a
+ * node still sets each field on it in turn, but the path above it is rebuilt
+ * once.
+ * <p>
+ * The result is the same as applying every update in the order they were added,
+ * given lawful lenses whose paths either share a prefix or target disjoint
+ * parts of S. A node that no update changed is not set back, so untouched
+ * ancestors are returned as is.
+ *
+ * @param <S> the source and target of the updates
+ */
+public final class OpticUpdate<S> implements Function<S, S> {
+
+  private final Node root;
+
+  private OpticUpdate(final Node root) {
+    this.root = root;
+  }
+
+  /**
+   * a mutable builder for a batch of updates
+   *
+   * @param <S> the source and target of the updates
+   * @return a new, empty builder
+   */
+  public static <S> Builder<S> builder() {
+    return new Builder<>();
+  }
+
+  /**
+   * apply every update of this batch to s
+   */
+  @Override public S apply(final S s) {
+    @SuppressWarnings("unchecked")
+    final S t = (S) root.apply(s);
+    return t;
+  }
+
+  /**
+   * Mutable builder for an {@link OpticUpdate}. Not thread safe.
+   *
+   * @param <S> the source and target of the updates
+   */
+  public static final class Builder<S> {
+    private final List<Update> updates = new ArrayList<>();
+
+    Builder() {}
+
+    /**
+     * set the target of a lens
+     *
+     * @param lens the path to the target, must not be null
+     * @param a the new target
+     * @param <A> the target type
+     * @return this builder
+     */
+    public <A> Builder<S> set(final PLens<S, S, A, A> lens, final A a) {
+      return add(lens, __ -> a);
+    }
+
+    /**
+     * modify the target of a lens
+     *
+     * @param lens the path to the target, must not be null
+     * @param f the modification, must not be null
+     * @param <A> the target type
+     * @return this builder
+     */
+    public <A> Builder<S> modify(final PLens<S, S, A, A> lens, final Function<A, A> f) {
+      requireNonNull(f);
+      return add(lens, x -> {
+        @SuppressWarnings("unchecked")
+        final A a = (A) x;
+        return f.apply(a);
+      });
+    }
+
+    /**
+     * modify the targets of a traversal. A traversal is applied to the whole of
+     * S, in order with the other updates, as it cannot be split into steps.
+     *
+     * @param traversal the targets, must not be null
+     * @param f the modification, must not be null
+     * @param <A> the target type
+     * @return this builder
+     */
+    public <A> Builder<S> modify(final PTraversal<S, S, A, A> traversal, final Function<A, A> f) {
+      final Function<S, S> modify = traversal.modify(requireNonNull(f));
+      updates.add(new Update(new ArrayList<>(), new ArrayList<>(), x -> {
+        @SuppressWarnings("unchecked")
+        final S s = (S) x;
+        return modify.apply(s);
+      }));
+      return this;
+    }
+
+    private Builder<S> add(final PLens<S, S, ?, ?> lens, final Function<Object, Object> leaf) {
+      final List<Function<Object, Object>> gets = new ArrayList<>();
+      final List<Function<Object, Function<Object, Object>>> sets = new ArrayList<>();
+      lens.steps(gets, sets);
+      updates.add(new Update(gets, sets, leaf));
+      return this;
+    }
+
+    /**
+     * @return the updates added so far, merged by path
+     */
+    public OpticUpdate<S> build() {
+      final Node root = new Node();
+      for (final Update update : updates) {
+        Node node = root;
+        for (int i = 0; i < update.gets.size(); i++) {
+          node = node.child(update.gets.get(i), update.sets.get(i));
+        }
+        node.leaf(update.leaf);
+      }
+      return new OpticUpdate<>(root);
+    }
+  }
+
+  private static final class Update {
+    final List<Function<Object, Object>> gets;
+    final List<Function<Object, Function<Object, Object>>> sets;
+    final Function<Object, Object> leaf;
+
+    Update(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets, final Function<Object, Object> leaf) {
+      this.gets = gets;
+      this.sets = sets;
+      this.leaf = leaf;
+    }
+  }
+
+  /**
+   * the updates below one node of the path tree, in the order they apply: leaf
+   * updates of the node itself, and children each holding the updates below one
+   * step.
+   */
+  private static final class Node implements Function<Object, Object> {
+    private final List<Function<Object, Object>> entries = new ArrayList<>();
+    // children before this index come before a leaf update and must not take
+    // more updates, or those would be applied before the leaf instead of after
+    private int open = 0;
+
+    Node child(final Function<Object, Object> get, final Function<Object, Function<Object, Object>> set) {
+      for (int i = open; i < entries.size(); i++) {
+        final Function<Object, Object> entry = entries.get(i);
+        if (entry instanceof Child && ((Child) entry).get == get && ((Child) entry).set == set) {
+          return ((Child) entry).node;
+        }
+      }
+      final Child child = new Child(get, set);
+      entries.add(child);
+      return child.node;
+    }
+
+    void leaf(final Function<Object, Object> leaf) {
+      entries.add(leaf);
+      open = entries.size();
+    }
+
+    @Override public Object apply(final Object x) {
+      Object y = x;
+      for (final Function<Object, Object> entry : entries) {
+        y = entry.apply(y);
+      }
+      return y;
+    }
+  }
+
+  private static final class Child implements Function<Object, Object> {
+    final Function<Object, Object> get;
+    final Function<Object, Function<Object, Object>> set;
+    final Node node = new Node();
+
+    Child(final Function<Object, Object> get, final Function<Object, Function<Object, Object>> set) {
+      this.get = get;
+      this.set = set;
+    }
+
+    @Override public Object apply(final Object x) {
+      final Object a = get.apply(x);
+      final Object b = node.apply(a);
+      return b == a ? x : set.apply(b).apply(x);
+    }
+  }
+}
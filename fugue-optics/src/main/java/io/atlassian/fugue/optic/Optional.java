@@ -54,6 +54,15 @@ public final class Optional<S, A> extends POptional<S, S, A, A> {
     return pOptional.modify(f);
   }
 
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance, so that reference equality shows no-op
+   * updates. Composed optics check at every level.
+   */
+  @Override public Function<S, S> modifyIfChanged(final Function<A, A> f) {
+    return pOptional.modifyIfChanged(f);
+  }
+
   @Override public Either<S, A> getOrModify(final S s) {
     return pOptional.getOrModify(s);
   }
@@ -304,6 +304,10 @@ public abstract class PIso<S, T, A, B> {
         return s -> f.apply(self.get(s));
       }
 
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return self.modify(f);
+      }
+
     };
   }
 
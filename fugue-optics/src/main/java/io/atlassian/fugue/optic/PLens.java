@@ -7,6 +7,8 @@ import io.atlassian.fugue.Option;
 import io.atlassian.fugue.Pair;
 import io.atlassian.fugue.Suppliers;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -90,6 +92,55 @@ public abstract class PLens<S, T, A, B> {
    */
   public abstract Function<S, T> modify(final Function<A, B> f);
 
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance. Only exposed by monomorphic optics,
+   * where the source is a valid result.
+   */
+  Function<S, T> modifyIfChanged(final Function<A, B> f) {
+    return s -> {
+      final A a = get(s);
+      final B b = f.apply(a);
+      if (b == a) {
+        @SuppressWarnings("unchecked")
+        final T t = (T) s;
+        return t;
+      }
+      return set(b).apply(s);
+    };
+  }
+
+  /**
+   * flatten a chain of composed lenses into a single lens that runs every
+   * getter, then every setter, in one loop. This saves a nested call and
+   * closure per level on each get, set and modify, and keeps call sites that
+   * see many different paths from going megamorphic on the composed lenses.
+   * Lenses made with {@link #pLens(Function, Function)} are fused into their
+   * raw functions, other lenses become a single step.
+   */
+  public PLens<S, T, A, B> fuse() {
+    final List<Function<Object, Object>> gets = new ArrayList<>();
+    final List<Function<Object, Function<Object, Object>>> sets = new ArrayList<>();
+    steps(gets, sets);
+    return new FusedLens<>(gets, sets);
+  }
+
+  /**
+   * add the getter and setter of each lens in this chain, outermost first
+   */
+  void steps(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets) {
+    gets.add(s -> {
+      @SuppressWarnings("unchecked")
+      final S source = (S) s;
+      return get(source);
+    });
+    sets.add(b -> {
+      @SuppressWarnings("unchecked")
+      final Function<Object, Object> set = (Function<Object, Object>) set((B) b);
+      return set;
+    });
+  }
+
   /**
    * join two {@link PLens} with the same target
    */
@@ -184,6 +235,15 @@ public abstract class PLens<S, T, A, B> {
       @Override public Function<S, T> modify(final Function<C, D> f) {
         return self.modify(other.modify(f));
       }
+
+      @Override Function<S, T> modifyIfChanged(final Function<C, D> f) {
+        return self.modifyIfChanged(other.modifyIfChanged(f));
+      }
+
+      @Override void steps(final List<Function<Object, Object>> gets, final List<Function<Object, Function<Object, Object>>> sets) {
+        self.steps(gets, sets);
+        other.steps(gets, sets);
+      }
     };
   }
 
@@ -270,6 +330,14 @@ public abstract class PLens<S, T, A, B> {
         return s -> f.apply(get(s));
       }
 
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return self.modify(f);
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return self.modifyIfChanged(f);
+      }
+
     };
   }
 
@@ -318,6 +386,10 @@ public abstract class PLens<S, T, A, B> {
       @Override public Function<S, T> modify(final Function<A, B> f) {
         return self.modify(f);
       }
+
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return self.modifyIfChanged(f);
+      }
     };
   }
 
@@ -368,6 +440,12 @@ public abstract class PLens<S, T, A, B> {
         return s -> set.apply(f.apply(get.apply(s))).apply(s);
       }
 
+      @SuppressWarnings("unchecked") @Override void steps(final List<Function<Object, Object>> gets,
+        final List<Function<Object, Function<Object, Object>>> sets) {
+        gets.add((Function<Object, Object>) (Function<?, ?>) get);
+        sets.add((Function<Object, Function<Object, Object>>) (Function<?, ?>) set);
+      }
+
     };
   }
 }
\ No newline at end of file
@@ -92,6 +92,23 @@ public abstract class POptional<S, T, A, B> {
    */
   public abstract Function<S, T> modify(final Function<A, B> f);
 
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance. Only exposed by monomorphic optics,
+   * where the source is a valid result.
+   */
+  Function<S, T> modifyIfChanged(final Function<A, B> f) {
+    return s -> getOrModify(s).fold(Function.identity(), a -> {
+      final B b = f.apply(a);
+      if (b == a) {
+        @SuppressWarnings("unchecked")
+        final T t = (T) s;
+        return t;
+      }
+      return set(b).apply(s);
+    });
+  }
+
   /**
    * modify polymorphically the target of a {@link POptional} with a function.
    * return empty if the {@link POptional} is not matching
@@ -212,6 +229,10 @@ public abstract class POptional<S, T, A, B> {
       @Override public Function<S, T> modify(final Function<C, D> f) {
         return self.modify(other.modify(f));
       }
+
+      @Override Function<S, T> modifyIfChanged(final Function<C, D> f) {
+        return self.modifyIfChanged(other.modifyIfChanged(f));
+      }
     };
   }
 
@@ -300,6 +321,14 @@ public abstract class POptional<S, T, A, B> {
       @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<A, M> f) {
         return s -> self.getOption(s).map(f).getOrElse(monoid.zero());
       }
+
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return self.modify(f);
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return self.modifyIfChanged(f);
+      }
     };
   }
 
@@ -108,10 +108,27 @@ public abstract class PPrism<S, T, A, B> {
   /**
    * modify polymorphically the target of a {@link PPrism} with a function
    */
-  public final Function<S, T> modify(final Function<A, B> f) {
+  public Function<S, T> modify(final Function<A, B> f) {
     return s -> getOrModify(s).fold(Function.identity(), a -> reverseGet(f.apply(a)));
   }
 
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance. Only exposed by monomorphic optics,
+   * where the source is a valid result.
+   */
+  Function<S, T> modifyIfChanged(final Function<A, B> f) {
+    return s -> getOrModify(s).fold(Function.identity(), a -> {
+      final B b = f.apply(a);
+      if (b == a) {
+        @SuppressWarnings("unchecked")
+        final T t = (T) s;
+        return t;
+      }
+      return reverseGet(b);
+    });
+  }
+
   /**
    * modify polymorphically the target of a {@link PPrism} with a function.
    * return empty if the {@link PPrism} is not matching
@@ -213,6 +230,14 @@ public abstract class PPrism<S, T, A, B> {
       @Override public Option<C> getOption(final S s) {
         return PPrism.this.getOption(s).flatMap(other::getOption);
       }
+
+      @Override public Function<S, T> modify(final Function<C, D> f) {
+        return PPrism.this.modify(other.modify(f));
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<C, D> f) {
+        return PPrism.this.modifyIfChanged(other.modifyIfChanged(f));
+      }
     };
   }
 
@@ -288,6 +313,14 @@ public abstract class PPrism<S, T, A, B> {
         return s -> getOption(s).map(f).getOrElse(monoid.zero());
       }
 
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return self.modify(f);
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return self.modifyIfChanged(f);
+      }
+
     };
   }
 
@@ -338,6 +371,10 @@ public abstract class PPrism<S, T, A, B> {
         return self.modify(f);
       }
 
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return self.modifyIfChanged(f);
+      }
+
     };
   }
 
@@ -12,6 +12,7 @@ import io.atlassian.fugue.Pair;
 import io.atlassian.fugue.Suppliers;
 
 import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -73,6 +74,29 @@ public abstract class PTraversal<S, T, A, B> {
    */
   public abstract <M> Function<S, M> foldMap(Monoid<M> monoid, Function<A, M> f);
 
+  /**
+   * map each target to a {@link Monoid} and combine the results in order,
+   * stopping as soon as the combined result is {@code done}. A done result must
+   * absorb anything appended to it, like a defined first option or a true
+   * disjunction, so that the result is the same as
+   * {@link #foldMap(Monoid, Function)}. Built-in traversals stop visiting
+   * targets once done; by default every target is visited.
+   */
+  public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+    return foldMap(monoid, f);
+  }
+
+  /**
+   * map each target to a {@link Monoid} and combine the results on a
+   * {@link ForkJoinPool}, relying on associativity. Traversals over collections
+   * split their targets between tasks and combine the results in order; by
+   * default, and for optics with a single target, this is
+   * {@link #foldMap(Monoid, Function)}.
+   */
+  public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+    return foldMap(monoid, f);
+  }
+
   /**
    * combine all targets using a target's {@link Monoid}
    */
@@ -91,7 +115,7 @@ public abstract class PTraversal<S, T, A, B> {
    * find the first target of a {@link PTraversal} matching the predicate
    */
   public final Function<S, Option<A>> find(final Predicate<A> p) {
-    return foldMap(Monoids.firstOption(), a -> p.test(a) ? Option.some(a) : Option.none());
+    return foldMapWhile(Monoids.firstOption(), a -> p.test(a) ? Option.some(a) : Option.none(), Option::isDefined);
   }
 
   /**
@@ -105,23 +129,55 @@ public abstract class PTraversal<S, T, A, B> {
    * check if at least one target satisfies the predicate
    */
   public final Predicate<S> exist(final Predicate<A> p) {
-    return foldMap(Monoids.disjunction, p::test)::apply;
+    return foldMapWhile(Monoids.disjunction, p::test, b -> b)::apply;
   }
 
   /**
    * check if all targets satisfy the predicate
    */
   public final Predicate<S> all(final Predicate<A> p) {
-    return foldMap(Monoids.conjunction, p::test)::apply;
+    return foldMapWhile(Monoids.conjunction, p::test, b -> !b)::apply;
   }
 
   /**
-   * modify polymorphically the target of a {@link PTraversal} with a function
+   * modify polymorphically the target of a {@link PTraversal} with a function.
+   * By default this goes through {@link #modifySupplierF(Function)}; built-in
+   * traversals apply the function directly without allocating suppliers.
    */
-  public final Function<S, T> modify(final Function<A, B> f) {
+  public Function<S, T> modify(final Function<A, B> f) {
     return s -> this.modifySupplierF(a -> Suppliers.ofInstance(f.apply(a))).apply(s).get();
   }
 
+  /**
+   * modify the targets with a function, returning the source itself when the
+   * function returns the same instance for every target. Only exposed by
+   * monomorphic optics, where the source is a valid result. By default the
+   * source is rebuilt and then discarded; built-in traversals skip rebuilding
+   * each unchanged part.
+   */
+  Function<S, T> modifyIfChanged(final Function<A, B> f) {
+    return s -> {
+      final boolean[] changed = { false };
+      final T t = modify(a -> {
+        final B b = f.apply(a);
+        changed[0] |= b != a;
+        return b;
+      }).apply(s);
+      return changed[0] ? t : unchanged(s);
+    };
+  }
+
+  /**
+   * modify polymorphically the targets of a {@link PTraversal} with a function
+   * applied on a {@link ForkJoinPool}. Traversals over collections split their
+   * targets between tasks; by default, and for optics with a single target,
+   * this is {@link #modify(Function)}. The function must be safe to call from
+   * several threads at once.
+   */
+  public Function<S, T> modifyParallel(final Function<A, B> f, final ForkJoinPool pool) {
+    return modify(f);
+  }
+
   /**
    * set polymorphically the target of a {@link PTraversal} with a value
    */
@@ -170,6 +226,32 @@ public abstract class PTraversal<S, T, A, B> {
         return ss1 -> ss1.fold(self.foldMap(monoid, f), other.foldMap(monoid, f));
       }
 
+      @Override public <M> Function<Either<S, S1>, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+        return ss1 -> ss1.fold(self.foldMapWhile(monoid, f, done), other.foldMapWhile(monoid, f, done));
+      }
+
+      @Override public Function<Either<S, S1>, Either<T, T1>> modify(final Function<A, B> f) {
+        return ss1 -> ss1.bimap(self.modify(f), other.modify(f));
+      }
+
+      @Override public <M> Function<Either<S, S1>, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+        return ss1 -> ss1.fold(self.foldMapParallel(monoid, f, pool), other.foldMapParallel(monoid, f, pool));
+      }
+
+      @Override public Function<Either<S, S1>, Either<T, T1>> modifyParallel(final Function<A, B> f, final ForkJoinPool pool) {
+        return ss1 -> ss1.bimap(self.modifyParallel(f, pool), other.modifyParallel(f, pool));
+      }
+
+      @Override Function<Either<S, S1>, Either<T, T1>> modifyIfChanged(final Function<A, B> f) {
+        return ss1 -> ss1.fold(s -> {
+          final T t = self.modifyIfChanged(f).apply(s);
+          return (t == s) ? unchanged(ss1) : Either.<T, T1> left(t);
+        }, s1 -> {
+          final T1 t1 = other.modifyIfChanged(f).apply(s1);
+          return (t1 == s1) ? unchanged(ss1) : Either.<T, T1> right(t1);
+        });
+      }
+
     };
   }
 
@@ -234,6 +316,26 @@ public abstract class PTraversal<S, T, A, B> {
       @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<C, M> f) {
         return self.foldMap(monoid, other.foldMap(monoid, f));
       }
+
+      @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<C, M> f, final Predicate<M> done) {
+        return self.foldMapWhile(monoid, other.foldMapWhile(monoid, f, done), done);
+      }
+
+      @Override public Function<S, T> modify(final Function<C, D> f) {
+        return self.modify(other.modify(f));
+      }
+
+      @Override public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<C, M> f, final ForkJoinPool pool) {
+        return self.foldMapParallel(monoid, other.foldMapParallel(monoid, f, pool), pool);
+      }
+
+      @Override public Function<S, T> modifyParallel(final Function<C, D> f, final ForkJoinPool pool) {
+        return self.modifyParallel(other.modifyParallel(f, pool), pool);
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<C, D> f) {
+        return self.modifyIfChanged(other.modifyIfChanged(f));
+      }
     };
   }
 
@@ -277,6 +379,14 @@ public abstract class PTraversal<S, T, A, B> {
       @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<A, M> f) {
         return PTraversal.this.foldMap(monoid, f);
       }
+
+      @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+        return PTraversal.this.foldMapWhile(monoid, f, done);
+      }
+
+      @Override public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+        return PTraversal.this.foldMapParallel(monoid, f, pool);
+      }
     };
   }
 
@@ -321,6 +431,20 @@ public abstract class PTraversal<S, T, A, B> {
       @Override public <M> Function<Either<S, S>, M> foldMap(final Monoid<M> monoid, final Function<S, M> f) {
         return s -> s.fold(f, f);
       }
+
+      @Override public Function<Either<S, S>, Either<T, T>> modify(final Function<S, T> f) {
+        return s -> s.bimap(f, f);
+      }
+
+      @Override Function<Either<S, S>, Either<T, T>> modifyIfChanged(final Function<S, T> f) {
+        return ss -> ss.fold(s -> {
+          final T t = f.apply(s);
+          return (t == s) ? unchanged(ss) : Either.<T, T> left(t);
+        }, s -> {
+          final T t = f.apply(s);
+          return (t == s) ? unchanged(ss) : Either.<T, T> right(t);
+        });
+      }
     };
   }
 
@@ -355,6 +479,30 @@ public abstract class PTraversal<S, T, A, B> {
       @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<A, M> f) {
         return s -> monoid.append(f.apply(get1.apply(s)), f.apply(get2.apply(s)));
       }
+
+      @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+        return s -> {
+          final M first = f.apply(get1.apply(s));
+          return done.test(first) ? first : monoid.append(first, f.apply(get2.apply(s)));
+        };
+      }
+
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return s -> {
+          final B b1 = f.apply(get1.apply(s));
+          return set.apply(b1, f.apply(get2.apply(s))).apply(s);
+        };
+      }
+
+      @Override Function<S, T> modifyIfChanged(final Function<A, B> f) {
+        return s -> {
+          final A a1 = get1.apply(s);
+          final B b1 = f.apply(a1);
+          final A a2 = get2.apply(s);
+          final B b2 = f.apply(a2);
+          return (b1 == a1 && b2 == a2) ? unchanged(s) : set.apply(b1, b2).apply(s);
+        };
+      }
     };
   }
 
@@ -413,6 +561,29 @@ public abstract class PTraversal<S, T, A, B> {
       @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<A, M> f) {
         return s -> monoid.append(curriedTraversal.foldMap(monoid, f).apply(s), f.apply(lastGet.apply(s)));
       }
+
+      @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+        return s -> {
+          final M init = curriedTraversal.foldMapWhile(monoid, f, done).apply(s);
+          return done.test(init) ? init : monoid.append(init, f.apply(lastGet.apply(s)));
+        };
+      }
+
+      @Override public Function<S, T> modify(final Function<A, B> f) {
+        return s -> {
+          final Function<B, T> init = curriedTraversal.modify(f).apply(s);
+          return init.apply(f.apply(lastGet.apply(s)));
+        };
+      }
     };
   }
+
+  /**
+   * the source of a monomorphic update that changed nothing, as its result
+   */
+  private static <S, T> T unchanged(final S s) {
+    @SuppressWarnings("unchecked")
+    final T t = (T) s;
+    return t;
+  }
 }
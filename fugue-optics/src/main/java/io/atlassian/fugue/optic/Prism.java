@@ -29,6 +29,19 @@ public final class Prism<S, A> extends PPrism<S, S, A, A> {
     return pPrism.getOption(s);
   }
 
+  @Override public Function<S, S> modify(final Function<A, A> f) {
+    return pPrism.modify(f);
+  }
+
+  /**
+   * modify the target with a function, returning the source itself when the
+   * function returns the same instance, so that reference equality shows no-op
+   * updates. Composed optics check at every level.
+   */
+  @Override public Function<S, S> modifyIfChanged(final Function<A, A> f) {
+    return pPrism.modifyIfChanged(f);
+  }
+
   /***********************************************************/
   /** Compose methods between a {@link Prism} and another Optics */
   /***********************************************************/
@@ -5,8 +5,10 @@ import io.atlassian.fugue.Monoid;
 import io.atlassian.fugue.Option;
 import io.atlassian.fugue.Pair;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public final class Traversal<S, A> extends PTraversal<S, S, A, A> {
@@ -45,6 +47,32 @@ public final class Traversal<S, A> extends PTraversal<S, S, A, A> {
     return pTraversal.foldMap(monoid, f);
   }
 
+  @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+    return pTraversal.foldMapWhile(monoid, f, done);
+  }
+
+  @Override public Function<S, S> modify(final Function<A, A> f) {
+    return pTraversal.modify(f);
+  }
+
+  /**
+   * modify the targets with a function, returning the source itself when the
+   * function returns the same instance for every target, so that reference
+   * equality shows no-op updates. Composed traversals check at every level and
+   * only rebuild the parts of the source that contain a changed target.
+   */
+  @Override public Function<S, S> modifyIfChanged(final Function<A, A> f) {
+    return pTraversal.modifyIfChanged(f);
+  }
+
+  @Override public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+    return pTraversal.foldMapParallel(monoid, f, pool);
+  }
+
+  @Override public Function<S, S> modifyParallel(final Function<A, A> f, final ForkJoinPool pool) {
+    return pTraversal.modifyParallel(f, pool);
+  }
+
   /**
    * join two {@link Traversal} with the same target
    */
@@ -70,6 +98,30 @@ public final class Traversal<S, A> extends PTraversal<S, S, A, A> {
     return new Traversal<>(pTraversal.composeTraversal(other.pTraversal));
   }
 
+  /**
+   * compose a {@link Traversal} with an {@link IntLens}. The targets are boxed,
+   * use modify(other.modify(f)) to modify them without boxing.
+   */
+  public final Traversal<S, Integer> composeIntLens(final IntLens<A> other) {
+    return composeTraversal(other.asLens().asTraversal());
+  }
+
+  /**
+   * compose a {@link Traversal} with a {@link LongLens}. The targets are boxed,
+   * use modify(other.modify(f)) to modify them without boxing.
+   */
+  public final Traversal<S, Long> composeLongLens(final LongLens<A> other) {
+    return composeTraversal(other.asLens().asTraversal());
+  }
+
+  /**
+   * compose a {@link Traversal} with a {@link DoubleLens}. The targets are
+   * boxed, use modify(other.modify(f)) to modify them without boxing.
+   */
+  public final Traversal<S, Double> composeDoubleLens(final DoubleLens<A> other) {
+    return composeTraversal(other.asLens().asTraversal());
+  }
+
   /*********************************************************************/
   /** Transformation methods to view a {@link Traversal} as another Optics */
   /*********************************************************************/
@@ -3,6 +3,7 @@ package io.atlassian.fugue.optic.law;
 import io.atlassian.fugue.Either;
 import io.atlassian.fugue.Eithers;
 import io.atlassian.fugue.Iterables;
+import io.atlassian.fugue.Monoids;
 import io.atlassian.fugue.Option;
 import io.atlassian.fugue.Options;
 import io.atlassian.fugue.Pair;
@@ -12,6 +13,7 @@ import io.atlassian.fugue.optic.PTraversal;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -51,6 +53,28 @@ public final class TraversalLaws<S, A> {
     return isEq(traversal.modify(Function.<A> identity()).apply(s), s);
   }
 
+  /**
+   * modify is consistent with modifySupplierF
+   */
+  public IsEq<S> modifySupplierFConsistent(S s, A a) {
+    return isEq(traversal.modify(__ -> a).apply(s), traversal.modifySupplierF(__ -> Suppliers.ofInstance(a)).apply(s).get());
+  }
+
+  /**
+   * modifyParallel is consistent with modify
+   */
+  public IsEq<S> modifyParallelConsistent(S s, A a) {
+    return isEq(traversal.modifyParallel(__ -> a, ForkJoinPool.commonPool()).apply(s), traversal.modify(__ -> a).apply(s));
+  }
+
+  /**
+   * foldMapParallel is consistent with foldMap
+   */
+  public IsEq<List<A>> foldMapParallelConsistent(S s) {
+    return isEq(traversal.foldMapParallel(Monoids.list(), Collections::singletonList, ForkJoinPool.commonPool()).apply(s),
+      traversal.foldMap(Monoids.list(), Collections::singletonList).apply(s));
+  }
+
   /**
    * modifyF Applicative.point(_) = Applicative.point(_)
    */
@@ -102,4 +126,25 @@ public final class TraversalLaws<S, A> {
     return isEq(traversal.headOption(s), Iterables.first(traversal.getAll(s)));
   }
 
+  /**
+   * find returns the first element of getAll matching the predicate
+   */
+  public IsEq<Option<A>> find(S s, A a) {
+    return isEq(traversal.find(a::equals).apply(s), Iterables.findFirst(traversal.getAll(s), a::equals));
+  }
+
+  /**
+   * exist is true when any element of getAll matches the predicate
+   */
+  public IsEq<Boolean> exist(S s, A a) {
+    return isEq(traversal.exist(a::equals).test(s), Iterables.any(traversal.getAll(s), a::equals));
+  }
+
+  /**
+   * all is true when every element of getAll matches the predicate
+   */
+  public IsEq<Boolean> all(S s, A a) {
+    return isEq(traversal.all(a::equals).test(s), Iterables.all(traversal.getAll(s), a::equals));
+  }
+
 }
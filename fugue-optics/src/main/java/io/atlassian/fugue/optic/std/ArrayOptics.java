@@ -0,0 +1,60 @@
+package io.atlassian.fugue.optic.std;
+
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.optic.Optional;
+import io.atlassian.fugue.optic.Traversal;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Optics over arrays. Arrays are never modified: updates copy the array once,
+ * and updates that leave every element the same return the original array.
+ */
+public final class ArrayOptics {
+
+  private ArrayOptics() {}
+
+  /**
+   * traverse every element of an array, in order
+   */
+  public static <A> Traversal<A[], A> each() {
+    return new Traversal<>(new ElementsTraversal<A[], A[], A, A>(true) {
+      @Override int size(final A[] as) {
+        return as.length;
+      }
+
+      @Override Iterator<A> iterator(final A[] as) {
+        return Arrays.asList(as).iterator();
+      }
+
+      @Override Object[] buffer(final A[] as, final int size) {
+        return as.clone();
+      }
+
+      @Override Object[] elements(final A[] as) {
+        return as;
+      }
+
+      @Override A[] build(final A[] as, final Object[] bs) {
+        @SuppressWarnings("unchecked")
+        final A[] result = (A[]) bs;
+        return result;
+      }
+    });
+  }
+
+  /**
+   * the element at an index of an array, if the array is long enough
+   */
+  public static <A> Optional<A[], A> index(final int i) {
+    return Optional.optional(as -> (i >= 0 && i < as.length) ? Option.some(as[i]) : Option.none(), a -> as -> {
+      if (i < 0 || i >= as.length || as[i] == a) {
+        return as;
+      }
+      final A[] copy = as.clone();
+      copy[i] = a;
+      return copy;
+    });
+  }
+}
@@ -0,0 +1,331 @@
+package io.atlassian.fugue.optic.std;
+
+import io.atlassian.fugue.Either;
+import io.atlassian.fugue.Monoid;
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.Pair;
+import io.atlassian.fugue.optic.PTraversal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PTraversal} over the elements of a collection of known size. The new
+ * elements are collected into a single presized array that is turned into the
+ * result in one copy. Monomorphic traversals, where the source is a valid
+ * result, can have {@link #modify(Function)} return the source itself when
+ * every element is unchanged.
+ */
+abstract class ElementsTraversal<S, T, A, B> extends PTraversal<S, T, A, B> {
+
+  private final boolean sameIfUnchanged;
+
+  /**
+   * @param sameIfUnchanged whether to return the source when no element
+   * changed, only valid when S and T are the same type
+   */
+  ElementsTraversal(final boolean sameIfUnchanged) {
+    this.sameIfUnchanged = sameIfUnchanged;
+  }
+
+  abstract int size(S s);
+
+  abstract Iterator<A> iterator(S s);
+
+  /**
+   * the array new elements are written to, with room for {@code size} elements
+   */
+  Object[] buffer(final S s, final int size) {
+    return new Object[size];
+  }
+
+  /**
+   * rebuild the collection from a buffer filled with the new elements
+   */
+  abstract T build(S s, Object[] bs);
+
+  /**
+   * the elements, in order, in an array that is only read
+   */
+  Object[] elements(final S s) {
+    final Object[] as = new Object[size(s)];
+    int i = 0;
+    for (final Iterator<A> it = iterator(s); it.hasNext();) {
+      as[i++] = it.next();
+    }
+    return as;
+  }
+
+  @Override public Function<S, T> modify(final Function<A, B> f) {
+    return s -> {
+      Object[] bs = sameIfUnchanged ? null : buffer(s, size(s));
+      int i = 0;
+      for (final Iterator<A> it = iterator(s); it.hasNext(); i++) {
+        final A a = it.next();
+        final B b = f.apply(a);
+        if (bs == null) {
+          if (b == a) {
+            continue;
+          }
+          bs = buffer(s, size(s));
+          final Iterator<A> prefix = iterator(s);
+          for (int j = 0; j < i; j++) {
+            bs[j] = prefix.next();
+          }
+        }
+        bs[i] = b;
+      }
+      if (bs == null) {
+        @SuppressWarnings("unchecked")
+        final T t = (T) s;
+        return t;
+      }
+      return build(s, bs);
+    };
+  }
+
+  @Override public <C> Function<S, Function<C, T>> modifyFunctionF(final Function<A, Function<C, B>> f) {
+    return s -> {
+      final List<Function<C, B>> fs = new ArrayList<>(size(s));
+      iterator(s).forEachRemaining(a -> fs.add(f.apply(a)));
+      return c -> {
+        final Object[] bs = buffer(s, fs.size());
+        for (int i = 0; i < bs.length; i++) {
+          bs[i] = fs.get(i).apply(c);
+        }
+        return build(s, bs);
+      };
+    };
+  }
+
+  @Override public <L> Function<S, Either<L, T>> modifyEitherF(final Function<A, Either<L, B>> f) {
+    return s -> {
+      final Object[] bs = buffer(s, size(s));
+      int i = 0;
+      for (final Iterator<A> it = iterator(s); it.hasNext(); i++) {
+        final Either<L, B> b = f.apply(it.next());
+        if (b.isLeft()) {
+          return Either.left(b.left().get());
+        }
+        bs[i] = b.right().get();
+      }
+      return Either.right(build(s, bs));
+    };
+  }
+
+  @Override public Function<S, Option<T>> modifyOptionF(final Function<A, Option<B>> f) {
+    return s -> {
+      final Object[] bs = buffer(s, size(s));
+      int i = 0;
+      for (final Iterator<A> it = iterator(s); it.hasNext(); i++) {
+        final Option<B> b = f.apply(it.next());
+        if (b.isEmpty()) {
+          return Option.none();
+        }
+        bs[i] = b.get();
+      }
+      return Option.some(build(s, bs));
+    };
+  }
+
+  @Override public Function<S, Iterable<T>> modifyIterableF(final Function<A, Iterable<B>> f) {
+    return s -> {
+      final int n = size(s);
+      final List<Iterable<B>> choices = new ArrayList<>(n);
+      iterator(s).forEachRemaining(a -> choices.add(f.apply(a)));
+      final List<T> results = new ArrayList<>();
+      if (n == 0) {
+        results.add(build(s, buffer(s, 0)));
+        return results;
+      }
+      // step through every combination of choices like an odometer
+      final List<Iterator<B>> its = new ArrayList<>(n);
+      final Object[] current = new Object[n];
+      its.add(choices.get(0).iterator());
+      int i = 0;
+      while (i >= 0) {
+        if (its.get(i).hasNext()) {
+          current[i] = its.get(i).next();
+          if (i == n - 1) {
+            final Object[] bs = buffer(s, n);
+            System.arraycopy(current, 0, bs, 0, n);
+            results.add(build(s, bs));
+          } else {
+            i++;
+            if (its.size() == i) {
+              its.add(choices.get(i).iterator());
+            } else {
+              its.set(i, choices.get(i).iterator());
+            }
+          }
+        } else {
+          i--;
+        }
+      }
+      return results;
+    };
+  }
+
+  @Override public Function<S, Supplier<T>> modifySupplierF(final Function<A, Supplier<B>> f) {
+    return s -> {
+      final List<Supplier<B>> suppliers = new ArrayList<>(size(s));
+      iterator(s).forEachRemaining(a -> suppliers.add(f.apply(a)));
+      return () -> {
+        final Object[] bs = buffer(s, suppliers.size());
+        for (int i = 0; i < bs.length; i++) {
+          bs[i] = suppliers.get(i).get();
+        }
+        return build(s, bs);
+      };
+    };
+  }
+
+  @Override public Function<S, Pair<T, T>> modifyPairF(final Function<A, Pair<B, B>> f) {
+    return s -> {
+      final int n = size(s);
+      final Object[] lefts = buffer(s, n);
+      final Object[] rights = buffer(s, n);
+      int i = 0;
+      for (final Iterator<A> it = iterator(s); it.hasNext(); i++) {
+        final Pair<B, B> b = f.apply(it.next());
+        lefts[i] = b.left();
+        rights[i] = b.right();
+      }
+      return Pair.pair(build(s, lefts), build(s, rights));
+    };
+  }
+
+  @Override public <M> Function<S, M> foldMap(final Monoid<M> monoid, final Function<A, M> f) {
+    return s -> {
+      M m = monoid.zero();
+      for (final Iterator<A> it = iterator(s); it.hasNext();) {
+        m = monoid.append(m, f.apply(it.next()));
+      }
+      return m;
+    };
+  }
+
+  @Override public <M> Function<S, M> foldMapWhile(final Monoid<M> monoid, final Function<A, M> f, final Predicate<M> done) {
+    return s -> {
+      M m = monoid.zero();
+      for (final Iterator<A> it = iterator(s); it.hasNext() && !done.test(m);) {
+        m = monoid.append(m, f.apply(it.next()));
+      }
+      return m;
+    };
+  }
+
+  @Override public <M> Function<S, M> foldMapParallel(final Monoid<M> monoid, final Function<A, M> f, final ForkJoinPool pool) {
+    return s -> {
+      final Object[] as = elements(s);
+      return pool.invoke(new FoldMap<>(monoid, f, as, 0, as.length, threshold(as.length, pool)));
+    };
+  }
+
+  @Override public Function<S, T> modifyParallel(final Function<A, B> f, final ForkJoinPool pool) {
+    return s -> {
+      final Object[] as = elements(s);
+      final Object[] bs = buffer(s, as.length);
+      if (pool.invoke(new Modify<>(f, as, bs, 0, as.length, threshold(as.length, pool))) || !sameIfUnchanged) {
+        return build(s, bs);
+      }
+      @SuppressWarnings("unchecked")
+      final T t = (T) s;
+      return t;
+    };
+  }
+
+  /**
+   * Splits until parts have at most a quarter of an even share of the elements
+   * per worker, which is what parallel streams do.
+   */
+  private static int threshold(final int size, final ForkJoinPool pool) {
+    return Math.max(size / (pool.getParallelism() << 2), 1);
+  }
+
+  static final class FoldMap<A, M> extends RecursiveTask<M> {
+    private static final long serialVersionUID = 1L;
+
+    private final Monoid<M> monoid;
+    private final Function<A, M> f;
+    private final Object[] as;
+    private final int lo;
+    private final int hi;
+    private final int threshold;
+
+    FoldMap(final Monoid<M> monoid, final Function<A, M> f, final Object[] as, final int lo, final int hi, final int threshold) {
+      this.monoid = monoid;
+      this.f = f;
+      this.as = as;
+      this.lo = lo;
+      this.hi = hi;
+      this.threshold = threshold;
+    }
+
+    @Override protected M compute() {
+      if (hi - lo <= threshold) {
+        M m = monoid.zero();
+        for (int i = lo; i < hi; i++) {
+          @SuppressWarnings("unchecked")
+          final A a = (A) as[i];
+          m = monoid.append(m, f.apply(a));
+        }
+        return m;
+      }
+      final int mid = (lo + hi) >>> 1;
+      final FoldMap<A, M> left = new FoldMap<>(monoid, f, as, lo, mid, threshold);
+      left.fork();
+      final M right = new FoldMap<>(monoid, f, as, mid, hi, threshold).compute();
+      return monoid.append(left.join(), right);
+    }
+  }
+
+  /**
+   * Writes the new elements into the buffer, returning whether any of them
+   * changed.
+   */
+  static final class Modify<A, B> extends RecursiveTask<Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    private final Function<A, B> f;
+    private final Object[] as;
+    private final Object[] bs;
+    private final int lo;
+    private final int hi;
+    private final int threshold;
+
+    Modify(final Function<A, B> f, final Object[] as, final Object[] bs, final int lo, final int hi, final int threshold) {
+      this.f = f;
+      this.as = as;
+      this.bs = bs;
+      this.lo = lo;
+      this.hi = hi;
+      this.threshold = threshold;
+    }
+
+    @Override protected Boolean compute() {
+      if (hi - lo <= threshold) {
+        boolean changed = false;
+        for (int i = lo; i < hi; i++) {
+          @SuppressWarnings("unchecked")
+          final A a = (A) as[i];
+          final B b = f.apply(a);
+          changed |= b != a;
+          bs[i] = b;
+        }
+        return changed;
+      }
+      final int mid = (lo + hi) >>> 1;
+      final Modify<A, B> left = new Modify<>(f, as, bs, lo, mid, threshold);
+      left.fork();
+      final boolean right = new Modify<>(f, as, bs, mid, hi, threshold).compute();
+      return left.join() | right;
+    }
+  }
+}
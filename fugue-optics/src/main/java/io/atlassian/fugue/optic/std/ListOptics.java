@@ -0,0 +1,72 @@
+package io.atlassian.fugue.optic.std;
+
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.optic.Optional;
+import io.atlassian.fugue.optic.PTraversal;
+import io.atlassian.fugue.optic.Traversal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Optics over {@link List}. Updated lists are new unmodifiable lists, and
+ * monomorphic updates that leave every element the same return the original
+ * list.
+ */
+public final class ListOptics {
+
+  private ListOptics() {}
+
+  /**
+   * traverse every element of a list, in order
+   */
+  public static <A, B> PTraversal<List<A>, List<B>, A, B> pEach() {
+    return each(false);
+  }
+
+  public static <A> Traversal<List<A>, A> each() {
+    return new Traversal<>(each(true));
+  }
+
+  private static <A, B> PTraversal<List<A>, List<B>, A, B> each(final boolean sameIfUnchanged) {
+    return new ElementsTraversal<List<A>, List<B>, A, B>(sameIfUnchanged) {
+      @Override int size(final List<A> as) {
+        return as.size();
+      }
+
+      @Override Iterator<A> iterator(final List<A> as) {
+        return as.iterator();
+      }
+
+      @Override List<B> build(final List<A> as, final Object[] bs) {
+        return listOf(bs);
+      }
+
+      @Override Object[] elements(final List<A> as) {
+        return as.toArray();
+      }
+    };
+  }
+
+  /**
+   * the element at an index of a list, if the list is long enough
+   */
+  public static <A> Optional<List<A>, A> index(final int i) {
+    return Optional.optional(as -> (i >= 0 && i < as.size()) ? Option.some(as.get(i)) : Option.none(), a -> as -> {
+      if (i < 0 || i >= as.size() || as.get(i) == a) {
+        return as;
+      }
+      final Object[] copy = as.toArray();
+      copy[i] = a;
+      return listOf(copy);
+    });
+  }
+
+  private static <A> List<A> listOf(final Object[] as) {
+    @SuppressWarnings("unchecked")
+    final List<A> list = (List<A>) Collections.unmodifiableList(Arrays.asList(as));
+    return list;
+  }
+}
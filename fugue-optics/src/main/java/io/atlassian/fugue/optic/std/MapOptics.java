@@ -0,0 +1,91 @@
+package io.atlassian.fugue.optic.std;
+
+import io.atlassian.fugue.Option;
+import io.atlassian.fugue.optic.Lens;
+import io.atlassian.fugue.optic.Optional;
+import io.atlassian.fugue.optic.PTraversal;
+import io.atlassian.fugue.optic.Traversal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Optics over {@link Map}. Updated maps are new unmodifiable maps that keep the
+ * iteration order of the original, and monomorphic updates that change nothing
+ * return the original map.
+ */
+public final class MapOptics {
+
+  private MapOptics() {}
+
+  /**
+   * traverse every value of a map, in iteration order
+   */
+  public static <K, V, W> PTraversal<Map<K, V>, Map<K, W>, V, W> pEach() {
+    return each(false);
+  }
+
+  public static <K, V> Traversal<Map<K, V>, V> each() {
+    return new Traversal<>(each(true));
+  }
+
+  private static <K, V, W> PTraversal<Map<K, V>, Map<K, W>, V, W> each(final boolean sameIfUnchanged) {
+    return new ElementsTraversal<Map<K, V>, Map<K, W>, V, W>(sameIfUnchanged) {
+      @Override int size(final Map<K, V> m) {
+        return m.size();
+      }
+
+      @Override Iterator<V> iterator(final Map<K, V> m) {
+        return m.values().iterator();
+      }
+
+      @Override Map<K, W> build(final Map<K, V> m, final Object[] ws) {
+        final Map<K, W> result = new LinkedHashMap<>(capacity(ws.length));
+        int i = 0;
+        for (final K k : m.keySet()) {
+          @SuppressWarnings("unchecked")
+          final W w = (W) ws[i++];
+          result.put(k, w);
+        }
+        return Collections.unmodifiableMap(result);
+      }
+    };
+  }
+
+  /**
+   * the value of a key in a map, setting none removes the key
+   */
+  public static <K, V> Lens<Map<K, V>, Option<V>> at(final K key) {
+    return Lens.lens(
+      m -> Option.option(m.get(key)),
+      ov -> m -> ov.fold(() -> m.containsKey(key) ? removed(m, key) : m,
+        v -> (m.get(key) == v && (v != null || m.containsKey(key))) ? m : updated(m, key, v)));
+  }
+
+  /**
+   * the value of a key in a map, if the key is present
+   */
+  public static <K, V> Optional<Map<K, V>, V> index(final K key) {
+    return Optional.optional(m -> Option.option(m.get(key)), v -> m -> (!m.containsKey(key) || m.get(key) == v) ? m : updated(m, key, v));
+  }
+
+  private static <K, V> Map<K, V> updated(final Map<K, V> m, final K key, final V v) {
+    final Map<K, V> result = new LinkedHashMap<>(capacity(m.size() + 1));
+    result.putAll(m);
+    result.put(key, v);
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static <K, V> Map<K, V> removed(final Map<K, V> m, final K key) {
+    final Map<K, V> result = new LinkedHashMap<>(capacity(m.size()));
+    result.putAll(m);
+    result.remove(key);
+    return Collections.unmodifiableMap(result);
+  }
+
+  private static int capacity(final int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+}
@@ -18,12 +18,17 @@ package io.atlassian.fugue
 
 import java.math.BigInteger
 import java.util.Arrays.asList
+import java.util.Collections
 import java.util.stream.{ Collectors, StreamSupport }
 
 import io.atlassian.fugue.Either.right
 import Monoids._
 import io.atlassian.fugue.Option.some
 import io.atlassian.fugue.law.MonoidTests
+import org.scalacheck.Arbitrary.arbitrary
+import org.scalacheck.{ Arbitrary, Gen }
+
+import scala.collection.JavaConversions._
 
 class MonoidsSpec extends TestSuite {
 
@@ -89,6 +94,30 @@ class MonoidsSpec extends TestSuite {
     MonoidTests(list[Integer]()).check()
   }
 
+  test("list sumParallel is resizable like sum") {
+    val summed = list[String]().sumParallel(asList(asList("a"), asList("b")), java.util.concurrent.ForkJoinPool.commonPool(), 1)
+    summed.add("c")
+    summed shouldEqual asList("a", "b", "c")
+  }
+
+  test("vector") {
+    vector[String]().append(Vector.vector("a"), Vector.vector("b")) shouldEqual Vector.vector("a", "b")
+    MonoidTests(vector[Integer]()).check()
+  }
+
+  test("hashMap") {
+    hashMap[String, String]().append(HashMap.fromMap(Collections.singletonMap("a", "b")), HashMap.fromMap(Collections.singletonMap("a", "c"))).get("a") shouldEqual some("c")
+    MonoidTests(hashMap[Integer, Integer]()).check()
+  }
+
+  test("hashMap with a semigroup") {
+    // few keys, so that most appends merge values
+    implicit val fewKeys: Arbitrary[HashMap[Integer, Integer]] = Arbitrary(
+      Gen.listOf(Gen.zip(Gen.choose(0, 20), arbitrary[Int])).map(kvs => HashMap.fromMap(mapAsJavaMap(kvs.map { case (k, v) => (Integer.valueOf(k), Integer.valueOf(v)) }.toMap))))
+    hashMap[String, Integer](intAddition).append(HashMap.fromMap(Collections.singletonMap("a", 1)), HashMap.fromMap(Collections.singletonMap("a", 2))).get("a") shouldEqual some(3)
+    MonoidTests(hashMap[Integer, Integer](intAddition)).check()
+  }
+
   test("iterable") {
     StreamSupport.stream(iterable[String]().append(asList("a"), asList("b")).spliterator(), false).collect(Collectors.toList[String]) shouldEqual asList("a", "b")
   }
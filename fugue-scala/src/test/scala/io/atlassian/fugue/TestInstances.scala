@@ -42,7 +42,20 @@ trait TestInstances {
   implicit def javaListArbitrary[A: Arbitrary]: Arbitrary[java.util.List[A]] =
     Arbitrary(arbitrary[scala.List[A]] map seqAsJavaList)
 
+  implicit def javaMapArbitrary[K: Arbitrary, V: Arbitrary]: Arbitrary[java.util.Map[K, V]] =
+    Arbitrary(arbitrary[scala.collection.immutable.ListMap[K, V]] map (m => new java.util.LinkedHashMap[K, V](mapAsJavaMap(m))))
+
   implicit def javaIterableArbitrary[A: Arbitrary]: Arbitrary[java.lang.Iterable[A]] =
     Arbitrary(arbitrary[scala.List[A]] map seqAsJavaList)
 
+  implicit def hashMapArbitrary[K: Arbitrary, V: Arbitrary]: Arbitrary[HashMap[K, V]] =
+    Arbitrary(arbitrary[java.util.Map[K, V]] map (m => HashMap.fromMap(m)))
+
+  // mostly small, and sometimes deep enough for a vector to have several levels
+  implicit def vectorArbitrary[A: Arbitrary]: Arbitrary[Vector[A]] =
+    Arbitrary(Gen.frequency(
+      4 -> arbitrary[scala.List[A]],
+      1 -> Gen.choose(0, 2000).flatMap(Gen.listOfN(_, arbitrary[A]))
+    ) map (as => Vector.fromIterable(seqAsJavaList(as))))
+
 }
@@ -36,6 +36,10 @@ object MonoidTests {
 
     property("sum is equivalent to fold") = forAll((aa: List[A]) => laws.sumEqualFold(aa))
 
+    property("sumParallel is equivalent to sum") = forAll((aa: List[A]) => laws.sumParallelEqualSum(new java.util.ArrayList(aa)))
+
+    property("sumParallel of a spliterator is equivalent to sum") = forAll((aa: List[A]) => laws.sumParallelSpliteratorEqualSum(new java.util.ArrayList(aa)))
+
     property("multiply is consistent with sum") = sizedProp(n => forAll((a: A) => laws.multiplyEqualRepeatedAppend(n, a)))
 
   }
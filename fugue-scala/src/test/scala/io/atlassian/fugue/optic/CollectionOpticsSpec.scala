@@ -0,0 +1,93 @@
+package io.atlassian.fugue.optic
+
+import java.util.function.{ Function => JFunction, Predicate => JPredicate }
+
+import io.atlassian.fugue.{ Monoids, Option, TestSuite }
+import io.atlassian.fugue.optic.law.{ LensTests, OptionalTests, TraversalTests }
+import io.atlassian.fugue.optic.std.{ ArrayOptics, ListOptics, MapOptics }
+
+import scala.collection.JavaConversions._
+
+class CollectionOpticsSpec extends TestSuite {
+
+  val identity = new JFunction[Integer, Integer] { def apply(i: Integer) = i }
+  val inc = new JFunction[Integer, Integer] { def apply(i: Integer) = i + 1 }
+
+  test("ListOptics.each Laws") {
+    TraversalTests(ListOptics.each[Integer]()).check()
+  }
+
+  test("ListOptics.index Laws") {
+    OptionalTests(ListOptics.index[Integer](1)).check()
+  }
+
+  test("MapOptics.each Laws") {
+    TraversalTests(MapOptics.each[Integer, Integer]()).check()
+  }
+
+  test("MapOptics.at Laws") {
+    LensTests(MapOptics.at[Integer, Integer](1)).check()
+  }
+
+  test("MapOptics.index Laws") {
+    OptionalTests(MapOptics.index[Integer, Integer](1)).check()
+  }
+
+  test("ListOptics.each modify returns the same list when nothing changes") {
+    val list: java.util.List[Integer] = seqAsJavaList(List[Integer](1, 2, 3))
+    ListOptics.each[Integer]().modify(identity).apply(list) should be theSameInstanceAs list
+    ListOptics.each[Integer]().modify(inc).apply(list).toList shouldBe List(2, 3, 4)
+  }
+
+  test("pEach modify always builds a new unmodifiable collection") {
+    val list: java.util.List[Integer] = new java.util.ArrayList[Integer](seqAsJavaList(List[Integer](1, 2, 3)))
+    val modified = ListOptics.pEach[Integer, Integer]().modify(identity).apply(list)
+    modified should not be theSameInstanceAs(list)
+    modified.toList shouldBe List(1, 2, 3)
+    an[UnsupportedOperationException] should be thrownBy modified.add(4)
+    val pool = java.util.concurrent.ForkJoinPool.commonPool()
+    ListOptics.pEach[Integer, Integer]().modifyParallel(identity, pool).apply(list) should not be theSameInstanceAs(list)
+    val map = new java.util.LinkedHashMap[Integer, Integer]()
+    map.put(1, 10)
+    MapOptics.pEach[Integer, Integer, Integer]().modify(identity).apply(map) should not be theSameInstanceAs(map)
+  }
+
+  test("ListOptics.each find stops at the first match") {
+    var visited = 0
+    val isTwo = new JPredicate[Integer] { def test(i: Integer) = { visited += 1; i == 2 } }
+    ListOptics.each[Integer]().find(isTwo).apply(seqAsJavaList(List[Integer](1, 2, 3))) shouldBe Option.some(2)
+    visited shouldBe 2
+  }
+
+  test("MapOptics.each modify keeps the iteration order") {
+    val map = new java.util.LinkedHashMap[Integer, Integer]()
+    map.put(3, 30)
+    map.put(1, 10)
+    MapOptics.each[Integer, Integer]().modify(identity).apply(map) should be theSameInstanceAs map
+    MapOptics.each[Integer, Integer]().modify(inc).apply(map).toString shouldBe "{3=31, 1=11}"
+  }
+
+  test("MapOptics.at removes on none") {
+    val map = new java.util.LinkedHashMap[Integer, Integer]()
+    map.put(1, 10)
+    MapOptics.at[Integer, Integer](1).set(Option.none()).apply(map).isEmpty shouldBe true
+    MapOptics.at[Integer, Integer](2).set(Option.none()).apply(map) should be theSameInstanceAs map
+  }
+
+  test("ArrayOptics modify copies once and leaves the source alone") {
+    val array = Array[Integer](1, 2, 3)
+    ArrayOptics.each[Integer]().modify(identity).apply(array) should be theSameInstanceAs array
+    ArrayOptics.each[Integer]().modify(inc).apply(array).toList shouldBe List(2, 3, 4)
+    ArrayOptics.index[Integer](1).set(5).apply(array).toList shouldBe List(1, 5, 3)
+    array.toList shouldBe List(1, 2, 3)
+  }
+
+  test("ListOptics.each foldMapParallel and modifyParallel keep the order") {
+    val list: java.util.List[Integer] = seqAsJavaList((0 until 10000).map(Integer.valueOf))
+    val show = new JFunction[Integer, String] { def apply(i: Integer) = i.toString }
+    val pool = java.util.concurrent.ForkJoinPool.commonPool()
+    ListOptics.each[Integer]().foldMapParallel(Monoids.string, show, pool).apply(list) shouldBe (0 until 10000).mkString
+    ListOptics.each[Integer]().modifyParallel(inc, pool).apply(list).toList shouldBe (1 to 10000).toList
+    ListOptics.each[Integer]().modifyParallel(identity, pool).apply(list) should be theSameInstanceAs list
+  }
+}
@@ -0,0 +1,46 @@
+package io.atlassian.fugue.optic
+
+import java.util.function.{ Function => JFunction }
+
+import io.atlassian.fugue.{ Pair, TestSuite }
+import io.atlassian.fugue.optic.law.LensTests
+import io.atlassian.fugue.optic.std.PairOptics
+
+class LensSpec extends TestSuite {
+
+  type Nested = Pair[Pair[Pair[Integer, String], String], String]
+
+  def path: Lens[Nested, Integer] =
+    PairOptics.left[Pair[Pair[Integer, String], String], String]().composeLens(PairOptics.left[Pair[Integer, String], String]())
+      .composeLens(PairOptics.left[Integer, String]())
+
+  val negate = new JFunction[Integer, Integer] { def apply(i: Integer) = -i }
+  val negation = Iso.iso[Integer, Integer](negate, negate)
+
+  test("Lens.fuse Laws") {
+    LensTests(path.fuse()).check()
+  }
+
+  test("Lens.fuse with an iso Laws") {
+    LensTests(path.composeIso(negation).fuse()).check()
+  }
+
+  test("Lens.fuse of a fused lens Laws") {
+    LensTests(path.fuse().composeLens(Lens.id[Integer]()).fuse()).check()
+  }
+
+  test("Lens.fuse gets and modifies like the composed lens") {
+    val s: Nested = Pair.pair(Pair.pair(Pair.pair(1, "a"), "b"), "c")
+    path.fuse().get(s) shouldBe 1
+    path.fuse().modify(negate).apply(s) shouldBe path.modify(negate).apply(s)
+    path.fuse().set(5).apply(s) shouldBe Pair.pair(Pair.pair(Pair.pair(5, "a"), "b"), "c")
+  }
+
+  test("Lens.modifyIfChanged returns the source when nothing changes") {
+    val s: Nested = Pair.pair(Pair.pair(Pair.pair(1, "a"), "b"), "c")
+    val same = new JFunction[Integer, Integer] { def apply(i: Integer) = i }
+    path.modifyIfChanged(same).apply(s) should be theSameInstanceAs s
+    path.fuse().modifyIfChanged(same).apply(s) should be theSameInstanceAs s
+    path.modifyIfChanged(negate).apply(s) shouldBe path.modify(negate).apply(s)
+  }
+}
@@ -0,0 +1,83 @@
+package io.atlassian.fugue.optic
+
+import java.util.function.{ BiFunction, Function => JFunction }
+
+import io.atlassian.fugue.{ Pair, TestSuite }
+import io.atlassian.fugue.optic.std.PairOptics
+
+class OpticUpdateSpec extends TestSuite {
+
+  type Inner = Pair[Integer, String]
+  type Middle = Pair[Inner, String]
+  type Nested = Pair[Middle, String]
+
+  var middleSets = 0
+
+  val middle: Lens[Nested, Middle] = Lens.lens(
+    new JFunction[Nested, Middle] { def apply(s: Nested) = s.left() },
+    new JFunction[Middle, JFunction[Nested, Nested]] {
+      def apply(m: Middle) = new JFunction[Nested, Nested] {
+        def apply(s: Nested) = {
+          middleSets += 1
+          Pair.pair(m, s.right())
+        }
+      }
+    })
+  val inner: Lens[Middle, Inner] = PairOptics.left[Inner, String]()
+  val number: Lens[Nested, Integer] = middle.composeLens(inner).composeLens(PairOptics.left[Integer, String]())
+  val word: Lens[Nested, String] = middle.composeLens(inner).composeLens(PairOptics._right[Integer, String]())
+  val label: Lens[Nested, String] = middle.composeLens(PairOptics._right[Inner, String]())
+
+  val negate = new JFunction[Integer, Integer] { def apply(i: Integer) = -i }
+  val upper = new JFunction[String, String] { def apply(s: String) = s.toUpperCase }
+
+  val s: Nested = Pair.pair(Pair.pair(Pair.pair(1, "a"), "b"), "c")
+
+  test("OpticUpdate is the same as applying each update in turn") {
+    val update = OpticUpdate.builder[Nested]().set[Integer](number, 2).modify(word, upper).set[String](label, "x").modify(number, negate).build()
+    update.apply(s) shouldBe number.modify(negate).apply(label.set("x").apply(word.modify(upper).apply(number.set(2).apply(s))))
+  }
+
+  test("OpticUpdate sets a shared ancestor once") {
+    middleSets = 0
+    OpticUpdate.builder[Nested]().set[Integer](number, 2).modify(word, upper).set[String](label, "x").build().apply(s)
+    middleSets shouldBe 1
+  }
+
+  test("OpticUpdate applies an update of an ancestor in order with updates below it") {
+    val update = OpticUpdate.builder[Nested]().set[Integer](number, 2).set[Middle](middle, Pair.pair(Pair.pair(3, "d"), "e")).modify(number, negate).build()
+    update.apply(s) shouldBe Pair.pair(Pair.pair(Pair.pair(-3, "d"), "e"), "c")
+  }
+
+  test("OpticUpdate applies traversals in order with lenses") {
+    val both = Traversal.traversal[Nested, String](
+      new JFunction[Nested, String] { def apply(n: Nested) = word.get(n) },
+      new JFunction[Nested, String] { def apply(n: Nested) = label.get(n) },
+      new BiFunction[String, String, JFunction[Nested, Nested]] {
+        def apply(w: String, l: String) = word.set(w).andThen(label.set(l))
+      })
+    val update = OpticUpdate.builder[Nested]().set[String](word, "y").modify(both, upper).set[String](label, "z").build()
+    update.apply(s) shouldBe Pair.pair(Pair.pair(Pair.pair(1, "Y"), "z"), "c")
+  }
+
+  test("OpticUpdate keeps steps apart when only their getters are the same") {
+    val id = JFunction.identity[Integer]()
+    val replace: Lens[Integer, Integer] = Lens.lens(id, new JFunction[Integer, JFunction[Integer, Integer]] {
+      def apply(a: Integer) = new JFunction[Integer, Integer] { def apply(s: Integer) = a }
+    })
+    val double: Lens[Integer, Integer] = Lens.lens(id, new JFunction[Integer, JFunction[Integer, Integer]] {
+      def apply(a: Integer) = new JFunction[Integer, Integer] { def apply(s: Integer) = a * 2 }
+    })
+    val update = OpticUpdate.builder[Integer]().set[Integer](replace, 3).set[Integer](double, 5).build()
+    update.apply(1) shouldBe double.set(5).apply(replace.set(3).apply(1))
+    update.apply(1) shouldBe 10
+  }
+
+  test("OpticUpdate returns the source when nothing changes") {
+    val same = new JFunction[Integer, Integer] { def apply(i: Integer) = i }
+    middleSets = 0
+    OpticUpdate.builder[Nested]().modify(number, same).build().apply(s) should be theSameInstanceAs s
+    OpticUpdate.builder[Nested]().build().apply(s) should be theSameInstanceAs s
+    middleSets shouldBe 0
+  }
+}
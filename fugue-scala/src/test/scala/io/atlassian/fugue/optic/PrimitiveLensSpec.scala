@@ -0,0 +1,70 @@
+package io.atlassian.fugue.optic
+
+import java.util.function.{ DoubleFunction, DoubleUnaryOperator, IntFunction, IntUnaryOperator, LongFunction, LongUnaryOperator, ToDoubleFunction, ToIntFunction, ToLongFunction, Function => JFunction }
+
+import io.atlassian.fugue.{ Pair, TestSuite }
+import io.atlassian.fugue.optic.law.{ LensTests, TraversalTests }
+import io.atlassian.fugue.optic.std.PairOptics
+
+class PrimitiveLensSpec extends TestSuite {
+
+  type Counters = Pair[Integer, Pair[java.lang.Long, java.lang.Double]]
+
+  val count: IntLens[Counters] = IntLens.intLens(
+    new ToIntFunction[Counters] { def applyAsInt(s: Counters) = s.left() },
+    new IntFunction[JFunction[Counters, Counters]] {
+      def apply(i: Int) = new JFunction[Counters, Counters] { def apply(s: Counters) = Pair.pair(i, s.right()) }
+    })
+
+  val total: LongLens[Pair[java.lang.Long, java.lang.Double]] = LongLens.longLens(
+    new ToLongFunction[Pair[java.lang.Long, java.lang.Double]] { def applyAsLong(s: Pair[java.lang.Long, java.lang.Double]) = s.left() },
+    new LongFunction[JFunction[Pair[java.lang.Long, java.lang.Double], Pair[java.lang.Long, java.lang.Double]]] {
+      def apply(l: Long) = new JFunction[Pair[java.lang.Long, java.lang.Double], Pair[java.lang.Long, java.lang.Double]] {
+        def apply(s: Pair[java.lang.Long, java.lang.Double]) = Pair.pair(l, s.right())
+      }
+    })
+
+  val mean: DoubleLens[java.lang.Double] = DoubleLens.doubleLens(
+    new ToDoubleFunction[java.lang.Double] { def applyAsDouble(d: java.lang.Double) = d },
+    new DoubleFunction[JFunction[java.lang.Double, java.lang.Double]] {
+      def apply(d: Double) = new JFunction[java.lang.Double, java.lang.Double] { def apply(old: java.lang.Double) = d }
+    })
+
+  val totals: LongLens[Counters] = PairOptics._right[Integer, Pair[java.lang.Long, java.lang.Double]]().composeLongLens(total)
+  val means: DoubleLens[Counters] = PairOptics._right[Integer, Pair[java.lang.Long, java.lang.Double]]()
+    .composeLens(PairOptics._right[java.lang.Long, java.lang.Double]()).composeDoubleLens(mean)
+
+  val s: Counters = Pair.pair(1, Pair.pair(2L, 0.5))
+
+  test("IntLens.asLens Laws") {
+    LensTests(count.asLens()).check()
+  }
+
+  test("Lens.composeLongLens Laws") {
+    LensTests(totals.asLens()).check()
+  }
+
+  test("Lens.composeDoubleLens Laws") {
+    LensTests(means.asLens()).check()
+  }
+
+  test("Iso.composeDoubleLens Laws") {
+    LensTests(Iso.id[java.lang.Double]().composeDoubleLens(mean).asLens()).check()
+  }
+
+  test("Traversal.composeIntLens Laws") {
+    TraversalTests(Traversal.id[Counters]().composeIntLens(count)).check()
+  }
+
+  test("primitive lenses get, set and modify without going through the boxed lens") {
+    count.get(s) shouldBe 1
+    totals.get(s) shouldBe 2L
+    means.get(s) shouldBe 0.5
+    count.set(3).apply(s) shouldBe Pair.pair(3, Pair.pair(2L, 0.5))
+    totals.modify(new LongUnaryOperator { def applyAsLong(l: Long) = l * 10 }).apply(s) shouldBe Pair.pair(1, Pair.pair(20L, 0.5))
+    means.modify(new DoubleUnaryOperator { def applyAsDouble(d: Double) = d * 2 }).apply(s) shouldBe Pair.pair(1, Pair.pair(2L, 1.0))
+    count.modify(new IntUnaryOperator { def applyAsInt(i: Int) = i + 1 }).apply(s) shouldBe count.asLens().modify(new JFunction[Integer, Integer] {
+      def apply(i: Integer) = i + 1
+    }).apply(s)
+  }
+}
@@ -1,6 +1,8 @@
 package io.atlassian.fugue.optic
 
-import io.atlassian.fugue.TestSuite
+import java.util.function.{ Function => JFunction }
+
+import io.atlassian.fugue.{ Either, TestSuite }
 import io.atlassian.fugue.optic.law.{ OptionalTests, PrismTests, SetterTests, TraversalTests }
 import io.atlassian.fugue.optic.std.EitherOptics.right
 
@@ -23,4 +25,13 @@ class PrismSpec extends TestSuite {
   }
 
   // TODO: test compose methods
-}
\ No newline at end of file
+
+  test("Prism.modifyIfChanged returns the source when nothing changes") {
+    val s: Either[String, Integer] = Either.right(1)
+    val same = new JFunction[Integer, Integer] { def apply(i: Integer) = i }
+    val inc = new JFunction[Integer, Integer] { def apply(i: Integer) = i + 1 }
+    right[String, Integer]().modifyIfChanged(same).apply(s) should be theSameInstanceAs s
+    right[String, Integer]().asOptional().modifyIfChanged(same).apply(s) should be theSameInstanceAs s
+    right[String, Integer]().modifyIfChanged(inc).apply(s) shouldBe Either.right(2)
+  }
+}
@@ -0,0 +1,61 @@
+package io.atlassian.fugue.optic
+
+import java.util.function.{ BiFunction => JFunction2, Function => JFunction, Predicate => JPredicate }
+
+import io.atlassian.fugue.{ Either, Pair, TestSuite }
+import io.atlassian.fugue.optic.law.TraversalTests
+import io.atlassian.fugue.optic.std.{ ListOptics, PairOptics }
+
+class TraversalSpec extends TestSuite {
+
+  def both(reads: Array[Int]): Traversal[Pair[Integer, Integer], Integer] = Traversal.traversal(
+    new JFunction[Pair[Integer, Integer], Integer] {
+      def apply(p: Pair[Integer, Integer]) = { reads(0) += 1; p.left() }
+    },
+    new JFunction[Pair[Integer, Integer], Integer] {
+      def apply(p: Pair[Integer, Integer]) = { reads(1) += 1; p.right() }
+    },
+    new JFunction2[Integer, Integer, JFunction[Pair[Integer, Integer], Pair[Integer, Integer]]] {
+      def apply(l: Integer, r: Integer) = new JFunction[Pair[Integer, Integer], Pair[Integer, Integer]] {
+        def apply(p: Pair[Integer, Integer]) = Pair.pair(l, r)
+      }
+    })
+
+  val isOne = new JPredicate[Integer] { def test(i: Integer) = i == 1 }
+
+  test("Traversal Laws") {
+    TraversalTests(both(Array(0, 0))).check()
+  }
+
+  test("Traversal.find stops at the first match") {
+    val reads = Array(0, 0)
+    both(reads).find(isOne).apply(Pair.pair(1, 2)).get() shouldBe 1
+    reads shouldBe Array(1, 0)
+  }
+
+  test("Traversal.sum and compose stop at the first match") {
+    val reads = Array(0, 0)
+    val traversal = both(reads).sum(both(reads)).composeTraversal(Traversal.id[Integer]())
+    traversal.exist(isOne).test(Either.left(Pair.pair(1, 2))) shouldBe true
+    reads shouldBe Array(1, 0)
+  }
+
+  test("Traversal.modify applies the function to every target") {
+    val inc = new JFunction[Integer, Integer] { def apply(i: Integer) = i + 1 }
+    both(Array(0, 0)).modify(inc).apply(Pair.pair(1, 2)) shouldBe Pair.pair(2, 3)
+  }
+
+  test("Traversal.modifyIfChanged only rebuilds the changed parts") {
+    val first: Pair[Integer, Integer] = Pair.pair(1, 2)
+    val second: Pair[Integer, Integer] = Pair.pair(3, 4)
+    val list: java.util.List[Pair[Integer, Integer]] = java.util.Arrays.asList(first, second)
+    val lefts = ListOptics.each[Pair[Integer, Integer]]().composeTraversal(PairOptics.left[Integer, Integer]().asTraversal())
+    val incOne = new JFunction[Integer, Integer] { def apply(i: Integer) = if (i == 1) i + 1 else i }
+    val same = new JFunction[Integer, Integer] { def apply(i: Integer) = i }
+    val updated = lefts.modifyIfChanged(incOne).apply(list)
+    updated.get(0) shouldBe Pair.pair(2, 2)
+    updated.get(1) should be theSameInstanceAs second
+    lefts.modifyIfChanged(same).apply(list) should be theSameInstanceAs list
+    both(Array(0, 0)).modifyIfChanged(same).apply(first) should be theSameInstanceAs first
+  }
+}
@@ -17,8 +17,14 @@ object TraversalTests {
     property("modifyIterableF point = point") = forAll((s: S) => laws.modifyIterableFPoint(s))
     property("modifyOptionF point = point") = forAll((s: S) => laws.modifyOptionFPoint(s))
     property("modifyPairF point = point") = forAll((s: S) => laws.modifyPairFPoint(s))
+    property("modify consistent with modifySupplierF") = forAll((s: S, a: A) => laws.modifySupplierFConsistent(s, a))
+    property("modifyParallel consistent with modify") = forAll((s: S, a: A) => laws.modifyParallelConsistent(s, a))
+    property("foldMapParallel consistent with foldMap") = forAll((s: S) => laws.foldMapParallelConsistent(s))
     property("modifySupplierF point = point") = forAll((s: S) => laws.modifySupplierFPoint(s))
     property("headOption") = forAll((s: S) => laws.headOption(s))
+    property("find") = forAll((s: S, a: A) => laws.find(s, a))
+    property("exist") = forAll((s: S, a: A) => laws.exist(s, a))
+    property("all") = forAll((s: S, a: A) => laws.all(s, a))
   }
 
 }
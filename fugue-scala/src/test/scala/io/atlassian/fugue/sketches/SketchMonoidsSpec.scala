@@ -0,0 +1,54 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package io.atlassian.fugue.sketches
+
+import io.atlassian.fugue.TestSuite
+import io.atlassian.fugue.law.MonoidTests
+import org.scalacheck.{ Arbitrary, Gen }
+
+class SketchMonoidsSpec extends TestSuite {
+
+  val precision = 4
+  val depth = 3
+  val width = 16
+  // high enough that the few values generated are never merged into centroids,
+  // as merging is only approximately associative
+  val compression = 10000.0
+
+  implicit val arbitraryHyperLogLog: Arbitrary[HyperLogLog] = Arbitrary(
+    Gen.listOf(Arbitrary.arbitrary[Long]).map(_.foldLeft(HyperLogLog.create(precision))(_ add _)))
+
+  implicit val arbitraryCountMinSketch: Arbitrary[CountMinSketch] = Arbitrary(
+    Gen.listOf(Gen.zip(Arbitrary.arbitrary[Long], Gen.choose(1L, 100L))).map(_.foldLeft(CountMinSketch.create(depth, width)) {
+      case (c, (item, count)) => c.add(item, count)
+    }))
+
+  implicit val arbitraryTDigest: Arbitrary[TDigest] = Arbitrary(
+    Gen.choose(0, 5).flatMap(n => Gen.listOfN(n, Gen.choose(-1000, 1000))).map(_.foldLeft(TDigest.create(compression))(_ add _)))
+
+  test("HyperLogLog monoid") {
+    MonoidTests(HyperLogLog.monoid(precision)).check()
+  }
+
+  test("CountMinSketch monoid") {
+    MonoidTests(CountMinSketch.monoid(depth, width)).check()
+  }
+
+  test("TDigest monoid") {
+    MonoidTests(TDigest.monoid(compression)).check()
+  }
+}
@@ -0,0 +1,299 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+import io.atlassian.fugue.Monoid;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A Count-Min sketch estimating how often items were added, in a fixed
+ * {@code depth * width} longs. Estimates never undercount, and overcount by
+ * more than {@code e / width} of the total count with probability at most
+ * {@code e^-depth}, which makes the sketch suitable for finding heavy hitters
+ * among candidate items.
+ * <p>
+ * Sketches are mutable while items are added, and are merged by adding their
+ * counters, which the {@link #monoid(int, int) monoid} does without modifying
+ * its arguments. Sketches are not thread safe.
+ *
+ * @see "Cormode and Muthukrishnan, An improved data stream summary: the
+ * count-min sketch and its applications, 2005"
+ * @since 5.0
+ */
+public final class CountMinSketch {
+  private static final byte FORMAT = 1;
+
+  private final int depth;
+  private final int width;
+  /** Row after row of counters. */
+  private final long[] counts;
+  private long total;
+
+  private CountMinSketch(final int depth, final int width, final long[] counts, final long total) {
+    this.depth = depth;
+    this.width = width;
+    this.counts = counts;
+    this.total = total;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * @param depth the number of rows, must be positive
+   * @param width the number of counters per row, must be positive
+   * @return an empty sketch
+   */
+  public static CountMinSketch create(final int depth, final int width) {
+    checkDimensions(depth, width);
+    return new CountMinSketch(depth, width, new long[Math.multiplyExact(depth, width)], 0);
+  }
+
+  /**
+   * Creates a sketch that overcounts by at most {@code epsilon} of the total
+   * count with probability at least {@code 1 - delta}.
+   *
+   * @param epsilon the relative error, between zero and one
+   * @param delta the probability of exceeding the error, between zero and one
+   * @return an empty sketch
+   */
+  public static CountMinSketch withError(final double epsilon, final double delta) {
+    if (!(epsilon > 0 && epsilon < 1 && delta > 0 && delta < 1)) {
+      throw new IllegalArgumentException("Epsilon and delta must be between zero and one");
+    }
+    return create((int) Math.ceil(Math.log(1 / delta)), (int) Math.ceil(Math.E / epsilon));
+  }
+
+  /**
+   * A monoid that merges sketches of the given dimensions into new sketches.
+   * Its zero is a new empty sketch and its sum merges every sketch into a
+   * single new one.
+   *
+   * @param depth the number of rows, must be positive
+   * @param width the number of counters per row, must be positive
+   * @return the monoid of sketches of the dimensions
+   */
+  public static Monoid<CountMinSketch> monoid(final int depth, final int width) {
+    checkDimensions(depth, width);
+    return new Monoid<CountMinSketch>() {
+      @Override public CountMinSketch append(final CountMinSketch c1, final CountMinSketch c2) {
+        return zero().addAll(c1).addAll(c2);
+      }
+
+      @Override public CountMinSketch zero() {
+        return create(depth, width);
+      }
+
+      @Override public CountMinSketch sum(final Iterable<CountMinSketch> cs) {
+        final CountMinSketch result = zero();
+        for (final CountMinSketch c : cs) {
+          result.addAll(c);
+        }
+        return result;
+      }
+    };
+  }
+
+  /**
+   * Reads a sketch written by {@link #toBytes()}.
+   *
+   * @param bytes the serialized sketch, must not be null
+   * @return the sketch
+   * @throws IllegalArgumentException if the bytes are not a serialized sketch
+   */
+  public static CountMinSketch fromBytes(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (bytes.length < 17 || buffer.get() != FORMAT) {
+      throw new IllegalArgumentException("Not a serialized CountMinSketch");
+    }
+    final int depth = buffer.getInt();
+    final int width = buffer.getInt();
+    final long total = buffer.getLong();
+    if (depth <= 0 || width <= 0 || buffer.remaining() != 8L * depth * width) {
+      throw new IllegalArgumentException("Not a serialized CountMinSketch");
+    }
+    final long[] counts = new long[depth * width];
+    buffer.asLongBuffer().get(counts);
+    return new CountMinSketch(depth, width, counts, total);
+  }
+
+  //
+  // updates
+  //
+
+  /**
+   * Adds an occurrence of an item, such as an id, that is hashed to pick a
+   * counter in each row.
+   *
+   * @param item the item to add
+   * @return this sketch
+   */
+  public CountMinSketch add(final long item) {
+    return add(item, 1);
+  }
+
+  /**
+   * @param item the item to add
+   * @param count the number of occurrences to add, must not be negative
+   * @return this sketch
+   */
+  public CountMinSketch add(final long item, final long count) {
+    return addHash(Hashing.mix(item), count);
+  }
+
+  /**
+   * @param item the item to add, must not be null
+   * @return this sketch
+   */
+  public CountMinSketch add(final CharSequence item) {
+    return addHash(Hashing.hash(item), 1);
+  }
+
+  /**
+   * @param item the item to add, must not be null
+   * @param count the number of occurrences to add, must not be negative
+   * @return this sketch
+   */
+  public CountMinSketch add(final CharSequence item, final long count) {
+    return addHash(Hashing.hash(item), count);
+  }
+
+  /**
+   * Merges another sketch into this one.
+   *
+   * @param that a sketch of the same dimensions, must not be null
+   * @return this sketch
+   */
+  public CountMinSketch addAll(final CountMinSketch that) {
+    if (that.depth != depth || that.width != width) {
+      throw new IllegalArgumentException("Cannot merge sketches of " + depth + "x" + width + " and " + that.depth + "x" + that.width);
+    }
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += that.counts[i];
+    }
+    total += that.total;
+    return this;
+  }
+
+  private CountMinSketch addHash(final long hash, final long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Count must not be negative");
+    }
+    for (int row = 0; row < depth; row++) {
+      counts[row * width + column(hash, row)] += count;
+    }
+    total += count;
+    return this;
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @param item the item
+   * @return an upper bound on how often the item was added
+   */
+  public long estimate(final long item) {
+    return estimateHash(Hashing.mix(item));
+  }
+
+  /**
+   * @param item the item, must not be null
+   * @return an upper bound on how often the item was added
+   */
+  public long estimate(final CharSequence item) {
+    return estimateHash(Hashing.hash(item));
+  }
+
+  private long estimateHash(final long hash) {
+    long min = Long.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      min = Math.min(min, counts[row * width + column(hash, row)]);
+    }
+    return min;
+  }
+
+  /**
+   * Derives a column per row from the two halves of the hash, which is as good
+   * as independent hashes per row.
+   *
+   * @see "Kirsch and Mitzenmacher, Less hashing, same performance, 2006"
+   */
+  private int column(final long hash, final int row) {
+    final int combined = (int) hash + row * (int) (hash >>> 32);
+    return (combined & Integer.MAX_VALUE) % width;
+  }
+
+  /**
+   * @return the total of all counts added
+   */
+  public long totalCount() {
+    return total;
+  }
+
+  /**
+   * @return the number of rows
+   */
+  public int depth() {
+    return depth;
+  }
+
+  /**
+   * @return the number of counters per row
+   */
+  public int width() {
+    return width;
+  }
+
+  /**
+   * @return the sketch as a format byte, the dimensions, the total count and
+   * the counters
+   */
+  public byte[] toBytes() {
+    final ByteBuffer buffer = ByteBuffer.allocate(17 + 8 * counts.length).put(FORMAT).putInt(depth).putInt(width).putLong(total);
+    buffer.asLongBuffer().put(counts);
+    return buffer.array();
+  }
+
+  @Override public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CountMinSketch)) {
+      return false;
+    }
+    final CountMinSketch that = (CountMinSketch) o;
+    return depth == that.depth && width == that.width && total == that.total && Arrays.equals(counts, that.counts);
+  }
+
+  @Override public int hashCode() {
+    return 31 * (31 * depth + width) + Arrays.hashCode(counts);
+  }
+
+  @Override public String toString() {
+    return "CountMinSketch(" + depth + "x" + width + ", " + total + ")";
+  }
+
+  private static void checkDimensions(final int depth, final int width) {
+    if (depth <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Depth and width must be positive");
+    }
+  }
+}
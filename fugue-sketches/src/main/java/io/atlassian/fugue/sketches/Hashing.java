@@ -0,0 +1,62 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+/**
+ * 64 bit hashing for the sketches, spreading every input bit over the whole
+ * hash so that sketches can use both the high and the low bits.
+ */
+final class Hashing {
+  private Hashing() {
+    throw new UnsupportedOperationException("This class is not instantiable.");
+  }
+
+  /**
+   * The MurmurHash3 64 bit finalizer, a bijection with good avalanche.
+   */
+  static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  /**
+   * FNV-1a over the bytes, mixed.
+   */
+  static long hash(final byte[] bytes) {
+    long h = 0xcbf29ce484222325L;
+    for (final byte b : bytes) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    return mix(h);
+  }
+
+  /**
+   * FNV-1a over the UTF-16 code units, mixed.
+   */
+  static long hash(final CharSequence s) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < s.length(); i++) {
+      h ^= s.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return mix(h);
+  }
+}
@@ -0,0 +1,450 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+import io.atlassian.fugue.Monoid;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A merging t-digest estimating quantiles of the values added to it. Values are
+ * summarised as weighted centroids, kept small near the extremes and larger in
+ * the middle, so that extreme quantiles stay accurate. The number of centroids
+ * is bounded by about the compression, whatever the number of values.
+ * <p>
+ * Values are buffered and merged into the centroids once the buffer fills up or
+ * the digest is queried. Digests are mutable while values are added, and the
+ * {@link #monoid(double) monoid} merges them into new digests without modifying
+ * its arguments. Merging is only approximately associative, as merges of the
+ * same values in different orders can produce slightly different centroids.
+ * Digests are not thread safe.
+ *
+ * @see "Dunning and Ertl, Computing extremely accurate quantiles using
+ * t-digests, 2019"
+ * @since 5.0
+ */
+public final class TDigest {
+  /** Compression used by {@link #create()}. */
+  public static final double DEFAULT_COMPRESSION = 100;
+  private static final byte FORMAT = 1;
+  /** Bounds the buffer, which only sets how often values are merged. */
+  private static final int MAX_BUFFER_SIZE = 1 << 16;
+
+  private final double compression;
+
+  /** Centroids sorted by mean, and values and centroids waiting to be merged. */
+  private double[] means;
+  private double[] weights;
+  private int size = 0;
+  private int merged = 0;
+
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  private TDigest(final double compression, final int capacity) {
+    this.compression = compression;
+    this.means = new double[capacity];
+    this.weights = new double[capacity];
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * @return an empty digest of the default compression
+   */
+  public static TDigest create() {
+    return create(DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @param compression bounds the number of centroids, higher is more accurate,
+   * must be finite and at least 10
+   * @return an empty digest
+   */
+  public static TDigest create(final double compression) {
+    checkCompression(compression);
+    return new TDigest(compression, bufferSize(compression));
+  }
+
+  /**
+   * A monoid that merges digests into new digests of the given compression. Its
+   * zero is a new empty digest and its sum merges every digest into a single
+   * new one.
+   *
+   * @param compression the compression of the digests, must be finite and at
+   * least 10
+   * @return the monoid of digests
+   */
+  public static Monoid<TDigest> monoid(final double compression) {
+    checkCompression(compression);
+    return new Monoid<TDigest>() {
+      @Override public TDigest append(final TDigest t1, final TDigest t2) {
+        return zero().addAll(t1).addAll(t2);
+      }
+
+      @Override public TDigest zero() {
+        return create(compression);
+      }
+
+      @Override public TDigest sum(final Iterable<TDigest> ts) {
+        final TDigest result = zero();
+        for (final TDigest t : ts) {
+          result.addAll(t);
+        }
+        return result;
+      }
+    };
+  }
+
+  /**
+   * Reads a digest written by {@link #toBytes()}.
+   *
+   * @param bytes the serialized digest, must not be null
+   * @return the digest
+   * @throws IllegalArgumentException if the bytes are not a serialized digest
+   */
+  public static TDigest fromBytes(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (bytes.length < 29 || buffer.get() != FORMAT) {
+      throw new IllegalArgumentException("Not a serialized TDigest");
+    }
+    final double compression = buffer.getDouble();
+    final double min = buffer.getDouble();
+    final double max = buffer.getDouble();
+    final int centroids = buffer.getInt();
+    if (centroids < 0 || buffer.remaining() != 16L * centroids) {
+      throw new IllegalArgumentException("Not a serialized TDigest");
+    }
+    checkCompression(compression);
+    final TDigest result = new TDigest(compression, Math.max(centroids, bufferSize(compression)));
+    for (int i = 0; i < centroids; i++) {
+      result.means[i] = buffer.getDouble();
+      result.weights[i] = buffer.getDouble();
+    }
+    result.size = result.merged = centroids;
+    result.min = min;
+    result.max = max;
+    return result;
+  }
+
+  //
+  // updates
+  //
+
+  /**
+   * @param x the value to add, must not be NaN
+   * @return this digest
+   */
+  public TDigest add(final double x) {
+    return add(x, 1);
+  }
+
+  /**
+   * @param x the value to add, must not be NaN
+   * @param weight the number of times to add the value, must be positive
+   * @return this digest
+   */
+  public TDigest add(final double x, final double weight) {
+    if (Double.isNaN(x) || !(weight > 0)) {
+      throw new IllegalArgumentException("Cannot add NaN values or non positive weights");
+    }
+    if (size == means.length) {
+      compress();
+      if (size == means.length) {
+        means = Arrays.copyOf(means, size << 1);
+        weights = Arrays.copyOf(weights, size << 1);
+      }
+    }
+    means[size] = x;
+    weights[size] = weight;
+    size++;
+    min = Math.min(min, x);
+    max = Math.max(max, x);
+    return this;
+  }
+
+  /**
+   * Merges the centroids and buffered values of another digest into this one,
+   * without modifying the other digest.
+   *
+   * @param that the digest to merge, must not be null
+   * @return this digest
+   */
+  public TDigest addAll(final TDigest that) {
+    final int n = that.size;
+    // adding to this digest may merge its arrays as they are read
+    final double[] thatMeans = that == this ? Arrays.copyOf(means, n) : that.means;
+    final double[] thatWeights = that == this ? Arrays.copyOf(weights, n) : that.weights;
+    final double thatMin = that.min;
+    final double thatMax = that.max;
+    for (int i = 0; i < n; i++) {
+      add(thatMeans[i], thatWeights[i]);
+    }
+    min = Math.min(min, thatMin);
+    max = Math.max(max, thatMax);
+    return this;
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @return the total weight of the values added
+   */
+  public double count() {
+    double count = 0;
+    for (int i = 0; i < size; i++) {
+      count += weights[i];
+    }
+    return count;
+  }
+
+  /**
+   * Estimates the value below which the given fraction of the values fall,
+   * interpolating between the centres of centroids.
+   *
+   * @param q the fraction, from zero to one
+   * @return the estimated quantile, NaN if the digest is empty
+   */
+  public double quantile(final double q) {
+    if (!(q >= 0 && q <= 1)) {
+      throw new IllegalArgumentException("Quantile must be from zero to one");
+    }
+    compress();
+    if (size == 0) {
+      return Double.NaN;
+    }
+    if (size == 1) {
+      return means[0];
+    }
+    final double index = q * count();
+    // the first centroid's centre is at half its weight, below that head to min
+    if (index < weights[0] / 2) {
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+    double centre = weights[0] / 2;
+    for (int i = 0; i < size - 1; i++) {
+      final double next = centre + (weights[i] + weights[i + 1]) / 2;
+      if (index < next) {
+        return means[i] + (means[i + 1] - means[i]) * (index - centre) / (next - centre);
+      }
+      centre = next;
+    }
+    final double last = weights[size - 1] / 2;
+    return means[size - 1] + (max - means[size - 1]) * Math.min(1, (index - centre) / last);
+  }
+
+  /**
+   * @return the least value added, NaN if the digest is empty
+   */
+  public double min() {
+    return size == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * @return the greatest value added, NaN if the digest is empty
+   */
+  public double max() {
+    return size == 0 ? Double.NaN : max;
+  }
+
+  /**
+   * @return the number of centroids once merged
+   */
+  public int centroids() {
+    compress();
+    return size;
+  }
+
+  /**
+   * @return the digest as a format byte, the compression, min, max, the number
+   * of centroids and each centroid's mean and weight
+   */
+  public byte[] toBytes() {
+    compress();
+    final ByteBuffer buffer = ByteBuffer.allocate(29 + 16 * size).put(FORMAT).putDouble(compression).putDouble(min).putDouble(max).putInt(size);
+    for (int i = 0; i < size; i++) {
+      buffer.putDouble(means[i]).putDouble(weights[i]);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Digests are equal when they have the same compression and, once their
+   * buffered values are merged, the same centroids, min and max.
+   */
+  @Override public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof TDigest)) {
+      return false;
+    }
+    final TDigest that = (TDigest) o;
+    compress();
+    that.compress();
+    if (Double.compare(compression, that.compression) != 0 || size != that.size || Double.compare(min(), that.min()) != 0
+      || Double.compare(max(), that.max()) != 0) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (Double.compare(means[i], that.means[i]) != 0 || Double.compare(weights[i], that.weights[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    compress();
+    int result = Double.hashCode(compression);
+    for (int i = 0; i < size; i++) {
+      result = 31 * (31 * result + Double.hashCode(means[i])) + Double.hashCode(weights[i]);
+    }
+    return result;
+  }
+
+  @Override public String toString() {
+    return "TDigest(" + count() + ", median " + quantile(0.5) + ")";
+  }
+
+  //
+  // merging
+  //
+
+  /**
+   * Sorts the centroids and the buffered values by mean and merges neighbours
+   * while the merged centroid stays within one unit of the scale function
+   * {@code k(q) = compression * asin(2q - 1) / (2 pi)}, which allows small
+   * centroids near the tails and large ones near the median.
+   */
+  private void compress() {
+    if (merged == size) {
+      return;
+    }
+    sort();
+    double total = 0;
+    for (int i = 0; i < size; i++) {
+      total += weights[i];
+    }
+    int out = 0;
+    double soFar = 0;
+    double limit = total * inverseScale(scale(0) + 1);
+    for (int i = 1; i < size; i++) {
+      final double proposed = weights[out] + weights[i];
+      if (soFar + proposed <= limit) {
+        means[out] += (means[i] - means[out]) * weights[i] / proposed;
+        weights[out] = proposed;
+      } else {
+        soFar += weights[out];
+        limit = total * inverseScale(scale(soFar / total) + 1);
+        out++;
+        means[out] = means[i];
+        weights[out] = weights[i];
+      }
+    }
+    size = merged = out + 1;
+  }
+
+  private double scale(final double q) {
+    return compression * Math.asin(2 * q - 1) / (2 * Math.PI);
+  }
+
+  private double inverseScale(final double k) {
+    if (k >= compression / 4) {
+      return 1;
+    }
+    return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+  }
+
+  /**
+   * Sorts the buffered values and merges them with the already sorted
+   * centroids.
+   */
+  private void sort() {
+    sort(merged, size - 1);
+    final double[] sortedMeans = new double[means.length];
+    final double[] sortedWeights = new double[weights.length];
+    int i = 0;
+    int j = merged;
+    for (int k = 0; k < size; k++) {
+      final int next = (j == size || (i < merged && means[i] <= means[j])) ? i++ : j++;
+      sortedMeans[k] = means[next];
+      sortedWeights[k] = weights[next];
+    }
+    means = sortedMeans;
+    weights = sortedWeights;
+  }
+
+  /**
+   * Quicksorts the means and weights from {@code lo} to {@code hi} inclusive
+   * together, by mean.
+   */
+  private void sort(int lo, int hi) {
+    while (hi - lo >= 16) {
+      final double pivot = means[(lo + hi) >>> 1];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (means[i] < pivot) {
+          i++;
+        }
+        while (means[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+      // recurse into the smaller part to bound the stack
+      if (j - lo < hi - i) {
+        sort(lo, j);
+        lo = i;
+      } else {
+        sort(i, hi);
+        hi = j;
+      }
+    }
+    for (int i = lo + 1; i <= hi; i++) {
+      for (int j = i; j > lo && means[j - 1] > means[j]; j--) {
+        swap(j - 1, j);
+      }
+    }
+  }
+
+  private void swap(final int i, final int j) {
+    final double m = means[i];
+    means[i] = means[j];
+    means[j] = m;
+    final double w = weights[i];
+    weights[i] = weights[j];
+    weights[j] = w;
+  }
+
+  private static int bufferSize(final double compression) {
+    return (int) Math.min(Math.ceil(compression) * 5, MAX_BUFFER_SIZE);
+  }
+
+  private static void checkCompression(final double compression) {
+    if (!(compression >= 10 && compression < Double.POSITIVE_INFINITY)) {
+      throw new IllegalArgumentException("Compression must be finite and at least 10");
+    }
+  }
+}
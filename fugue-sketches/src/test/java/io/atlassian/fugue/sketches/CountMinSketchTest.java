@@ -0,0 +1,79 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+import io.atlassian.fugue.Monoid;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class CountMinSketchTest {
+
+  /** Item i is added i times. */
+  private static CountMinSketch skewed(final CountMinSketch sketch, final int items) {
+    for (int i = 0; i < items; i++) {
+      sketch.add(i, i);
+    }
+    return sketch;
+  }
+
+  @Test public void estimatesNeverUndercountAndStayWithinError() {
+    final CountMinSketch sketch = skewed(CountMinSketch.withError(0.001, 0.01), 2000);
+    final long total = sketch.totalCount();
+    for (int i = 0; i < 2000; i++) {
+      assertThat(sketch.estimate(i), greaterThanOrEqualTo((long) i));
+      assertThat(sketch.estimate(i), lessThanOrEqualTo(i + (long) (0.001 * total * 2)));
+    }
+  }
+
+  @Test public void heavyHitterStandsOut() {
+    final CountMinSketch sketch = CountMinSketch.create(4, 256);
+    for (int i = 0; i < 10000; i++) {
+      sketch.add("user" + (i % 500));
+      sketch.add("heavy");
+    }
+    assertThat(sketch.estimate("heavy"), greaterThanOrEqualTo(10000L));
+    assertThat(sketch.estimate("user7"), lessThanOrEqualTo(1000L));
+  }
+
+  @Test public void monoidAddsCounts() {
+    final Monoid<CountMinSketch> monoid = CountMinSketch.monoid(5, 100);
+    final CountMinSketch a = CountMinSketch.create(5, 100).add(1).add(2);
+    final CountMinSketch b = CountMinSketch.create(5, 100).add(2).add(3);
+    final CountMinSketch merged = monoid.append(a, b);
+    assertThat(merged, is(CountMinSketch.create(5, 100).add(1).add(2).add(2).add(3)));
+    assertThat(merged.totalCount(), is(4L));
+    assertThat(a.totalCount(), is(2L));
+    assertThat(monoid.sum(asList(a, b, a)).totalCount(), is(6L));
+  }
+
+  @Test public void bytesRoundTrip() {
+    final CountMinSketch sketch = skewed(CountMinSketch.create(3, 50), 100);
+    assertThat(CountMinSketch.fromBytes(sketch.toBytes()), is(sketch));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void mergeDifferentDimensions() {
+    CountMinSketch.create(3, 50).addAll(CountMinSketch.create(3, 51));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void negativeCount() {
+    CountMinSketch.create(3, 50).add(1, -1);
+  }
+}
@@ -0,0 +1,90 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+import io.atlassian.fugue.Monoid;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HyperLogLogTest {
+
+  private static HyperLogLog range(final long from, final long to) {
+    final HyperLogLog h = HyperLogLog.create();
+    for (long i = from; i < to; i++) {
+      h.add(i);
+    }
+    return h;
+  }
+
+  @Test public void emptyEstimatesZero() {
+    assertThat(HyperLogLog.create().estimate(), is(0L));
+  }
+
+  @Test public void smallCountsAreExactEnough() {
+    assertThat((double) range(0, 100).estimate(), closeTo(100, 2));
+  }
+
+  @Test public void estimateWithinError() {
+    assertThat((double) range(0, 1000000).estimate(), closeTo(1000000, 30000));
+  }
+
+  @Test public void duplicatesAreNotCounted() {
+    final HyperLogLog h = range(0, 1000);
+    for (int i = 0; i < 10; i++) {
+      h.add("item" + (i % 3));
+    }
+    assertThat((double) h.estimate(), closeTo(1003, 30));
+  }
+
+  @Test public void monoidMergesUnion() {
+    final Monoid<HyperLogLog> monoid = HyperLogLog.monoid(HyperLogLog.DEFAULT_PRECISION);
+    final HyperLogLog a = range(0, 60000);
+    final HyperLogLog b = range(40000, 100000);
+    final HyperLogLog merged = monoid.append(a, b);
+    assertThat(merged, is(range(0, 100000)));
+    assertThat(a, is(range(0, 60000)));
+    assertThat(monoid.append(monoid.zero(), a), is(a));
+  }
+
+  @Test public void sumEqualsFoldedAppend() {
+    final Monoid<HyperLogLog> monoid = HyperLogLog.monoid(HyperLogLog.DEFAULT_PRECISION);
+    final List<HyperLogLog> hs = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      hs.add(range(i * 1000, i * 1000 + 1500));
+    }
+    assertThat(monoid.sum(hs), is(range(0, 5500)));
+  }
+
+  @Test public void bytesRoundTrip() {
+    final HyperLogLog h = range(0, 5000);
+    assertThat(HyperLogLog.fromBytes(h.toBytes()), is(h));
+    assertThat(h.toBytes().length, is(2 + (1 << HyperLogLog.DEFAULT_PRECISION)));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void mergeDifferentPrecision() {
+    HyperLogLog.create(10).addAll(HyperLogLog.create(12));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void badBytes() {
+    HyperLogLog.fromBytes(new byte[] { 1, 4, 0 });
+  }
+}
@@ -0,0 +1,124 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue.sketches;
+
+import io.atlassian.fugue.Monoid;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class TDigestTest {
+
+  private static TDigest uniform(final long seed, final int n) {
+    final Random random = new Random(seed);
+    final TDigest digest = TDigest.create();
+    for (int i = 0; i < n; i++) {
+      digest.add(random.nextDouble());
+    }
+    return digest;
+  }
+
+  @Test public void emptyIsNaN() {
+    assertThat(Double.isNaN(TDigest.create().quantile(0.5)), is(true));
+  }
+
+  @Test public void singleValue() {
+    assertThat(TDigest.create().add(3).quantile(0.9), is(3.0));
+  }
+
+  @Test public void uniformQuantiles() {
+    final TDigest digest = uniform(1, 100000);
+    for (final double q : new double[] { 0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999 }) {
+      assertThat(digest.quantile(q), closeTo(q, 0.01));
+    }
+    assertThat(digest.count(), is(100000.0));
+    assertThat(digest.centroids(), lessThanOrEqualTo(200));
+  }
+
+  @Test public void extremesAreExact() {
+    final TDigest digest = uniform(2, 10000).add(-5).add(7);
+    assertThat(digest.quantile(0), is(-5.0));
+    assertThat(digest.quantile(1), is(7.0));
+  }
+
+  @Test public void skewedQuantiles() {
+    final Random random = new Random(3);
+    final TDigest digest = TDigest.create();
+    final List<Double> values = new ArrayList<>();
+    for (int i = 0; i < 50000; i++) {
+      final double x = Math.exp(random.nextGaussian());
+      values.add(x);
+      digest.add(x);
+    }
+    values.sort(Double::compare);
+    for (final double q : new double[] { 0.01, 0.5, 0.99 }) {
+      final double exact = values.get((int) (q * values.size()));
+      assertThat(digest.quantile(q), closeTo(exact, exact * 0.05));
+    }
+  }
+
+  @Test public void monoidMergesDigests() {
+    final Monoid<TDigest> monoid = TDigest.monoid(TDigest.DEFAULT_COMPRESSION);
+    final TDigest merged = monoid.sum(Arrays.asList(uniform(4, 30000), uniform(5, 30000), uniform(6, 30000)));
+    assertThat(merged.count(), is(90000.0));
+    assertThat(merged.quantile(0.5), closeTo(0.5, 0.01));
+    assertThat(merged.quantile(0.99), closeTo(0.99, 0.005));
+    assertThat(monoid.append(monoid.zero(), monoid.zero()).count(), is(0.0));
+  }
+
+  @Test public void addAllOfItselfDoublesTheWeights() {
+    final TDigest digest = uniform(8, 10000);
+    final TDigest copy = TDigest.create().addAll(digest);
+    digest.addAll(digest);
+    assertThat(digest.count(), is(20000.0));
+    assertThat(digest, is(TDigest.create().addAll(copy).addAll(copy)));
+    assertThat(digest.quantile(0.5), closeTo(0.5, 0.01));
+  }
+
+  @Test public void bytesRoundTrip() {
+    final TDigest digest = uniform(7, 10000);
+    final TDigest read = TDigest.fromBytes(digest.toBytes());
+    assertThat(read.quantile(0.3), is(digest.quantile(0.3)));
+    assertThat(read.count(), is(digest.count()));
+    assertThat(read.centroids(), is(digest.centroids()));
+    assertThat(read, is(digest));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void nanCompressionIsNotRead() {
+    final byte[] bytes = TDigest.create().add(1).toBytes();
+    ByteBuffer.wrap(bytes).putDouble(1, Double.NaN);
+    TDigest.fromBytes(bytes);
+  }
+
+  @Test public void hugeCompressionIsReadWithABoundedBuffer() {
+    final byte[] bytes = TDigest.create().add(1).toBytes();
+    ByteBuffer.wrap(bytes).putDouble(1, 1e300);
+    assertThat(TDigest.fromBytes(bytes).add(2).quantile(1), is(2.0));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void nanIsRejected() {
+    TDigest.create().add(Double.NaN);
+  }
+}
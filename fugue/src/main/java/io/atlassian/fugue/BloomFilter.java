@@ -0,0 +1,256 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A Bloom filter, a compact set that answers whether it might contain an
+ * element. There are no false negatives: if {@link #mightContain(Object)} is
+ * false the element was never added. The chance of a false positive is about
+ * the probability the filter was sized for, as long as no more elements than
+ * expected are added.
+ * <p>
+ * Elements are hashed with their {@link Object#hashCode() hashCode} unless a 64
+ * bit hash function is given. The hash is mixed and split into two halves that
+ * are combined to pick each of the bits, so adding and testing do not allocate.
+ * <p>
+ * Filters are mutable while elements are added, and are merged by OR-ing their
+ * bits, which the {@link #monoid(int, double) monoid} does without modifying
+ * its arguments. Reading concurrently is safe, adding concurrently is not.
+ *
+ * @param <A> the element type
+ * @see Functions#forMap(java.util.Map, BloomFilter)
+ * @since 5.0
+ */
+public final class BloomFilter<A> {
+  private final long[] bits;
+  private final int hashes;
+  private final ToLongFunction<? super A> hash;
+
+  private BloomFilter(final long[] bits, final int hashes, final ToLongFunction<? super A> hash) {
+    this.bits = bits;
+    this.hashes = hashes;
+    this.hash = hash;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * Creates a filter sized for the given number of elements and false positive
+   * probability, hashing elements with their hashCode.
+   *
+   * @param <A> the element type
+   * @param expectedElements the number of elements expected, must be positive
+   * @param falsePositiveProbability the acceptable rate of false positives,
+   * between zero and one
+   * @return an empty filter
+   */
+  public static <A> BloomFilter<A> create(final int expectedElements, final double falsePositiveProbability) {
+    return create(expectedElements, falsePositiveProbability, a -> Objects.hashCode(a));
+  }
+
+  /**
+   * Creates a filter sized for the given number of elements and false positive
+   * probability, hashing elements with the given function.
+   *
+   * @param <A> the element type
+   * @param expectedElements the number of elements expected, must be positive
+   * @param falsePositiveProbability the acceptable rate of false positives,
+   * between zero and one
+   * @param hash hashes elements, must not be null
+   * @return an empty filter
+   */
+  public static <A> BloomFilter<A> create(final int expectedElements, final double falsePositiveProbability, final ToLongFunction<? super A> hash) {
+    if (expectedElements <= 0) {
+      throw new IllegalArgumentException("Expected elements must be positive");
+    }
+    if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+      throw new IllegalArgumentException("False positive probability must be between zero and one");
+    }
+    final double ln2 = Math.log(2);
+    final long bits = (long) Math.ceil(-expectedElements * Math.log(falsePositiveProbability) / (ln2 * ln2));
+    final int words = (int) Math.min((bits + 63) >>> 6, Integer.MAX_VALUE >>> 6);
+    final int hashes = (int) Math.max(1, Math.round((double) (words << 6) / expectedElements * ln2));
+    return new BloomFilter<>(new long[words], hashes, requireNonNull(hash));
+  }
+
+  /**
+   * A monoid that unions filters of the given sizing into new filters. Its zero
+   * is a new empty filter, and its sum ORs every filter into a single new one.
+   *
+   * @param <A> the element type
+   * @param expectedElements the number of elements expected, must be positive
+   * @param falsePositiveProbability the acceptable rate of false positives,
+   * between zero and one
+   * @return the monoid of filters of the sizing
+   */
+  public static <A> Monoid<BloomFilter<A>> monoid(final int expectedElements, final double falsePositiveProbability) {
+    return monoid(BloomFilter.<A> create(expectedElements, falsePositiveProbability));
+  }
+
+  /**
+   * A monoid that unions filters of the given sizing and hash into new filters.
+   *
+   * @param <A> the element type
+   * @param expectedElements the number of elements expected, must be positive
+   * @param falsePositiveProbability the acceptable rate of false positives,
+   * between zero and one
+   * @param hash hashes elements, must not be null
+   * @return the monoid of filters of the sizing
+   */
+  public static <A> Monoid<BloomFilter<A>> monoid(final int expectedElements, final double falsePositiveProbability,
+    final ToLongFunction<? super A> hash) {
+    return monoid(create(expectedElements, falsePositiveProbability, hash));
+  }
+
+  private static <A> Monoid<BloomFilter<A>> monoid(final BloomFilter<A> empty) {
+    return new Monoid<BloomFilter<A>>() {
+      @Override public BloomFilter<A> append(final BloomFilter<A> b1, final BloomFilter<A> b2) {
+        return zero().addAll(b1).addAll(b2);
+      }
+
+      @Override public BloomFilter<A> zero() {
+        return new BloomFilter<>(new long[empty.bits.length], empty.hashes, empty.hash);
+      }
+
+      @Override public BloomFilter<A> sum(final Iterable<BloomFilter<A>> bs) {
+        final BloomFilter<A> result = zero();
+        for (final BloomFilter<A> b : bs) {
+          result.addAll(b);
+        }
+        return result;
+      }
+    };
+  }
+
+  //
+  // updates
+  //
+
+  /**
+   * @param a the element to add
+   * @return this filter
+   */
+  public BloomFilter<A> add(final A a) {
+    final long h = mix(hash.applyAsLong(a));
+    final int h1 = (int) h;
+    final int h2 = (int) (h >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      final int bit = index(h1 + i * h2);
+      bits[bit >>> 6] |= 1L << bit;
+    }
+    return this;
+  }
+
+  /**
+   * Adds every element of another filter to this one.
+   *
+   * @param that a filter of the same size and number of hashes, hashing
+   * elements the same way, must not be null
+   * @return this filter
+   */
+  public BloomFilter<A> addAll(final BloomFilter<? extends A> that) {
+    if (that.bits.length != bits.length || that.hashes != hashes) {
+      throw new IllegalArgumentException("Cannot merge filters of different sizes");
+    }
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] |= that.bits[i];
+    }
+    return this;
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @param a the element to test
+   * @return false if the element was definitely never added, true if it might
+   * have been
+   */
+  public boolean mightContain(final A a) {
+    final long h = mix(hash.applyAsLong(a));
+    final int h1 = (int) h;
+    final int h2 = (int) (h >>> 32);
+    for (int i = 0; i < hashes; i++) {
+      final int bit = index(h1 + i * h2);
+      if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of bits in the filter
+   */
+  public int size() {
+    return bits.length << 6;
+  }
+
+  /**
+   * @return the number of bits set for each element
+   */
+  public int hashes() {
+    return hashes;
+  }
+
+  @Override public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BloomFilter)) {
+      return false;
+    }
+    final BloomFilter<?> that = (BloomFilter<?>) o;
+    return hashes == that.hashes && Arrays.equals(bits, that.bits);
+  }
+
+  @Override public int hashCode() {
+    return 31 * hashes + Arrays.hashCode(bits);
+  }
+
+  @Override public String toString() {
+    return "BloomFilter(" + size() + " bits, " + hashes + " hashes)";
+  }
+
+  /**
+   * Maps a hash onto a bit by multiplying rather than with a division.
+   */
+  private int index(final int combined) {
+    return (int) (((combined & 0xffffffffL) * size()) >>> 32);
+  }
+
+  /**
+   * The MurmurHash3 64 bit finalizer, so that both halves depend on every bit
+   * of the hash.
+   */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,286 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Accumulates values appended from many threads into a single {@link Monoid}
+ * value without a shared point of contention.
+ * <p>
+ * Values are appended to one of a number of cells, picked per thread and spread
+ * out when threads collide, in the same way as a {@link LongAdder}. Each cell
+ * is padded to a cache line of its own, so threads appending to neighbouring
+ * cells do not contend on a shared line. {@link #get()} appends the cells
+ * together. As values from different threads end up in different cells, the
+ * order in which they are appended is unspecified, so the result is only
+ * deterministic for a commutative monoid.
+ * <p>
+ * Accumulators of {@link Monoids#intAddition} and {@link Monoids#longAddition}
+ * are backed by a {@link LongAdder} and do not box.
+ *
+ * @param <A> the type of the accumulated value
+ * @since 5.0
+ */
+public abstract class ConcurrentMonoidAccumulator<A> {
+
+  /**
+   * Creates an accumulator that starts from the monoid's zero.
+   *
+   * @param monoid the monoid to append values with, must not be null
+   * @param <A> the type of the accumulated value
+   * @return a new accumulator
+   */
+  public static <A> ConcurrentMonoidAccumulator<A> of(final Monoid<A> monoid) {
+    requireNonNull(monoid);
+    if (monoid == Monoids.intAddition) {
+      @SuppressWarnings("unchecked")
+      final ConcurrentMonoidAccumulator<A> ints = (ConcurrentMonoidAccumulator<A>) new IntAddition();
+      return ints;
+    }
+    if (monoid == Monoids.longAddition) {
+      @SuppressWarnings("unchecked")
+      final ConcurrentMonoidAccumulator<A> longs = (ConcurrentMonoidAccumulator<A>) new LongAddition();
+      return longs;
+    }
+    return new Striped<>(monoid);
+  }
+
+  ConcurrentMonoidAccumulator() {}
+
+  /**
+   * Appends a value to the accumulated value.
+   *
+   * @param a the value to append, must not be null
+   */
+  public abstract void accumulate(A a);
+
+  /**
+   * Returns the sum of the values accumulated so far. Values accumulated
+   * concurrently with this call may or may not be included.
+   *
+   * @return the accumulated value
+   */
+  public abstract A get();
+
+  /**
+   * Resets the accumulated value to the monoid's zero. This is only reliable
+   * when there are no concurrent calls to {@link #accumulate(Object)}.
+   */
+  public abstract void reset();
+
+  @Override public String toString() {
+    return "ConcurrentMonoidAccumulator(" + get() + ")";
+  }
+
+  //
+  // implementations
+  //
+
+  static final class IntAddition extends ConcurrentMonoidAccumulator<Integer> {
+    private final LongAdder adder = new LongAdder();
+
+    @Override public void accumulate(final Integer a) {
+      adder.add(a);
+    }
+
+    /**
+     * Narrowing the long sum wraps around exactly as adding the ints would.
+     */
+    @Override public Integer get() {
+      return (int) adder.sum();
+    }
+
+    @Override public void reset() {
+      adder.reset();
+    }
+  }
+
+  static final class LongAddition extends ConcurrentMonoidAccumulator<Long> {
+    private final LongAdder adder = new LongAdder();
+
+    @Override public void accumulate(final Long a) {
+      adder.add(a);
+    }
+
+    @Override public Long get() {
+      return adder.sum();
+    }
+
+    @Override public void reset() {
+      adder.reset();
+    }
+  }
+
+  static final class Striped<A> extends ConcurrentMonoidAccumulator<A> {
+    private static final int MAX_CELLS = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger SEEDER = new AtomicInteger();
+
+    /**
+     * Each thread's cell index hash, changed whenever the thread collides with
+     * another on a cell.
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+      final int seed = SEEDER.addAndGet(0x9e3779b9);
+      return new int[] { seed == 0 ? 1 : seed };
+    });
+
+    private final Monoid<A> monoid;
+    private final Cell<A> base;
+    private volatile Cell<A>[] cells;
+
+    Striped(final Monoid<A> monoid) {
+      this.monoid = monoid;
+      this.base = new Cell<>(monoid.zero());
+    }
+
+    @Override public void accumulate(final A a) {
+      requireNonNull(a);
+      Cell<A>[] cs = cells;
+      if (cs == null) {
+        if (base.append(monoid, a)) {
+          return;
+        }
+        cs = grow(null);
+      }
+      final int[] probe = PROBE.get();
+      boolean collided = false;
+      while (true) {
+        final Cell<A> cell = cs[probe[0] & (cs.length - 1)];
+        if (cell.append(monoid, a)) {
+          return;
+        }
+        // move to another cell, and add cells if that collides as well
+        probe[0] = xorShift(probe[0]);
+        if (collided && cs.length < MAX_CELLS) {
+          cs = grow(cs);
+          collided = false;
+        } else {
+          cs = cells;
+          collided = true;
+        }
+      }
+    }
+
+    /**
+     * Doubles the cells unless another thread already replaced them, keeping
+     * the existing cells so no appended value is lost.
+     */
+    private synchronized Cell<A>[] grow(final Cell<A>[] seen) {
+      final Cell<A>[] cs = cells;
+      if (cs != seen) {
+        return cs;
+      }
+      final int n = (cs == null) ? 2 : cs.length << 1;
+      @SuppressWarnings("unchecked")
+      final Cell<A>[] grown = (Cell<A>[]) new Cell<?>[n];
+      int i = 0;
+      if (cs != null) {
+        for (; i < cs.length; i++) {
+          grown[i] = cs[i];
+        }
+      }
+      for (; i < n; i++) {
+        grown[i] = new Cell<>(monoid.zero());
+      }
+      cells = grown;
+      return grown;
+    }
+
+    @Override public A get() {
+      A sum = base.get();
+      final Cell<A>[] cs = cells;
+      if (cs != null) {
+        for (final Cell<A> cell : cs) {
+          sum = monoid.append(sum, cell.get());
+        }
+      }
+      return sum;
+    }
+
+    @Override public void reset() {
+      base.set(monoid.zero());
+      final Cell<A>[] cs = cells;
+      if (cs != null) {
+        for (final Cell<A> cell : cs) {
+          cell.set(monoid.zero());
+        }
+      }
+    }
+
+    private static int xorShift(int h) {
+      h ^= h << 13;
+      h ^= h >>> 17;
+      h ^= h << 5;
+      return h;
+    }
+
+    private static int ceilingPowerOfTwo(final int n) {
+      return (n <= 2) ? 2 : Integer.highestOneBit(n - 1) << 1;
+    }
+  }
+
+  /**
+   * Padding ahead of the value of a {@link Cell}, so that cells allocated one
+   * after another do not share a cache line.
+   */
+  static class CellPadding {
+    long p1, p2, p3, p4, p5, p6, p7;
+  }
+
+  static class CellValue<A> extends CellPadding {
+    volatile A value;
+  }
+
+  /**
+   * A value padded on both sides to a cache line of its own, as
+   * {@code @Contended} does for the cells of a {@link LongAdder}. Fields of a
+   * subclass are laid out after those of its superclass, so the padding ahead
+   * of the value lives in a superclass.
+   */
+  static final class Cell<A> extends CellValue<A> {
+    @SuppressWarnings("rawtypes") private static final AtomicReferenceFieldUpdater<CellValue, Object> VALUE = AtomicReferenceFieldUpdater.newUpdater(
+      CellValue.class, Object.class, "value");
+
+    long q1, q2, q3, q4, q5, q6, q7;
+
+    Cell(final A a) {
+      value = a;
+    }
+
+    A get() {
+      return value;
+    }
+
+    void set(final A a) {
+      value = a;
+    }
+
+    /**
+     * Makes a single attempt to append to the cell, failing if another thread
+     * changed it in the meantime.
+     */
+    boolean append(final Monoid<A> monoid, final A a) {
+      final A current = value;
+      return VALUE.compareAndSet(this, current, monoid.append(current, a));
+    }
+  }
+}
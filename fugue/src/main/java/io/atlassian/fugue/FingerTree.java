@@ -0,0 +1,970 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static io.atlassian.fugue.Iterables.makeString;
+import static io.atlassian.fugue.Pair.pair;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, persistent 2-3 finger tree annotated with a {@link Monoid}
+ * measure.
+ * <p>
+ * Every element has a measure, and every subtree caches the sum of the measures
+ * of its elements, so {@link #measure()} is constant time.
+ * {@link #prepend(Object) prepend}, {@link #append(Object) append},
+ * {@link #head() head}, {@link #last() last}, {@link #tail() tail} and
+ * {@link #init() init} are amortised O(1), {@link #concat(FingerTree) concat}
+ * is O(log min(n, m)), and {@link #split(Predicate) split} and
+ * {@link #find(Predicate) find} are O(log n).
+ * <p>
+ * Searching relies on the predicate being monotone over the accumulated
+ * measure: false for every prefix up to some element and true from then on. The
+ * choice of measure gives the tree its use; {@link IndexedSeq} measures sizes,
+ * {@link PriorityQueue} measures the least element and {@link RangeIndex}
+ * measures the greatest key along with a sum of values.
+ * <p>
+ * Finger trees do not accept null elements.
+ *
+ * @param <V> the measure type
+ * @param <A> the element type
+ * @see "Hinze and Paterson, Finger trees: a simple general-purpose data
+ * structure, 2006"
+ * @since 5.0
+ */
+public abstract class FingerTree<V, A> implements Iterable<A> {
+  final Measured<V, A> measured;
+
+  FingerTree(final Measured<V, A> measured) {
+    this.measured = measured;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * The empty finger tree for the given measure.
+   *
+   * @param <V> the measure type
+   * @param <A> the element type
+   * @param monoid combines the measures of elements, must not be null
+   * @param measure measures an element, must not be null
+   * @return an empty finger tree
+   */
+  public static <V, A> FingerTree<V, A> empty(final Monoid<V> monoid, final Function<? super A, ? extends V> measure) {
+    return new Empty<>(new Measured<>(requireNonNull(monoid), requireNonNull(measure)));
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @return true if this tree contains no elements
+   */
+  public abstract boolean isEmpty();
+
+  /**
+   * @return the sum of the measures of all elements, zero if empty
+   */
+  public abstract V measure();
+
+  /**
+   * @return the first element, or none if the tree is empty
+   */
+  public final Option<A> head() {
+    return isEmpty() ? Option.none() : Option.some(first());
+  }
+
+  /**
+   * @return the last element, or none if the tree is empty
+   */
+  public final Option<A> last() {
+    return isEmpty() ? Option.none() : Option.some(lastElement());
+  }
+
+  /**
+   * Finds the first element at which the predicate becomes true for the sum of
+   * the measures up to and including that element, without building any new
+   * trees.
+   *
+   * @param p a monotone predicate on accumulated measures, must not be null
+   * @return the element, or none if the predicate is false for the whole tree
+   */
+  public final Option<A> find(final Predicate<? super V> p) {
+    if (isEmpty() || !p.test(measure())) {
+      return Option.none();
+    }
+    return Option.some(lookup(p, measured.monoid.zero()).right());
+  }
+
+  //
+  // modifications
+  //
+
+  /**
+   * Returns a tree with the element added to the front.
+   *
+   * @param a the element to add, must not be null
+   * @return a new tree one element longer than this one
+   */
+  public abstract FingerTree<V, A> prepend(A a);
+
+  /**
+   * Returns a tree with the element added to the end.
+   *
+   * @param a the element to add, must not be null
+   * @return a new tree one element longer than this one
+   */
+  public abstract FingerTree<V, A> append(A a);
+
+  /**
+   * @return the tree without its first element, empty if the tree is empty
+   */
+  public abstract FingerTree<V, A> tail();
+
+  /**
+   * @return the tree without its last element, empty if the tree is empty
+   */
+  public abstract FingerTree<V, A> init();
+
+  /**
+   * Returns a tree with the elements of this tree followed by the elements of
+   * {@code that}, which must be measured the same way as this tree.
+   *
+   * @param that the tree to append, must not be null
+   * @return the concatenation of the two trees
+   */
+  public final FingerTree<V, A> concat(final FingerTree<V, A> that) {
+    return concat(this, Collections.emptyList(), requireNonNull(that));
+  }
+
+  /**
+   * Splits this tree at the first element at which the predicate becomes true
+   * for the sum of the measures up to and including that element. That element
+   * is the first one of the right tree. If the predicate is false for the whole
+   * tree, the right tree is empty.
+   *
+   * @param p a monotone predicate on accumulated measures, must not be null
+   * @return the trees before and from the split point
+   */
+  public final Pair<FingerTree<V, A>, FingerTree<V, A>> split(final Predicate<? super V> p) {
+    requireNonNull(p);
+    if (isEmpty() || !p.test(measure())) {
+      return pair(this, new Empty<>(measured));
+    }
+    final Split<FingerTree<V, A>, A> split = splitTree(p, measured.monoid.zero());
+    return pair(split.left, split.right.prepend(split.x));
+  }
+
+  @Override public String toString() {
+    return makeString(this, "[", ", ", "]");
+  }
+
+  //
+  // internals
+  //
+
+  abstract A first();
+
+  abstract A lastElement();
+
+  /**
+   * Splits a non empty tree around the element at which the predicate becomes
+   * true, starting from the accumulated measure {@code i}.
+   */
+  abstract Split<FingerTree<V, A>, A> splitTree(Predicate<? super V> p, V i);
+
+  /**
+   * Finds the element at which the predicate becomes true in a non empty tree,
+   * paired with the accumulated measure before it.
+   */
+  abstract Pair<V, A> lookup(Predicate<? super V> p, V i);
+
+  static <V, A> FingerTree<V, A> concat(final FingerTree<V, A> left, final List<A> middle, final FingerTree<V, A> right) {
+    if (left.isEmpty()) {
+      FingerTree<V, A> result = right;
+      for (int i = middle.size() - 1; i >= 0; i--) {
+        result = result.prepend(middle.get(i));
+      }
+      return result;
+    }
+    if (right.isEmpty()) {
+      FingerTree<V, A> result = left;
+      for (final A a : middle) {
+        result = result.append(a);
+      }
+      return result;
+    }
+    if (left instanceof Single) {
+      return concat(new Empty<>(left.measured), middle, right).prepend(left.first());
+    }
+    if (right instanceof Single) {
+      return concat(left, middle, new Empty<>(right.measured)).append(right.first());
+    }
+    final Deep<V, A> l = (Deep<V, A>) left;
+    final Deep<V, A> r = (Deep<V, A>) right;
+    final List<A> seam = new ArrayList<>(l.suffix.size() + middle.size() + r.prefix.size());
+    l.suffix.forEach(seam::add);
+    seam.addAll(middle);
+    r.prefix.forEach(seam::add);
+    return new Deep<>(l.measured, l.prefix, concat(l.middle, nodes(l.measured, seam), r.middle), r.suffix);
+  }
+
+  /**
+   * Packs between 2 and 12 elements into nodes of 2 or 3.
+   */
+  static <V, A> List<Node<V, A>> nodes(final Measured<V, A> m, final List<A> as) {
+    final List<Node<V, A>> result = new ArrayList<>(4);
+    int i = 0;
+    while (as.size() - i > 4) {
+      result.add(m.node(as.get(i), as.get(i + 1), as.get(i + 2)));
+      i += 3;
+    }
+    switch (as.size() - i) {
+      case 2:
+        result.add(m.node(as.get(i), as.get(i + 1)));
+        break;
+      case 3:
+        result.add(m.node(as.get(i), as.get(i + 1), as.get(i + 2)));
+        break;
+      default:
+        result.add(m.node(as.get(i), as.get(i + 1)));
+        result.add(m.node(as.get(i + 2), as.get(i + 3)));
+    }
+    return result;
+  }
+
+  /**
+   * A deep tree from a possibly empty prefix, borrowing from the middle or
+   * falling back to the suffix when the prefix is empty.
+   */
+  static <V, A> FingerTree<V, A> deepLeft(final Measured<V, A> m, final Node<V, A> prefix, final FingerTree<V, Node<V, A>> middle,
+    final Node<V, A> suffix) {
+    if (prefix.size() > 0) {
+      return new Deep<>(m, prefix, middle, suffix);
+    }
+    if (middle.isEmpty()) {
+      return suffix.toTree(m);
+    }
+    return new Deep<>(m, middle.first(), middle.tail(), suffix);
+  }
+
+  /**
+   * A deep tree from a possibly empty suffix, borrowing from the middle or
+   * falling back to the prefix when the suffix is empty.
+   */
+  static <V, A> FingerTree<V, A> deepRight(final Measured<V, A> m, final Node<V, A> prefix, final FingerTree<V, Node<V, A>> middle,
+    final Node<V, A> suffix) {
+    if (suffix.size() > 0) {
+      return new Deep<>(m, prefix, middle, suffix);
+    }
+    if (middle.isEmpty()) {
+      return prefix.toTree(m);
+    }
+    return new Deep<>(m, prefix, middle.init(), middle.lastElement());
+  }
+
+  /**
+   * A measure for the elements of a tree, and for the nodes of the next level
+   * down.
+   */
+  static final class Measured<V, A> {
+    final Monoid<V> monoid;
+    private final Function<? super A, ? extends V> measure;
+    private Measured<V, Node<V, A>> nodes;
+
+    Measured(final Monoid<V> monoid, final Function<? super A, ? extends V> measure) {
+      this.monoid = monoid;
+      this.measure = measure;
+    }
+
+    V measure(final A a) {
+      return measure.apply(a);
+    }
+
+    V append(final V v1, final V v2) {
+      return monoid.append(v1, v2);
+    }
+
+    /**
+     * Racing threads may each create the nodes measure, which is harmless.
+     */
+    Measured<V, Node<V, A>> nodes() {
+      Measured<V, Node<V, A>> result = nodes;
+      if (result == null) {
+        result = nodes = new Measured<>(monoid, Node::measure);
+      }
+      return result;
+    }
+
+    Node<V, A> node(final Object... as) {
+      V v = monoid.zero();
+      for (final Object a : as) {
+        @SuppressWarnings("unchecked")
+        final A element = (A) a;
+        v = monoid.append(v, measure(element));
+      }
+      return new Node<>(v, as);
+    }
+  }
+
+  /**
+   * Up to four elements with their cached measure, used both as the digits at
+   * either end of a deep tree and as the 2-3 nodes of the levels below it.
+   */
+  static final class Node<V, A> implements Iterable<A> {
+    private final V measure;
+    private final Object[] as;
+
+    Node(final V measure, final Object[] as) {
+      this.measure = measure;
+      this.as = as;
+    }
+
+    V measure() {
+      return measure;
+    }
+
+    int size() {
+      return as.length;
+    }
+
+    A get(final int i) {
+      @SuppressWarnings("unchecked")
+      final A a = (A) as[i];
+      return a;
+    }
+
+    Node<V, A> prepend(final Measured<V, A> m, final A a) {
+      final Object[] result = new Object[as.length + 1];
+      result[0] = a;
+      System.arraycopy(as, 0, result, 1, as.length);
+      return new Node<>(m.append(m.measure(a), measure), result);
+    }
+
+    Node<V, A> append(final Measured<V, A> m, final A a) {
+      final Object[] result = Arrays.copyOf(as, as.length + 1);
+      result[as.length] = a;
+      return new Node<>(m.append(measure, m.measure(a)), result);
+    }
+
+    Node<V, A> slice(final Measured<V, A> m, final int from, final int to) {
+      return m.node(Arrays.copyOfRange(as, from, to));
+    }
+
+    FingerTree<V, A> toTree(final Measured<V, A> m) {
+      FingerTree<V, A> result = new Empty<>(m);
+      for (final Object a : as) {
+        @SuppressWarnings("unchecked")
+        final A element = (A) a;
+        result = result.append(element);
+      }
+      return result;
+    }
+
+    Split<Node<V, A>, A> split(final Measured<V, A> m, final Predicate<? super V> p, final V i) {
+      V acc = i;
+      int k = 0;
+      for (; k < as.length - 1; k++) {
+        acc = m.append(acc, m.measure(get(k)));
+        if (p.test(acc)) {
+          break;
+        }
+      }
+      return new Split<>(slice(m, 0, k), get(k), slice(m, k + 1, as.length));
+    }
+
+    Pair<V, A> lookup(final Measured<V, A> m, final Predicate<? super V> p, final V i) {
+      V acc = i;
+      for (int k = 0; k < as.length - 1; k++) {
+        final V next = m.append(acc, m.measure(get(k)));
+        if (p.test(next)) {
+          return pair(acc, get(k));
+        }
+        acc = next;
+      }
+      return pair(acc, get(as.length - 1));
+    }
+
+    @Override public Iterator<A> iterator() {
+      @SuppressWarnings("unchecked")
+      final List<A> list = (List<A>) Arrays.asList(as);
+      return Collections.unmodifiableList(list).iterator();
+    }
+  }
+
+  static final class Split<T, A> {
+    final T left;
+    final A x;
+    final T right;
+
+    Split(final T left, final A x, final T right) {
+      this.left = left;
+      this.x = x;
+      this.right = right;
+    }
+  }
+
+  static final class Empty<V, A> extends FingerTree<V, A> {
+    Empty(final Measured<V, A> measured) {
+      super(measured);
+    }
+
+    @Override public boolean isEmpty() {
+      return true;
+    }
+
+    @Override public V measure() {
+      return measured.monoid.zero();
+    }
+
+    @Override public FingerTree<V, A> prepend(final A a) {
+      return new Single<>(measured, requireNonNull(a));
+    }
+
+    @Override public FingerTree<V, A> append(final A a) {
+      return new Single<>(measured, requireNonNull(a));
+    }
+
+    @Override public FingerTree<V, A> tail() {
+      return this;
+    }
+
+    @Override public FingerTree<V, A> init() {
+      return this;
+    }
+
+    @Override A first() {
+      throw new NoSuchElementException("Empty finger tree has no elements");
+    }
+
+    @Override A lastElement() {
+      throw new NoSuchElementException("Empty finger tree has no elements");
+    }
+
+    @Override Split<FingerTree<V, A>, A> splitTree(final Predicate<? super V> p, final V i) {
+      throw new IllegalStateException("Cannot split an empty finger tree");
+    }
+
+    @Override Pair<V, A> lookup(final Predicate<? super V> p, final V i) {
+      throw new IllegalStateException("Cannot search an empty finger tree");
+    }
+
+    @Override public Iterator<A> iterator() {
+      return Collections.emptyIterator();
+    }
+  }
+
+  static final class Single<V, A> extends FingerTree<V, A> {
+    private final A a;
+    private final V measure;
+
+    Single(final Measured<V, A> measured, final A a) {
+      super(measured);
+      this.a = a;
+      this.measure = measured.measure(a);
+    }
+
+    @Override public boolean isEmpty() {
+      return false;
+    }
+
+    @Override public V measure() {
+      return measure;
+    }
+
+    @Override public FingerTree<V, A> prepend(final A b) {
+      return new Deep<>(measured, measured.node(requireNonNull(b)), new Empty<>(measured.nodes()), measured.node(a));
+    }
+
+    @Override public FingerTree<V, A> append(final A b) {
+      return new Deep<>(measured, measured.node(a), new Empty<>(measured.nodes()), measured.node(requireNonNull(b)));
+    }
+
+    @Override public FingerTree<V, A> tail() {
+      return new Empty<>(measured);
+    }
+
+    @Override public FingerTree<V, A> init() {
+      return new Empty<>(measured);
+    }
+
+    @Override A first() {
+      return a;
+    }
+
+    @Override A lastElement() {
+      return a;
+    }
+
+    @Override Split<FingerTree<V, A>, A> splitTree(final Predicate<? super V> p, final V i) {
+      return new Split<>(new Empty<>(measured), a, new Empty<>(measured));
+    }
+
+    @Override Pair<V, A> lookup(final Predicate<? super V> p, final V i) {
+      return pair(i, a);
+    }
+
+    @Override public Iterator<A> iterator() {
+      return Collections.singletonList(a).iterator();
+    }
+  }
+
+  static final class Deep<V, A> extends FingerTree<V, A> {
+    private final V measure;
+    final Node<V, A> prefix;
+    final FingerTree<V, Node<V, A>> middle;
+    final Node<V, A> suffix;
+
+    Deep(final Measured<V, A> measured, final Node<V, A> prefix, final FingerTree<V, Node<V, A>> middle, final Node<V, A> suffix) {
+      super(measured);
+      this.prefix = prefix;
+      this.middle = middle;
+      this.suffix = suffix;
+      this.measure = measured.append(measured.append(prefix.measure(), middle.measure()), suffix.measure());
+    }
+
+    @Override public boolean isEmpty() {
+      return false;
+    }
+
+    @Override public V measure() {
+      return measure;
+    }
+
+    @Override public FingerTree<V, A> prepend(final A a) {
+      requireNonNull(a);
+      if (prefix.size() < 4) {
+        return new Deep<>(measured, prefix.prepend(measured, a), middle, suffix);
+      }
+      return new Deep<>(measured, measured.node(a, prefix.get(0)), middle.prepend(measured.node(prefix.get(1), prefix.get(2), prefix.get(3))), suffix);
+    }
+
+    @Override public FingerTree<V, A> append(final A a) {
+      requireNonNull(a);
+      if (suffix.size() < 4) {
+        return new Deep<>(measured, prefix, middle, suffix.append(measured, a));
+      }
+      return new Deep<>(measured, prefix, middle.append(measured.node(suffix.get(0), suffix.get(1), suffix.get(2))), measured.node(suffix.get(3), a));
+    }
+
+    @Override public FingerTree<V, A> tail() {
+      return deepLeft(measured, prefix.slice(measured, 1, prefix.size()), middle, suffix);
+    }
+
+    @Override public FingerTree<V, A> init() {
+      return deepRight(measured, prefix, middle, suffix.slice(measured, 0, suffix.size() - 1));
+    }
+
+    @Override A first() {
+      return prefix.get(0);
+    }
+
+    @Override A lastElement() {
+      return suffix.get(suffix.size() - 1);
+    }
+
+    @Override Split<FingerTree<V, A>, A> splitTree(final Predicate<? super V> p, final V i) {
+      final V beforeMiddle = measured.append(i, prefix.measure());
+      if (p.test(beforeMiddle)) {
+        final Split<Node<V, A>, A> split = prefix.split(measured, p, i);
+        return new Split<>(split.left.toTree(measured), split.x, deepLeft(measured, split.right, middle, suffix));
+      }
+      final V beforeSuffix = measured.append(beforeMiddle, middle.measure());
+      if (p.test(beforeSuffix)) {
+        final Split<FingerTree<V, Node<V, A>>, Node<V, A>> nodes = middle.splitTree(p, beforeMiddle);
+        final Split<Node<V, A>, A> split = nodes.x.split(measured, p, measured.append(beforeMiddle, nodes.left.measure()));
+        return new Split<>(deepRight(measured, prefix, nodes.left, split.left), split.x, deepLeft(measured, split.right, nodes.right, suffix));
+      }
+      final Split<Node<V, A>, A> split = suffix.split(measured, p, beforeSuffix);
+      return new Split<>(deepRight(measured, prefix, middle, split.left), split.x, split.right.toTree(measured));
+    }
+
+    @Override Pair<V, A> lookup(final Predicate<? super V> p, final V i) {
+      final V beforeMiddle = measured.append(i, prefix.measure());
+      if (p.test(beforeMiddle)) {
+        return prefix.lookup(measured, p, i);
+      }
+      final V beforeSuffix = measured.append(beforeMiddle, middle.measure());
+      if (p.test(beforeSuffix)) {
+        final Pair<V, Node<V, A>> node = middle.lookup(p, beforeMiddle);
+        return node.right().lookup(measured, p, node.left());
+      }
+      return suffix.lookup(measured, p, beforeSuffix);
+    }
+
+    @Override public Iterator<A> iterator() {
+      return Iterables.concat(prefix, Iterables.join(middle), suffix).iterator();
+    }
+  }
+
+  //
+  // trees for particular measures
+  //
+
+  /**
+   * An immutable indexed sequence, a finger tree measured by size. Access and
+   * update by index and splitting are O(log n), adding to either end is
+   * amortised O(1) and concatenation is O(log min(n, m)).
+   *
+   * @param <A> the element type
+   * @since 5.0
+   */
+  public static final class IndexedSeq<A> implements Iterable<A> {
+    private final FingerTree<Integer, A> tree;
+
+    private IndexedSeq(final FingerTree<Integer, A> tree) {
+      this.tree = tree;
+    }
+
+    /**
+     * The empty sequence.
+     *
+     * @param <A> the element type
+     * @return an empty sequence
+     */
+    public static <A> IndexedSeq<A> empty() {
+      return new IndexedSeq<>(FingerTree.empty(Monoids.intAddition, a -> 1));
+    }
+
+    /**
+     * @return the number of elements, in constant time
+     */
+    public int size() {
+      return tree.measure();
+    }
+
+    /**
+     * @return true if this sequence contains no elements
+     */
+    public boolean isEmpty() {
+      return tree.isEmpty();
+    }
+
+    /**
+     * Returns the element at the given index.
+     *
+     * @param index the index of the element
+     * @return the element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public A get(final int index) {
+      checkIndex(index);
+      return tree.lookup(n -> n > index, 0).right();
+    }
+
+    /**
+     * Returns a sequence with the element at the given index replaced.
+     *
+     * @param index the index of the element to replace
+     * @param a the new element, must not be null
+     * @return a new sequence of the same size
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public IndexedSeq<A> update(final int index, final A a) {
+      checkIndex(index);
+      final Pair<FingerTree<Integer, A>, FingerTree<Integer, A>> split = tree.split(n -> n > index);
+      return new IndexedSeq<>(FingerTree.concat(split.left(), Collections.singletonList(requireNonNull(a)), split.right().tail()));
+    }
+
+    /**
+     * Splits this sequence before the given index.
+     *
+     * @param index the size of the left sequence, clamped to the size of this
+     * sequence
+     * @return the elements before and from the index
+     */
+    public Pair<IndexedSeq<A>, IndexedSeq<A>> splitAt(final int index) {
+      final Pair<FingerTree<Integer, A>, FingerTree<Integer, A>> split = tree.split(n -> n > index);
+      return pair(new IndexedSeq<>(split.left()), new IndexedSeq<>(split.right()));
+    }
+
+    /**
+     * @param a the element to add, must not be null
+     * @return a sequence with the element added to the front
+     */
+    public IndexedSeq<A> prepend(final A a) {
+      return new IndexedSeq<>(tree.prepend(a));
+    }
+
+    /**
+     * @param a the element to add, must not be null
+     * @return a sequence with the element added to the end
+     */
+    public IndexedSeq<A> append(final A a) {
+      return new IndexedSeq<>(tree.append(a));
+    }
+
+    /**
+     * @param that the sequence to append, must not be null
+     * @return the elements of this sequence followed by those of {@code that}
+     */
+    public IndexedSeq<A> concat(final IndexedSeq<A> that) {
+      return new IndexedSeq<>(tree.concat(that.tree));
+    }
+
+    @Override public Iterator<A> iterator() {
+      return tree.iterator();
+    }
+
+    @Override public String toString() {
+      return tree.toString();
+    }
+
+    private void checkIndex(final int index) {
+      if (index < 0 || index >= size()) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+      }
+    }
+  }
+
+  /**
+   * An immutable priority queue, a finger tree measured by its least element.
+   * Inserting is amortised O(1), finding the least element is O(1), and
+   * removing it and merging queues are O(log n). Elements that compare equal
+   * are removed in the order they were inserted.
+   *
+   * @param <A> the element type
+   * @since 5.0
+   */
+  public static final class PriorityQueue<A> implements Iterable<A> {
+    private final FingerTree<Option<A>, A> tree;
+    private final Comparator<? super A> order;
+
+    private PriorityQueue(final FingerTree<Option<A>, A> tree, final Comparator<? super A> order) {
+      this.tree = tree;
+      this.order = order;
+    }
+
+    /**
+     * The empty queue.
+     *
+     * @param <A> the element type
+     * @param order the order of priority, least first, must not be null
+     * @return an empty queue
+     */
+    public static <A> PriorityQueue<A> empty(final Comparator<? super A> order) {
+      return new PriorityQueue<>(FingerTree.empty(least(order), Option::some), order);
+    }
+
+    /**
+     * @return true if this queue contains no elements
+     */
+    public boolean isEmpty() {
+      return tree.isEmpty();
+    }
+
+    /**
+     * @return the least element, or none if the queue is empty
+     */
+    public Option<A> min() {
+      return tree.measure();
+    }
+
+    /**
+     * @param a the element to insert, must not be null
+     * @return a queue with the element added
+     */
+    public PriorityQueue<A> insert(final A a) {
+      return new PriorityQueue<>(tree.append(a), order);
+    }
+
+    /**
+     * @return a queue without the least element, this queue if it is empty
+     */
+    public PriorityQueue<A> removeMin() {
+      if (tree.isEmpty()) {
+        return this;
+      }
+      final A min = tree.measure().get();
+      final Pair<FingerTree<Option<A>, A>, FingerTree<Option<A>, A>> split = tree.split(o -> o.exists(a -> order.compare(a, min) <= 0));
+      return new PriorityQueue<>(split.left().concat(split.right().tail()), order);
+    }
+
+    /**
+     * @param that the queue to merge with, ordered the same way, must not be
+     * null
+     * @return a queue with the elements of both queues
+     */
+    public PriorityQueue<A> merge(final PriorityQueue<A> that) {
+      return new PriorityQueue<>(tree.concat(that.tree), order);
+    }
+
+    /**
+     * @return an iterator over the elements in insertion order
+     */
+    @Override public Iterator<A> iterator() {
+      return tree.iterator();
+    }
+
+    @Override public String toString() {
+      return tree.toString();
+    }
+
+    /**
+     * Keeps the leftmost of the least elements.
+     */
+    private static <A> Monoid<Option<A>> least(final Comparator<? super A> order) {
+      requireNonNull(order);
+      return new Monoid<Option<A>>() {
+        @Override public Option<A> append(final Option<A> o1, final Option<A> o2) {
+          if (o2.isEmpty()) {
+            return o1;
+          }
+          if (o1.isEmpty()) {
+            return o2;
+          }
+          return order.compare(o1.get(), o2.get()) <= 0 ? o1 : o2;
+        }
+
+        @Override public Option<A> zero() {
+          return Option.none();
+        }
+      };
+    }
+  }
+
+  /**
+   * An immutable index of values sorted by key that sums the values of any key
+   * range in O(log n). It is a finger tree measured by the greatest key and the
+   * sum of the values. Inserting, summing a range and dropping the entries
+   * before a key are all O(log n).
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @since 5.0
+   */
+  public static final class RangeIndex<K, V> implements Iterable<Pair<K, V>> {
+    private final FingerTree<Pair<Option<K>, V>, Pair<K, V>> tree;
+    private final Comparator<? super K> order;
+
+    private RangeIndex(final FingerTree<Pair<Option<K>, V>, Pair<K, V>> tree, final Comparator<? super K> order) {
+      this.tree = tree;
+      this.order = order;
+    }
+
+    /**
+     * The empty index.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param order the order of keys, must not be null
+     * @param values sums values, must not be null
+     * @return an empty index
+     */
+    public static <K, V> RangeIndex<K, V> empty(final Comparator<? super K> order, final Monoid<V> values) {
+      final Monoid<Pair<Option<K>, V>> measure = maxKeyAndSum(values);
+      return new RangeIndex<>(FingerTree.empty(measure, e -> pair(Option.some(e.left()), e.right())), requireNonNull(order));
+    }
+
+    /**
+     * @return true if this index contains no entries
+     */
+    public boolean isEmpty() {
+      return tree.isEmpty();
+    }
+
+    /**
+     * Returns an index with the entry added after all entries with keys less
+     * than or equal to the given key.
+     *
+     * @param k the key, must not be null
+     * @param v the value, must not be null
+     * @return a new index with one more entry
+     */
+    public RangeIndex<K, V> insert(final K k, final V v) {
+      final Pair<FingerTree<Pair<Option<K>, V>, Pair<K, V>>, FingerTree<Pair<Option<K>, V>, Pair<K, V>>> split = tree.split(after(k));
+      return new RangeIndex<>(FingerTree.concat(split.left(), Collections.singletonList(pair(requireNonNull(k), requireNonNull(v))), split.right()),
+        order);
+    }
+
+    /**
+     * @return the sum of all values
+     */
+    public V sum() {
+      return tree.measure().right();
+    }
+
+    /**
+     * Sums the values of the entries with keys from {@code from} inclusive to
+     * {@code to} exclusive.
+     *
+     * @param from the least key to include, must not be null
+     * @param to the key to stop before, must not be null
+     * @return the sum of the values in the range
+     */
+    public V sum(final K from, final K to) {
+      return tree.split(atOrAfter(from)).right().split(atOrAfter(to)).left().measure().right();
+    }
+
+    /**
+     * @param k the least key to keep, must not be null
+     * @return an index without the entries with keys before the given key
+     */
+    public RangeIndex<K, V> dropBefore(final K k) {
+      return new RangeIndex<>(tree.split(atOrAfter(k)).right(), order);
+    }
+
+    /**
+     * @return an iterator over the entries in key order
+     */
+    @Override public Iterator<Pair<K, V>> iterator() {
+      return tree.iterator();
+    }
+
+    @Override public String toString() {
+      return tree.toString();
+    }
+
+    private Predicate<Pair<Option<K>, V>> after(final K k) {
+      requireNonNull(k);
+      return m -> m.left().exists(max -> order.compare(max, k) > 0);
+    }
+
+    private Predicate<Pair<Option<K>, V>> atOrAfter(final K k) {
+      requireNonNull(k);
+      return m -> m.left().exists(max -> order.compare(max, k) >= 0);
+    }
+
+    /**
+     * Entries are sorted by key, so the greatest key is the last one.
+     */
+    private static <K, V> Monoid<Pair<Option<K>, V>> maxKeyAndSum(final Monoid<V> values) {
+      requireNonNull(values);
+      return new Monoid<Pair<Option<K>, V>>() {
+        @Override public Pair<Option<K>, V> append(final Pair<Option<K>, V> m1, final Pair<Option<K>, V> m2) {
+          return pair(m2.left().isDefined() ? m2.left() : m1.left(), values.append(m1.right(), m2.right()));
+        }
+
+        @Override public Pair<Option<K>, V> zero() {
+          return pair(Option.none(), values.zero());
+        }
+      };
+    }
+  }
+}
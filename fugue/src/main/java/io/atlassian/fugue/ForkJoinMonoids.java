@@ -0,0 +1,251 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Fork/join tasks that exploit the associativity of a {@link Monoid} to combine
+ * values in parallel.
+ */
+final class ForkJoinMonoids {
+  private ForkJoinMonoids() {
+    throw new UnsupportedOperationException("This class is not instantiable.");
+  }
+
+  static void checkThreshold(final int threshold) {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Threshold must be positive");
+    }
+  }
+
+  static <A> A sum(final Monoid<A> monoid, final List<A> as, final ForkJoinPool pool, final int threshold) {
+    checkThreshold(threshold);
+    return pool.invoke(new SumList<>(monoid, requireNonNull(as), 0, as.size(), threshold));
+  }
+
+  /**
+   * Splits until parts have at most a quarter of an even share of the estimated
+   * size per worker, which is what parallel streams do.
+   */
+  static <A> A sum(final Monoid<A> monoid, final Spliterator<A> as, final ForkJoinPool pool) {
+    final long threshold = Math.max(as.estimateSize() / (pool.getParallelism() << 2), 1);
+    return pool.invoke(new SumSpliterator<>(monoid, as, threshold));
+  }
+
+  /**
+   * Concatenates lists into one array, allocating it once and copying the lists
+   * into it in parallel. The result is a resizable {@link ArrayList}, like the
+   * one {@link Monoids#list()} sums into sequentially, which costs one more
+   * sequential copy of the array.
+   */
+  static <A> List<A> concat(final List<? extends List<? extends A>> lists, final ForkJoinPool pool, final int threshold) {
+    checkThreshold(threshold);
+    final int[] offsets = new int[lists.size() + 1];
+    for (int i = 0; i < lists.size(); i++) {
+      offsets[i + 1] = Math.addExact(offsets[i], lists.get(i).size());
+    }
+    final Object[] result = new Object[offsets[lists.size()]];
+    pool.invoke(new Concat(lists, offsets, result, 0, lists.size(), threshold));
+    @SuppressWarnings("unchecked")
+    final List<A> list = new ArrayList<>((List<A>) asList(result));
+    return list;
+  }
+
+  static final class SumList<A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+
+    private final Monoid<A> monoid;
+    private final List<A> as;
+    private final int lo;
+    private final int hi;
+    private final int threshold;
+
+    SumList(final Monoid<A> monoid, final List<A> as, final int lo, final int hi, final int threshold) {
+      this.monoid = monoid;
+      this.as = as;
+      this.lo = lo;
+      this.hi = hi;
+      this.threshold = threshold;
+    }
+
+    @Override protected A compute() {
+      if (hi - lo <= threshold) {
+        return monoid.sum(as.subList(lo, hi));
+      }
+      final int mid = (lo + hi) >>> 1;
+      final SumList<A> left = new SumList<>(monoid, as, lo, mid, threshold);
+      left.fork();
+      final A right = new SumList<>(monoid, as, mid, hi, threshold).compute();
+      return monoid.append(left.join(), right);
+    }
+  }
+
+  static final class SumSpliterator<A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+
+    private final Monoid<A> monoid;
+    private final Spliterator<A> as;
+    private final long threshold;
+
+    SumSpliterator(final Monoid<A> monoid, final Spliterator<A> as, final long threshold) {
+      this.monoid = monoid;
+      this.as = as;
+      this.threshold = threshold;
+    }
+
+    @Override protected A compute() {
+      final Spliterator<A> prefix;
+      if (as.estimateSize() > threshold && (prefix = as.trySplit()) != null) {
+        final SumSpliterator<A> left = new SumSpliterator<>(monoid, prefix, threshold);
+        left.fork();
+        final A right = new SumSpliterator<>(monoid, as, threshold).compute();
+        return monoid.append(left.join(), right);
+      }
+      final List<A> leaf = new ArrayList<>();
+      as.forEachRemaining(leaf::add);
+      return monoid.sum(leaf);
+    }
+  }
+
+  static final class Concat extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends List<?>> lists;
+    private final int[] offsets;
+    private final Object[] result;
+    private final int lo;
+    private final int hi;
+    private final int threshold;
+
+    Concat(final List<? extends List<?>> lists, final int[] offsets, final Object[] result, final int lo, final int hi, final int threshold) {
+      this.lists = lists;
+      this.offsets = offsets;
+      this.result = result;
+      this.lo = lo;
+      this.hi = hi;
+      this.threshold = threshold;
+    }
+
+    @Override protected void compute() {
+      if (hi - lo <= threshold) {
+        for (int i = lo; i < hi; i++) {
+          int offset = offsets[i];
+          for (final Object a : lists.get(i)) {
+            result[offset++] = a;
+          }
+        }
+      } else {
+        final int mid = (lo + hi) >>> 1;
+        invokeAll(new Concat(lists, offsets, result, lo, mid, threshold), new Concat(lists, offsets, result, mid, hi, threshold));
+      }
+    }
+  }
+
+  /**
+   * Inclusive prefix sums of a random access list, computed with an up-sweep
+   * that sums blocks of at most {@code threshold} elements and a down-sweep
+   * that scans each block starting from the sum of everything before it.
+   */
+  static <A> List<A> prefix(final Monoid<A> monoid, final List<A> as, final ForkJoinPool pool, final int threshold) {
+    final Object[] result = new Object[as.size()];
+    if (result.length > 0) {
+      final Prefix<A> root = new Prefix<>(monoid, as, result, 0, result.length, threshold);
+      pool.invoke(root.upSweep());
+      pool.invoke(root.downSweep(monoid.zero()));
+    }
+    @SuppressWarnings("unchecked")
+    final List<A> list = (List<A>) unmodifiableList(asList(result));
+    return list;
+  }
+
+  /**
+   * A node of the tree of ranges, holding the sum of its range once the
+   * up-sweep is done.
+   */
+  static final class Prefix<A> {
+    private final Monoid<A> monoid;
+    private final List<A> as;
+    private final Object[] result;
+    private final int lo;
+    private final int hi;
+    private final Prefix<A> left;
+    private final Prefix<A> right;
+    private A sum;
+
+    Prefix(final Monoid<A> monoid, final List<A> as, final Object[] result, final int lo, final int hi, final int threshold) {
+      this.monoid = monoid;
+      this.as = as;
+      this.result = result;
+      this.lo = lo;
+      this.hi = hi;
+      if (hi - lo > threshold) {
+        final int mid = (lo + hi) >>> 1;
+        left = new Prefix<>(monoid, as, result, lo, mid, threshold);
+        right = new Prefix<>(monoid, as, result, mid, hi, threshold);
+      } else {
+        left = null;
+        right = null;
+      }
+    }
+
+    RecursiveAction upSweep() {
+      return new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override protected void compute() {
+          if (left == null) {
+            A acc = as.get(lo);
+            for (int i = lo + 1; i < hi; i++) {
+              acc = monoid.append(acc, as.get(i));
+            }
+            sum = acc;
+          } else {
+            invokeAll(left.upSweep(), right.upSweep());
+            sum = monoid.append(left.sum, right.sum);
+          }
+        }
+      };
+    }
+
+    RecursiveAction downSweep(final A offset) {
+      return new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override protected void compute() {
+          if (left == null) {
+            A acc = offset;
+            for (int i = lo; i < hi; i++) {
+              acc = monoid.append(acc, as.get(i));
+              result[i] = acc;
+            }
+          } else {
+            invokeAll(left.downSweep(offset), right.downSweep(monoid.append(offset, left.sum)));
+          }
+        }
+      };
+    }
+  }
+}
@@ -156,6 +156,18 @@ public final class FugueCollectors {
       ref -> ref.get().map(b -> aCollector.finisher().apply(b)), maybeUnorderedCharacteristics(aCollector));
   }
 
+  /**
+   * Collect the elements into a persistent {@link Vector}. Elements are packed
+   * directly into the vector's leaves, so no intermediate list is built.
+   *
+   * @param <A> the element type
+   * @since 5.0
+   * @return collector of {@link Vector}.
+   */
+  public static <A> Collector<A, ?, Vector<A>> toVector() {
+    return Collector.of(Vector::<A> builder, Vector.Builder::add, Vector.Builder::combine, Vector.Builder::build);
+  }
+
   private static Collector.Characteristics[] maybeUnorderedCharacteristics(Collector<?, ?, ?> delegate) {
     return delegate.characteristics().contains(Collector.Characteristics.UNORDERED) ? new Collector.Characteristics[] { Collector.Characteristics.UNORDERED }
       : new Collector.Characteristics[0];
@@ -29,6 +29,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import static io.atlassian.fugue.Option.none;
 import static io.atlassian.fugue.Option.option;
 import static io.atlassian.fugue.Unit.Unit;
 import static java.util.Objects.requireNonNull;
@@ -585,6 +586,25 @@ public class Functions {
     return a -> option(map.get(a));
   }
 
+  /**
+   * Create a function that performs a map lookup returning None for null, and
+   * that returns None without touching the map for keys the filter has never
+   * seen. Useful when the map is expensive to query and most lookups miss.
+   *
+   * @param map map to use for lookup
+   * @param filter a filter containing at least every key of the map
+   * @param <A> map key type
+   * @param <B> map value type
+   * @return result of calling Map#get replacing null with none, or none if the
+   * filter does not contain the key
+   * @since 5.0
+   */
+  public static <A, B> Function<A, Option<B>> forMap(final Map<A, B> map, final BloomFilter<? super A> filter) {
+    requireNonNull(map);
+    requireNonNull(filter);
+    return a -> filter.mightContain(a) ? option(map.get(a)) : none();
+  }
+
   /**
    * Create a function that performs a map lookup supplying a default value when
    * a Map#get returns null
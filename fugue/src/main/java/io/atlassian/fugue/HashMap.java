@@ -0,0 +1,670 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.atlassian.fugue.Iterables.makeString;
+import static io.atlassian.fugue.Iterables.map;
+import static io.atlassian.fugue.Pair.pair;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, persistent hash map implemented as a hash array mapped trie.
+ * <p>
+ * Lookups, {@link #put(Object, Object) put} and {@link #remove(Object) remove}
+ * are O(log<sub>32</sub> n) and share every untouched node with the original
+ * map, so an update copies at most one short root to leaf path instead of the
+ * whole map. Bulk construction should go through a {@link Builder}, which
+ * mutates the nodes it owns in place.
+ * <p>
+ * Keys and values must not be null.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 5.0
+ */
+public final class HashMap<K, V> implements Iterable<Pair<K, V>> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+
+  private static final HashMap<?, ?> EMPTY = new HashMap<>(null, 0);
+
+  private final Node root;
+  private final int size;
+
+  private HashMap(final Node root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * The empty map.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return an empty map
+   */
+  public static <K, V> HashMap<K, V> empty() {
+    @SuppressWarnings("unchecked")
+    final HashMap<K, V> result = (HashMap<K, V>) EMPTY;
+    return result;
+  }
+
+  /**
+   * Creates a map with the entries of the given {@link java.util.Map}.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @param map the entries, must not be null and must not contain null keys or
+   * values
+   * @return a persistent copy of the map
+   */
+  public static <K, V> HashMap<K, V> fromMap(final Map<? extends K, ? extends V> map) {
+    final Builder<K, V> builder = builder();
+    for (final Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+      builder.put(e.getKey(), e.getValue());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Creates a map from an iterable of key value pairs. Later pairs replace
+   * earlier pairs with an equal key.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @param pairs the entries, must not be null and must not contain null keys
+   * or values
+   * @return a map of the pairs
+   */
+  public static <K, V> HashMap<K, V> fromIterable(final Iterable<Pair<K, V>> pairs) {
+    final Builder<K, V> builder = builder();
+    for (final Pair<K, V> p : pairs) {
+      builder.put(p.left(), p.right());
+    }
+    return builder.build();
+  }
+
+  /**
+   * A mutable builder for batch construction, starting from the empty map.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a new builder
+   */
+  public static <K, V> Builder<K, V> builder() {
+    return new Builder<>(null, 0);
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if there are no entries
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Look up the value associated with a key.
+   *
+   * @param key the key to look up, must not be null
+   * @return some value if the key is present, none otherwise
+   */
+  public Option<V> get(final K key) {
+    if (root == null) {
+      return Option.none();
+    }
+    @SuppressWarnings("unchecked")
+    final V v = (V) root.find(0, hash(key), key);
+    return Option.option(v);
+  }
+
+  /**
+   * @param key the key to look for, must not be null
+   * @return true if the map has an entry for the key
+   */
+  public boolean containsKey(final K key) {
+    return root != null && root.find(0, hash(key), key) != null;
+  }
+
+  /**
+   * @return the keys of this map, in no particular order
+   */
+  public Iterable<K> keys() {
+    return map(this, Pair::left);
+  }
+
+  /**
+   * @return the values of this map, in no particular order
+   */
+  public Iterable<V> values() {
+    return map(this, Pair::right);
+  }
+
+  //
+  // persistent updates
+  //
+
+  /**
+   * Returns a map with the key associated with the value. Returns this map if
+   * the key is already associated with the identical value.
+   *
+   * @param key the key, must not be null
+   * @param value the value, must not be null
+   * @return a map containing the association
+   */
+  public HashMap<K, V> put(final K key, final V value) {
+    requireNonNull(value);
+    final Box added = new Box();
+    final Node start = root == null ? BitmapNode.EMPTY : root;
+    final Node result = start.put(null, 0, hash(key), key, value, added);
+    return result == root ? this : new HashMap<>(result, added.value ? size + 1 : size);
+  }
+
+  /**
+   * Returns a map without an entry for the key. Returns this map if there was
+   * no such entry.
+   *
+   * @param key the key, must not be null
+   * @return a map without the key
+   */
+  public HashMap<K, V> remove(final K key) {
+    if (root == null) {
+      return this;
+    }
+    final Box removed = new Box();
+    final Node result = root.remove(null, 0, hash(key), key, removed);
+    return removed.value ? new HashMap<>(result, size - 1) : this;
+  }
+
+  /**
+   * Combines the entries of both maps. Values of keys present in both maps are
+   * combined with {@code semigroup}, this map's value on the left. The smaller
+   * map is merged into the larger one.
+   *
+   * @param that the map to combine with, must not be null
+   * @param semigroup combines values with equal keys
+   * @return the union of the two maps
+   */
+  public HashMap<K, V> union(final HashMap<K, V> that, final Semigroup<V> semigroup) {
+    final boolean thisLarger = size >= that.size;
+    final HashMap<K, V> large = thisLarger ? this : that;
+    final HashMap<K, V> small = thisLarger ? that : this;
+    if (small.isEmpty()) {
+      return large;
+    }
+    final Builder<K, V> builder = large.toBuilder();
+    for (final Pair<K, V> p : small) {
+      final V merged = large.get(p.left()).fold(p::right, v -> thisLarger ? semigroup.append(v, p.right()) : semigroup.append(p.right(), v));
+      builder.put(p.left(), merged);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Applies the function to every value, keeping the keys.
+   *
+   * @param <W> the new value type
+   * @param f the function to apply, must not return null
+   * @return a map with the transformed values
+   */
+  public <W> HashMap<K, W> mapValues(final Function<? super V, ? extends W> f) {
+    final Builder<K, W> builder = builder();
+    for (final Pair<K, V> p : this) {
+      builder.put(p.left(), f.apply(p.right()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * A mutable builder starting from the entries of this map. The builder copies
+   * a node the first time it changes it and mutates it in place thereafter;
+   * this map is never modified.
+   *
+   * @return a new builder
+   */
+  public Builder<K, V> toBuilder() {
+    return new Builder<>(root, size);
+  }
+
+  /**
+   * @return a new mutable {@link java.util.Map} with the entries of this map
+   */
+  public Map<K, V> toMap() {
+    final Map<K, V> result = new LinkedHashMap<>();
+    for (final Pair<K, V> p : this) {
+      result.put(p.left(), p.right());
+    }
+    return result;
+  }
+
+  @Override public Iterator<Pair<K, V>> iterator() {
+    return new Iter<>(root);
+  }
+
+  @Override public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HashMap)) {
+      return false;
+    }
+    @SuppressWarnings("unchecked")
+    final HashMap<K, Object> that = (HashMap<K, Object>) o;
+    if (size != that.size) {
+      return false;
+    }
+    for (final Pair<K, V> p : this) {
+      final Option<Object> v = that.get(p.left());
+      if (!v.isDefined() || !v.get().equals(p.right())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    int hash = 0;
+    for (final Pair<K, V> p : this) {
+      hash += p.left().hashCode() ^ p.right().hashCode();
+    }
+    return hash;
+  }
+
+  @Override public String toString() {
+    return makeString(map(this, p -> p.left() + "=" + p.right()), "{", ", ", "}");
+  }
+
+  //
+  // trie implementation
+  //
+
+  static int hash(final Object key) {
+    final int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitpos(final int hash, final int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /** Mutable flag reporting whether an operation added or removed an entry. */
+  static final class Box {
+    boolean value;
+  }
+
+  /**
+   * Trie node. An {@code edit} token identifies the builder that owns the node;
+   * only the owner may mutate it, persistent operations pass a null token and
+   * so always copy.
+   */
+  static abstract class Node {
+    final Object edit;
+
+    Node(final Object edit) {
+      this.edit = edit;
+    }
+
+    boolean editable(final Object edit) {
+      return edit != null && this.edit == edit;
+    }
+
+    /** @return the value for the key, or null */
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node put(Object edit, int shift, int hash, Object key, Object value, Box added);
+
+    /** @return the node without the key, null if it became empty */
+    abstract Node remove(Object edit, int shift, int hash, Object key, Box removed);
+
+    /** Alternating keys and values; a null key marks a child node. */
+    abstract Object[] array();
+  }
+
+  static final class BitmapNode extends Node {
+    static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+    int bitmap;
+    Object[] array;
+
+    BitmapNode(final Object edit, final int bitmap, final Object[] array) {
+      super(edit);
+      this.bitmap = bitmap;
+      this.array = array;
+    }
+
+    private int index(final int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Override Object find(final int shift, final int hash, final Object key) {
+      final int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+      final int idx = index(bit);
+      final Object keyOrNull = array[2 * idx];
+      final Object valOrNode = array[2 * idx + 1];
+      if (keyOrNull == null) {
+        return ((Node) valOrNode).find(shift + BITS, hash, key);
+      }
+      return key.equals(keyOrNull) ? valOrNode : null;
+    }
+
+    @Override Node put(final Object edit, final int shift, final int hash, final Object key, final Object value, final Box added) {
+      final int bit = bitpos(hash, shift);
+      final int idx = index(bit);
+      if ((bitmap & bit) != 0) {
+        final Object keyOrNull = array[2 * idx];
+        final Object valOrNode = array[2 * idx + 1];
+        if (keyOrNull == null) {
+          final Node n = ((Node) valOrNode).put(edit, shift + BITS, hash, key, value, added);
+          return n == valOrNode ? this : set(edit, 2 * idx + 1, n);
+        }
+        if (key.equals(keyOrNull)) {
+          return value == valOrNode ? this : set(edit, 2 * idx + 1, value);
+        }
+        added.value = true;
+        final BitmapNode editable = set(edit, 2 * idx + 1, createNode(edit, shift + BITS, keyOrNull, valOrNode, hash, key, value));
+        editable.array[2 * idx] = null;
+        return editable;
+      }
+      added.value = true;
+      final int n = Integer.bitCount(bitmap);
+      if (editable(edit) && 2 * n < array.length) {
+        System.arraycopy(array, 2 * idx, array, 2 * (idx + 1), 2 * (n - idx));
+        array[2 * idx] = key;
+        array[2 * idx + 1] = value;
+        bitmap |= bit;
+        return this;
+      }
+      // builders leave some slack so consecutive inserts do not copy
+      final Object[] result = new Object[2 * (n + (edit == null ? 1 : 4))];
+      System.arraycopy(array, 0, result, 0, 2 * idx);
+      result[2 * idx] = key;
+      result[2 * idx + 1] = value;
+      System.arraycopy(array, 2 * idx, result, 2 * (idx + 1), 2 * (n - idx));
+      return new BitmapNode(edit, bitmap | bit, result);
+    }
+
+    @Override Node remove(final Object edit, final int shift, final int hash, final Object key, final Box removed) {
+      final int bit = bitpos(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      final int idx = index(bit);
+      final Object keyOrNull = array[2 * idx];
+      final Object valOrNode = array[2 * idx + 1];
+      if (keyOrNull == null) {
+        final Node n = ((Node) valOrNode).remove(edit, shift + BITS, hash, key, removed);
+        if (n == valOrNode) {
+          return this;
+        }
+        if (n != null) {
+          return set(edit, 2 * idx + 1, n);
+        }
+      } else if (!key.equals(keyOrNull)) {
+        return this;
+      } else {
+        removed.value = true;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      final int n = Integer.bitCount(bitmap);
+      if (editable(edit)) {
+        System.arraycopy(array, 2 * (idx + 1), array, 2 * idx, 2 * (n - idx - 1));
+        array[2 * n - 2] = null;
+        array[2 * n - 1] = null;
+        bitmap ^= bit;
+        return this;
+      }
+      final Object[] result = new Object[2 * (n - 1)];
+      System.arraycopy(array, 0, result, 0, 2 * idx);
+      System.arraycopy(array, 2 * (idx + 1), result, 2 * idx, 2 * (n - idx - 1));
+      return new BitmapNode(edit, bitmap ^ bit, result);
+    }
+
+    private BitmapNode set(final Object edit, final int i, final Object a) {
+      if (editable(edit)) {
+        array[i] = a;
+        return this;
+      }
+      final Object[] result = array.clone();
+      result[i] = a;
+      return new BitmapNode(edit, bitmap, result);
+    }
+
+    @Override Object[] array() {
+      return array;
+    }
+  }
+
+  /** Holds the entries of keys whose hashes are completely equal. */
+  static final class CollisionNode extends Node {
+    final int hash;
+    Object[] array;
+
+    CollisionNode(final Object edit, final int hash, final Object[] array) {
+      super(edit);
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int indexOf(final Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override Object find(final int shift, final int hash, final Object key) {
+      final int i = indexOf(key);
+      return i < 0 ? null : array[i + 1];
+    }
+
+    @Override Node put(final Object edit, final int shift, final int hash, final Object key, final Object value, final Box added) {
+      if (hash != this.hash) {
+        return new BitmapNode(edit, bitpos(this.hash, shift), new Object[] { null, this }).put(edit, shift, hash, key, value, added);
+      }
+      final int i = indexOf(key);
+      if (i >= 0) {
+        if (array[i + 1] == value) {
+          return this;
+        }
+        if (editable(edit)) {
+          array[i + 1] = value;
+          return this;
+        }
+        final Object[] result = array.clone();
+        result[i + 1] = value;
+        return new CollisionNode(edit, hash, result);
+      }
+      added.value = true;
+      final Object[] result = Arrays.copyOf(array, array.length + 2);
+      result[array.length] = key;
+      result[array.length + 1] = value;
+      if (editable(edit)) {
+        array = result;
+        return this;
+      }
+      return new CollisionNode(edit, hash, result);
+    }
+
+    @Override Node remove(final Object edit, final int shift, final int hash, final Object key, final Box removed) {
+      final int i = indexOf(key);
+      if (i < 0) {
+        return this;
+      }
+      removed.value = true;
+      if (array.length == 2) {
+        return null;
+      }
+      final Object[] result = new Object[array.length - 2];
+      System.arraycopy(array, 0, result, 0, i);
+      System.arraycopy(array, i + 2, result, i, array.length - i - 2);
+      if (editable(edit)) {
+        array = result;
+        return this;
+      }
+      return new CollisionNode(edit, hash, result);
+    }
+
+    @Override Object[] array() {
+      return array;
+    }
+  }
+
+  private static Node createNode(final Object edit, final int shift, final Object key1, final Object value1, final int hash2, final Object key2,
+    final Object value2) {
+    final int hash1 = hash(key1);
+    if (hash1 == hash2) {
+      return new CollisionNode(edit, hash1, new Object[] { key1, value1, key2, value2 });
+    }
+    final Box ignored = new Box();
+    return BitmapNode.EMPTY.put(edit, shift, hash1, key1, value1, ignored).put(edit, shift, hash2, key2, value2, ignored);
+  }
+
+  /**
+   * Depth first iteration over the trie using an explicit stack of node arrays.
+   */
+  static final class Iter<K, V> extends Iterators.Abstract<Pair<K, V>> {
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+
+    Iter(final Node root) {
+      if (root != null) {
+        push(root);
+      }
+    }
+
+    private void push(final Node node) {
+      depth++;
+      arrays[depth] = node.array();
+      positions[depth] = 0;
+    }
+
+    @Override protected Pair<K, V> computeNext() {
+      while (depth >= 0) {
+        final Object[] array = arrays[depth];
+        final int pos = positions[depth];
+        if (pos >= array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        positions[depth] = pos + 2;
+        final Object key = array[pos];
+        final Object value = array[pos + 1];
+        if (key != null) {
+          @SuppressWarnings("unchecked")
+          final Pair<K, V> entry = pair((K) key, (V) value);
+          return entry;
+        }
+        if (value != null) {
+          push((Node) value);
+        }
+      }
+      return endOfData();
+    }
+  }
+
+  /**
+   * Mutable builder for batch updates. Nodes created by a builder are owned by
+   * it and updated in place, so a batch of n updates allocates roughly one new
+   * node per touched node rather than one path per update. Not thread safe.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  public static final class Builder<K, V> {
+    private Object edit = new Object();
+    private Node root;
+    private int size;
+
+    Builder(final Node root, final int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * Associates the key with the value.
+     *
+     * @param key the key, must not be null
+     * @param value the value, must not be null
+     * @return this builder
+     */
+    public Builder<K, V> put(final K key, final V value) {
+      requireNonNull(value);
+      final Box added = new Box();
+      root = (root == null ? BitmapNode.EMPTY : root).put(edit, 0, hash(key), key, value, added);
+      if (added.value) {
+        size++;
+      }
+      return this;
+    }
+
+    /**
+     * Removes any entry for the key.
+     *
+     * @param key the key, must not be null
+     * @return this builder
+     */
+    public Builder<K, V> remove(final K key) {
+      if (root != null) {
+        final Box removed = new Box();
+        root = root.remove(edit, 0, hash(key), key, removed);
+        if (removed.value) {
+          size--;
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Returns the map built so far. The builder may keep being used; it will no
+     * longer mutate any node reachable from the returned map.
+     *
+     * @return an immutable map
+     */
+    public HashMap<K, V> build() {
+      edit = new Object();
+      return size == 0 ? empty() : new HashMap<>(root, size);
+    }
+  }
+}
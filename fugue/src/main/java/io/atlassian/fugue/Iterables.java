@@ -19,20 +19,33 @@ package io.atlassian.fugue;
 import java.io.Serializable;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Queue;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
@@ -49,6 +62,7 @@ import static io.atlassian.fugue.Pair.rightValue;
 import static io.atlassian.fugue.Suppliers.ofInstance;
 import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -259,6 +273,13 @@ public class Iterables {
 
   /**
    * Filter an {@code Iterable} into a {@code Pair} of {@code Iterable}'s.
+   * <p>
+   * The first iteration of the two sides shares a single lazy traversal of the
+   * source, testing {@code p} once per element. Elements are buffered per side
+   * only until that side has read past them, so reading both sides in step
+   * holds no more than the elements between the two. Iterating a side again
+   * filters the source again. When both sides are needed in full
+   * {@link #partitionTo} partitions eagerly into collections instead.
    *
    * @param <A> the type
    * @param iterable to be filtered
@@ -268,7 +289,136 @@ public class Iterables {
    * @since 1.2
    */
   public static <A> Pair<Iterable<A>, Iterable<A>> partition(final Iterable<A> iterable, final Predicate<? super A> p) {
-    return pair(filter(iterable, p), filter(iterable, p.negate()));
+    final Partition<A> partition = new Partition<>(requireNonNull(iterable), requireNonNull(p));
+    return pair(new Partition.Side<>(partition, partition.matching, p), new Partition.Side<>(partition, partition.rest, a -> !p.test(a)));
+  }
+
+  /**
+   * Eagerly filter an {@code Iterable} into two collections, traversing the
+   * source once and testing {@code p} once per element.
+   *
+   * @param <A> the type
+   * @param <L> the type of the collection of matching elements
+   * @param <R> the type of the collection of the other elements
+   * @param as to be filtered, must not be null
+   * @param p to filter each element, must not be null
+   * @param matching collection the elements matching {@code p} are added to
+   * @param rest collection the elements not matching {@code p} are added to
+   * @return the pair of {@code matching} and {@code rest}
+   * @since 5.0
+   */
+  public static <A, L extends Collection<? super A>, R extends Collection<? super A>> Pair<L, R> partitionTo(final Iterable<? extends A> as,
+    final Predicate<? super A> p, final L matching, final R rest) {
+    requireNonNull(p);
+    requireNonNull(matching);
+    requireNonNull(rest);
+    for (final A a : requireNonNull(as)) {
+      if (p.test(a)) {
+        matching.add(a);
+      } else {
+        rest.add(a);
+      }
+    }
+    return pair(matching, rest);
+  }
+
+  /**
+   * Shared state of the two sides of a partition, each side is a linked list of
+   * nodes that is extended as either side is iterated. Only the ends of the
+   * lists are held here and the start is handed to the first iterator of the
+   * side, so nodes are retained only until that iterator has read past them.
+   */
+  static final class Partition<A> {
+    private final Iterable<A> source;
+    private final Predicate<? super A> p;
+    private Iterator<A> it;
+    private Node<A> matching = new Node<>();
+    private Node<A> rest = new Node<>();
+    private boolean done;
+
+    Partition(final Iterable<A> source, final Predicate<? super A> p) {
+      this.source = source;
+      this.p = p;
+    }
+
+    /**
+     * Pull elements from the source until {@code node} has been given one, or
+     * the source is exhausted.
+     *
+     * @return whether {@code node} has an element
+     */
+    boolean fill(final Node<A> node) {
+      if (node.next != null) {
+        return true;
+      }
+      synchronized (this) {
+        if (it == null && !done) {
+          it = source.iterator();
+        }
+        while (node.next == null && !done) {
+          if (it.hasNext()) {
+            final A a = it.next();
+            if (p.test(a)) {
+              matching = matching.fill(a);
+            } else {
+              rest = rest.fill(a);
+            }
+          } else {
+            done = true;
+            it = null;
+          }
+        }
+        return node.next != null;
+      }
+    }
+
+    static final class Node<A> {
+      private A value;
+      private volatile Node<A> next;
+
+      Node<A> fill(final A a) {
+        value = a;
+        return next = new Node<>();
+      }
+    }
+
+    static final class Side<A> extends IterableToString<A> {
+      private final Partition<A> partition;
+      private final AtomicReference<Node<A>> head;
+      private final Predicate<? super A> p;
+
+      Side(final Partition<A> partition, final Node<A> head, final Predicate<? super A> p) {
+        this.partition = partition;
+        this.head = new AtomicReference<>(head);
+        this.p = p;
+      }
+
+      @Override public Iterator<A> iterator() {
+        final Node<A> start = head.getAndSet(null);
+        return start == null ? filter(partition.source, p).iterator() : new Iter<>(partition, start);
+      }
+    }
+
+    // not an anonymous class, as one would keep the start of the side as a
+    // captured variable
+    static final class Iter<A> extends Iterators.Abstract<A> {
+      private final Partition<A> partition;
+      private Node<A> node;
+
+      Iter(final Partition<A> partition, final Node<A> start) {
+        this.partition = partition;
+        this.node = start;
+      }
+
+      @Override protected A computeNext() {
+        if (!partition.fill(node)) {
+          return endOfData();
+        }
+        final A a = node.value;
+        node = node.next;
+        return a;
+      }
+    }
   }
 
   /**
@@ -288,7 +438,10 @@ public class Iterables {
       final List<A> list = (List<A>) as;
       return list.subList(0, n < list.size() ? n : list.size());
     }
-    return new Take<>(as, countingPredicate(n));
+    if (as instanceof Vector<?>) {
+      return ((Vector<A>) as).take(n);
+    }
+    return new Take<>(as, n);
   }
 
   /**
@@ -311,7 +464,10 @@ public class Iterables {
       }
       return list.subList(n, list.size());
     }
-    return new Drop<>(as, countingPredicate(n));
+    if (as instanceof Vector<?>) {
+      return ((Vector<A>) as).drop(n);
+    }
+    return new Drop<>(as, n);
   }
 
   /**
@@ -381,7 +537,14 @@ public class Iterables {
    * @since 1.2
    */
   public static <A, B, C> BiFunction<Iterable<A>, Iterable<B>, Iterable<C>> zipWith(final BiFunction<A, B, C> f) {
-    return (as, bs) -> new Zipper<>(as, bs, f);
+    return (as, bs) -> {
+      if (as instanceof RandomAccess && as instanceof List && bs instanceof RandomAccess && bs instanceof List) {
+        final List<A> la = (List<A>) as;
+        final List<B> lb = (List<B>) bs;
+        return new IndexedView<>(() -> Math.min(la.size(), lb.size()), i -> f.apply(la.get(i), lb.get(i)));
+      }
+      return new Zipper<>(as, bs, f);
+    };
   }
 
   /**
@@ -394,6 +557,10 @@ public class Iterables {
    * @since 1.2
    */
   public static <A> Iterable<Pair<A, Integer>> zipWithIndex(final Iterable<A> as) {
+    if (as instanceof RandomAccess && as instanceof List) {
+      final List<A> list = (List<A>) as;
+      return new IndexedView<>(list::size, i -> pair(list.get(i), i));
+    }
     return zip(as, rangeTo(0, Integer.MAX_VALUE));
   }
 
@@ -513,20 +680,189 @@ public class Iterables {
     }
   }
 
+  /**
+   * Read only random access list that computes each element from its index.
+   * Views over random access lists use this so that their size, and
+   * {@link #take(int, Iterable)} and {@link #drop(int, Iterable)} on them, stay
+   * constant time.
+   */
+  static final class IndexedView<A> extends AbstractList<A> implements RandomAccess {
+    private final IntSupplier size;
+    private final IntFunction<? extends A> get;
+
+    IndexedView(final IntSupplier size, final IntFunction<? extends A> get) {
+      this.size = size;
+      this.get = get;
+    }
+
+    @Override public A get(final int index) {
+      final int size = size();
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return get.apply(index);
+    }
+
+    @Override public int size() {
+      return size.getAsInt();
+    }
+
+    @Override public Spliterator<A> spliterator() {
+      return new Split<>(get, 0, size());
+    }
+
+    static final class Split<A> implements Spliterator<A> {
+      private final IntFunction<? extends A> get;
+      private int index;
+      private final int fence;
+
+      Split(final IntFunction<? extends A> get, final int index, final int fence) {
+        this.get = get;
+        this.index = index;
+        this.fence = fence;
+      }
+
+      @Override public boolean tryAdvance(final Consumer<? super A> action) {
+        if (index >= fence) {
+          return false;
+        }
+        action.accept(get.apply(index++));
+        return true;
+      }
+
+      @Override public void forEachRemaining(final Consumer<? super A> action) {
+        for (; index < fence; index++) {
+          action.accept(get.apply(index));
+        }
+      }
+
+      @Override public Spliterator<A> trySplit() {
+        final int lo = index;
+        final int mid = (lo + fence) >>> 1;
+        if (lo >= mid) {
+          return null;
+        }
+        index = mid;
+        return new Split<>(get, lo, mid);
+      }
+
+      @Override public long estimateSize() {
+        return fence - index;
+      }
+
+      @Override public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+      }
+    }
+  }
+
+  /**
+   * Spliterator over the elements of an ordered, sized source from position
+   * {@code skip} up to {@code skip + limit}. Splits along the source's own
+   * splits, discarding splits that fall outside of the range.
+   */
+  static final class Slice<A> implements Spliterator<A> {
+    private Spliterator<A> s;
+    private long skip;
+    private long limit;
+
+    Slice(final Spliterator<A> s, final long skip, final long limit) {
+      this.s = s;
+      this.skip = skip;
+      this.limit = limit;
+    }
+
+    @Override public boolean tryAdvance(final Consumer<? super A> action) {
+      for (; skip > 0; skip--) {
+        if (!s.tryAdvance(a -> {})) {
+          skip = 0;
+          limit = 0;
+          return false;
+        }
+      }
+      if (limit <= 0 || !s.tryAdvance(action)) {
+        limit = 0;
+        return false;
+      }
+      limit--;
+      return true;
+    }
+
+    @Override public Spliterator<A> trySplit() {
+      while (limit > 0) {
+        final Spliterator<A> prefix = s.trySplit();
+        if (prefix == null) {
+          return null;
+        }
+        final long k = prefix.estimateSize();
+        if (k <= skip) {
+          // the prefix is dropped entirely
+          skip -= k;
+        } else if (limit <= k - skip) {
+          // the remainder is not needed
+          s = prefix;
+        } else {
+          final Slice<A> result = new Slice<>(prefix, skip, k - skip);
+          limit -= k - skip;
+          skip = 0;
+          return result;
+        }
+      }
+      return null;
+    }
+
+    @Override public long estimateSize() {
+      return Math.max(0, Math.min(s.estimateSize() - skip, limit));
+    }
+
+    @Override public int characteristics() {
+      return s.characteristics();
+    }
+
+    @Override public Comparator<? super A> getComparator() {
+      return s.getComparator();
+    }
+
+    static <A> boolean canSlice(final Spliterator<A> s) {
+      return s.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+    }
+  }
+
   /**
    * Iterable that only shows a small range of the original Iterable.
    */
   static final class Take<A> extends IterableToString<A> {
     private final Iterable<A> as;
-    private final Predicate<A> p;
+    private final Supplier<Predicate<A>> p;
+    /** the number of elements taken, or -1 when taking while a predicate holds */
+    private final int n;
+
+    private Take(final Iterable<A> as, final int n) {
+      this(as, () -> countingPredicate(n), n);
+    }
 
     private Take(final Iterable<A> as, final Predicate<A> p) {
-      this.p = requireNonNull(p);
+      this(as, ofInstance(requireNonNull(p)), -1);
+    }
+
+    private Take(final Iterable<A> as, final Supplier<Predicate<A>> p, final int n) {
+      this.p = p;
       this.as = requireNonNull(as);
+      this.n = n;
     }
 
     @Override public Iterator<A> iterator() {
-      return new Iter<>(as.iterator(), p);
+      return new Iter<>(as.iterator(), p.get());
+    }
+
+    @Override public Spliterator<A> spliterator() {
+      if (n >= 0) {
+        final Spliterator<A> s = as.spliterator();
+        if (Slice.canSlice(s)) {
+          return new Slice<>(s, 0, n);
+        }
+      }
+      return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
     }
 
     static final class Iter<A> extends Iterators.Abstract<A> {
@@ -553,15 +889,39 @@ public class Iterables {
    */
   static final class Drop<A> extends IterableToString<A> {
     private final Iterable<A> as;
-    private final Predicate<A> p;
+    private final Supplier<Predicate<A>> p;
+    /**
+     * the number of elements dropped, or -1 when dropping while a predicate
+     * holds
+     */
+    private final int n;
+
+    private Drop(final Iterable<A> as, final int n) {
+      this(as, () -> countingPredicate(n), n);
+    }
 
     private Drop(final Iterable<A> as, final Predicate<A> p) {
-      this.p = requireNonNull(p);
+      this(as, ofInstance(requireNonNull(p)), -1);
+    }
+
+    private Drop(final Iterable<A> as, final Supplier<Predicate<A>> p, final int n) {
+      this.p = p;
       this.as = requireNonNull(as);
+      this.n = n;
     }
 
     @Override public Iterator<A> iterator() {
-      return new Iter<>(as.iterator(), p);
+      return new Iter<>(as.iterator(), p.get());
+    }
+
+    @Override public Spliterator<A> spliterator() {
+      if (n >= 0) {
+        final Spliterator<A> s = as.spliterator();
+        if (Slice.canSlice(s)) {
+          return new Slice<>(s, n, Long.MAX_VALUE);
+        }
+      }
+      return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
     }
 
     static final class Iter<A> extends Iterators.Abstract<A> {
@@ -628,6 +988,15 @@ public class Iterables {
       return new Iter();
     }
 
+    @Override public Spliterator<C> spliterator() {
+      final Spliterator<A> sa = as.spliterator();
+      final Spliterator<B> sb = bs.spliterator();
+      if (sa.hasCharacteristics(Spliterator.SIZED) && sb.hasCharacteristics(Spliterator.SIZED)) {
+        return Spliterators.spliterator(iterator(), Math.min(sa.estimateSize(), sb.estimateSize()), Spliterator.ORDERED);
+      }
+      return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+
     class Iter implements Iterator<C> {
       private final Iterator<A> a = requireNonNull(as.iterator(), "as iterator must not be null.");
       private final Iterator<B> b = requireNonNull(bs.iterator(), "bs iterator must not be null.");
@@ -670,6 +1039,10 @@ public class Iterables {
    * @since 2.3
    */
   public static <A> Iterable<A> intersperse(final Iterable<? extends A> as, final Supplier<A> a) {
+    if (as instanceof RandomAccess && as instanceof List) {
+      final List<? extends A> list = (List<? extends A>) as;
+      return new IndexedView<A>(() -> list.isEmpty() ? 0 : 2 * list.size() - 1, i -> (i % 2 == 0) ? list.get(i / 2) : a.get());
+    }
     return new Intersperse<>(as, a);
   }
 
@@ -699,6 +1072,385 @@ public class Iterables {
         }
       };
     }
+
+    @Override public Spliterator<A> spliterator() {
+      return new Split<>(as.spliterator(), a, false);
+    }
+
+    static final class Split<A> implements Spliterator<A>, Consumer<A> {
+      private final Spliterator<? extends A> s;
+      private final Supplier<A> a;
+      /** whether a separator goes before the next source element */
+      private boolean leading;
+      private boolean hasPending;
+      private A pending;
+
+      Split(final Spliterator<? extends A> s, final Supplier<A> a, final boolean leading) {
+        this.s = s;
+        this.a = a;
+        this.leading = leading;
+      }
+
+      @Override public void accept(final A next) {
+        pending = next;
+        hasPending = true;
+      }
+
+      @Override public boolean tryAdvance(final Consumer<? super A> action) {
+        if (hasPending) {
+          final A next = pending;
+          pending = null;
+          hasPending = false;
+          action.accept(next);
+          return true;
+        }
+        if (!s.tryAdvance(this)) {
+          return false;
+        }
+        if (leading) {
+          action.accept(a.get());
+          return true;
+        }
+        leading = true;
+        return tryAdvance(action);
+      }
+
+      @Override public Spliterator<A> trySplit() {
+        if (hasPending) {
+          return null;
+        }
+        final Spliterator<? extends A> prefix = s.trySplit();
+        if (prefix == null) {
+          return null;
+        }
+        final Split<A> result = new Split<>(prefix, a, leading);
+        leading = true;
+        return result;
+      }
+
+      @Override public long estimateSize() {
+        final long n = s.estimateSize();
+        if (n >= Long.MAX_VALUE / 2) {
+          return Long.MAX_VALUE;
+        }
+        final long separated = (n == 0 || leading) ? 2 * n : 2 * n - 1;
+        return separated + (hasPending ? 1 : 0);
+      }
+
+      @Override public int characteristics() {
+        return s.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+      }
+    }
+  }
+
+  /**
+   * Split an iterable into chunks of {@code size} elements, the last chunk
+   * holds the remaining elements and may be smaller. Chunks are computed
+   * lazily, so this works on infinite iterables.
+   *
+   * @param <A> the type of the elements
+   * @param size the number of elements in each chunk, must be positive
+   * @param as the source iterable, must not be null
+   * @return an iterable of new, read only, array backed lists of exactly the
+   * size of the chunk
+   * @since 5.0
+   */
+  public static <A> Iterable<List<A>> grouped(final int size, final Iterable<A> as) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    requireNonNull(as);
+    return new IterableToString<List<A>>() {
+      @Override public Iterator<List<A>> iterator() {
+        return new Iterators.Abstract<List<A>>() {
+          private final Iterator<A> it = as.iterator();
+
+          @Override protected List<A> computeNext() {
+            if (!it.hasNext()) {
+              return endOfData();
+            }
+            // grow up to size rather than allocating it, as the source may
+            // run out long before a large chunk is full
+            Object[] chunk = new Object[Math.min(size, 1024)];
+            int n = 0;
+            while (n < size && it.hasNext()) {
+              if (n == chunk.length) {
+                chunk = Arrays.copyOf(chunk, (int) Math.min((long) n << 1, size));
+              }
+              chunk[n++] = it.next();
+            }
+            return chunk(n == chunk.length ? chunk : Arrays.copyOf(chunk, n));
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Windows of {@code size} consecutive elements, each window starting
+   * {@code step} elements after the previous one. The last window may be
+   * smaller if the elements run out, but it is only returned if it contains
+   * elements that are not in the previous window. Windows are computed lazily,
+   * so this works on infinite iterables.
+   *
+   * @param <A> the type of the elements
+   * @param size the number of elements in each window, must be positive
+   * @param step the distance between the start of consecutive windows, must be
+   * positive
+   * @param as the source iterable, must not be null
+   * @return an iterable of new, read only, array backed lists of exactly the
+   * size of the window
+   * @since 5.0
+   */
+  public static <A> Iterable<List<A>> sliding(final int size, final int step, final Iterable<A> as) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    if (step <= 0) {
+      throw new IllegalArgumentException("Step must be positive");
+    }
+    requireNonNull(as);
+    return new IterableToString<List<A>>() {
+      @Override public Iterator<List<A>> iterator() {
+        return new Iterators.Abstract<List<A>>() {
+          private final Iterator<A> it = as.iterator();
+          private final ArrayDeque<A> window = new ArrayDeque<>(Math.min(size, 1024));
+          private boolean first = true;
+
+          @Override protected List<A> computeNext() {
+            if (!first) {
+              int skip = step;
+              for (; skip > 0 && !window.isEmpty(); skip--) {
+                window.removeFirst();
+              }
+              for (; skip > 0 && it.hasNext(); skip--) {
+                it.next();
+              }
+            }
+            int added = 0;
+            for (; window.size() < size && it.hasNext(); added++) {
+              window.addLast(it.next());
+            }
+            if (added == 0) {
+              return endOfData();
+            }
+            first = false;
+            return chunk(window.toArray());
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Group consecutive elements that have equal keys. Unlike a grouping
+   * collector elements with the same key that are not adjacent end up in
+   * different groups, which means the groups are computed lazily and this works
+   * on infinite iterables.
+   *
+   * @param <A> the type of the elements
+   * @param <K> the type of the key
+   * @param as the source iterable, must not be null
+   * @param key computes the key of an element, must not be null
+   * @return an iterable of new, read only, array backed lists of adjacent
+   * elements with equal keys
+   * @since 5.0
+   */
+  public static <A, K> Iterable<List<A>> groupAdjacentBy(final Iterable<A> as, final Function<? super A, ? extends K> key) {
+    requireNonNull(as);
+    requireNonNull(key);
+    return new IterableToString<List<A>>() {
+      @Override public Iterator<List<A>> iterator() {
+        return new Iterators.Abstract<List<A>>() {
+          private final Iterator<A> it = as.iterator();
+          private boolean hasPending;
+          private A pending;
+          private K pendingKey;
+
+          @Override protected List<A> computeNext() {
+            if (!hasPending) {
+              if (!it.hasNext()) {
+                return endOfData();
+              }
+              pending = it.next();
+              pendingKey = key.apply(pending);
+            }
+            final List<A> group = new ArrayList<>();
+            final K groupKey = pendingKey;
+            group.add(pending);
+            hasPending = false;
+            while (it.hasNext()) {
+              final A a = it.next();
+              final K k = key.apply(a);
+              if (!Objects.equals(groupKey, k)) {
+                pending = a;
+                pendingKey = k;
+                hasPending = true;
+                break;
+              }
+              group.add(a);
+            }
+            return chunk(group.toArray());
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Batch an iterable, typically a blocking one such as a queue consumer, for
+   * bulk processing. A batch is complete once it holds {@code size} elements,
+   * or once {@code maxAge} has passed since its first element was taken,
+   * whichever comes first. The age is checked before each element is requested,
+   * so a source that blocks in {@link Iterator#hasNext()} delays the batch
+   * until it returns. Batches are computed lazily, so this works on infinite
+   * iterables.
+   *
+   * @param <A> the type of the elements
+   * @param size the maximum number of elements in a batch, must be positive
+   * @param maxAge the maximum time between taking the first element of a batch
+   * and completing it, must not be null or negative
+   * @param as the source iterable, must not be null
+   * @return an iterable of new, read only, array backed lists of exactly the
+   * size of the batch
+   * @since 5.0
+   */
+  public static <A> Iterable<List<A>> batched(final int size, final Duration maxAge, final Iterable<A> as) {
+    return batched(size, maxAge, as, System::nanoTime);
+  }
+
+  static <A> Iterable<List<A>> batched(final int size, final Duration maxAge, final Iterable<A> as, final LongSupplier nanoTime) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    if (requireNonNull(maxAge).isNegative()) {
+      throw new IllegalArgumentException("Max age must not be negative");
+    }
+    requireNonNull(as);
+    final long maxAgeNanos = maxAge.toNanos();
+    return new IterableToString<List<A>>() {
+      @Override public Iterator<List<A>> iterator() {
+        return new Iterators.Abstract<List<A>>() {
+          private final Iterator<A> it = as.iterator();
+
+          @Override protected List<A> computeNext() {
+            if (!it.hasNext()) {
+              return endOfData();
+            }
+            final List<A> batch = new ArrayList<>(Math.min(size, 1024));
+            batch.add(it.next());
+            final long start = nanoTime.getAsLong();
+            while (batch.size() < size && nanoTime.getAsLong() - start < maxAgeNanos && it.hasNext()) {
+              batch.add(it.next());
+            }
+            return chunk(batch.toArray());
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * @return a read only list backed by {@code elements}, which must only
+   * contain elements of type {@code A} and must not be modified
+   */
+  private static <A> List<A> chunk(final Object[] elements) {
+    @SuppressWarnings("unchecked")
+    final List<A> result = (List<A>) unmodifiableList(asList(elements));
+    return result;
+  }
+
+  /**
+   * Lazily computes the running results of a left fold: {@code zero},
+   * {@code f(zero, a1)}, {@code f(f(zero, a1), a2)} and so on. The result has
+   * one more element than {@code as}, and the last element is the result of
+   * {@link Functions#fold}.
+   *
+   * @param <A> the type of the elements
+   * @param <B> the type of the results
+   * @param as the source iterable, must not be null
+   * @param zero the initial value
+   * @param f the folding function, must not be null
+   * @return a lazy iterable of the intermediate results
+   * @since 5.0
+   */
+  public static <A, B> Iterable<B> scanLeft(final Iterable<A> as, final B zero, final BiFunction<? super B, ? super A, ? extends B> f) {
+    requireNonNull(as);
+    requireNonNull(f);
+    return new IterableToString<B>() {
+      @Override public Iterator<B> iterator() {
+        return new Iterators.Abstract<B>() {
+          private final Iterator<A> it = as.iterator();
+          private boolean started;
+          private B acc = zero;
+
+          @Override protected B computeNext() {
+            if (!started) {
+              started = true;
+              return acc;
+            }
+            if (!it.hasNext()) {
+              return endOfData();
+            }
+            acc = f.apply(acc, it.next());
+            return acc;
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Lazily computes the running sums of {@code as}: {@code a1}, {@code a1 + a2}
+   * , {@code a1 + a2 + a3} and so on. The result has as many elements as
+   * {@code as}.
+   *
+   * @param <A> the type of the elements
+   * @param as the source iterable, must not be null
+   * @param monoid used to sum the elements, must not be null
+   * @return a lazy iterable of the running sums
+   * @see #parallelPrefix(List, Monoid) to compute all the sums of a list in
+   * parallel
+   * @since 5.0
+   */
+  public static <A> Iterable<A> scan(final Iterable<A> as, final Monoid<A> monoid) {
+    return drop(1, scanLeft(as, monoid.zero(), monoid::append));
+  }
+
+  /**
+   * Computes the running sums of {@code as}, as {@link #scan(Iterable, Monoid)}
+   * does, in parallel on the common fork/join pool. This relies on the
+   * associativity of {@code monoid} and performs about twice as many appends as
+   * a sequential scan.
+   *
+   * @param <A> the type of the elements
+   * @param as the source list, must not be null and should be random access
+   * @param monoid used to sum the elements, must not be null
+   * @return a read only list of the running sums
+   * @since 5.0
+   */
+  public static <A> List<A> parallelPrefix(final List<A> as, final Monoid<A> monoid) {
+    return parallelPrefix(as, monoid, ForkJoinPool.commonPool(), 1 << 12);
+  }
+
+  /**
+   * Computes the running sums of {@code as}, as {@link #scan(Iterable, Monoid)}
+   * does, in parallel. The list is split into blocks of at most
+   * {@code threshold} elements; the blocks are summed in parallel, then each
+   * block is scanned in parallel starting from the sum of the blocks before it.
+   *
+   * @param <A> the type of the elements
+   * @param as the source list, must not be null and should be random access
+   * @param monoid used to sum the elements, must not be null
+   * @param pool the pool to run on, must not be null
+   * @param threshold the maximum number of elements summed sequentially, must
+   * be positive
+   * @return a read only list of the running sums
+   * @since 5.0
+   */
+  public static <A> List<A> parallelPrefix(final List<A> as, final Monoid<A> monoid, final ForkJoinPool pool, final int threshold) {
+    ForkJoinMonoids.checkThreshold(threshold);
+    return ForkJoinMonoids.prefix(requireNonNull(monoid), requireNonNull(as), requireNonNull(pool), threshold);
   }
 
   /**
@@ -714,6 +1466,8 @@ public class Iterables {
   public static <A> int size(final Iterable<A> as) {
     if (as instanceof Collection) {
       return ((Collection<?>) as).size();
+    } else if (as instanceof Vector) {
+      return ((Vector<?>) as).size();
     } else {
       final Iterator<A> iterator = as.iterator();
       int count = 0;
@@ -754,6 +1508,10 @@ public class Iterables {
    * @since 3.0
    */
   public static <A, B> Iterable<B> map(final Iterable<A> as, final Function<? super A, ? extends B> f) {
+    if (as instanceof RandomAccess && as instanceof List) {
+      final List<A> list = (List<A>) as;
+      return new IndexedView<>(list::size, i -> f.apply(list.get(i)));
+    }
     return new Mapped<>(as, f);
   }
 
@@ -778,6 +1536,41 @@ public class Iterables {
         }
       };
     }
+
+    @Override public Spliterator<B> spliterator() {
+      return new Split<>(as.spliterator(), f);
+    }
+
+    static final class Split<A, B> implements Spliterator<B> {
+      private final Spliterator<? extends A> s;
+      private final Function<? super A, ? extends B> f;
+
+      Split(final Spliterator<? extends A> s, final Function<? super A, ? extends B> f) {
+        this.s = s;
+        this.f = f;
+      }
+
+      @Override public boolean tryAdvance(final Consumer<? super B> action) {
+        return s.tryAdvance(a -> action.accept(f.apply(a)));
+      }
+
+      @Override public void forEachRemaining(final Consumer<? super B> action) {
+        s.forEachRemaining(a -> action.accept(f.apply(a)));
+      }
+
+      @Override public Spliterator<B> trySplit() {
+        final Spliterator<? extends A> prefix = s.trySplit();
+        return prefix == null ? null : new Split<A, B>(prefix, f);
+      }
+
+      @Override public long estimateSize() {
+        return s.estimateSize();
+      }
+
+      @Override public int characteristics() {
+        return s.characteristics() & ~(Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL);
+      }
+    }
   }
 
   /**
@@ -822,6 +1615,72 @@ public class Iterables {
         }
       };
     }
+
+    @Override public Spliterator<A> spliterator() {
+      return new Split<>(as.spliterator(), p);
+    }
+
+    static final class Split<A> implements Spliterator<A>, Consumer<A> {
+      private final Spliterator<? extends A> s;
+      private final Predicate<? super A> p;
+      private A current;
+
+      Split(final Spliterator<? extends A> s, final Predicate<? super A> p) {
+        this.s = s;
+        this.p = p;
+      }
+
+      @Override public void accept(final A a) {
+        current = a;
+      }
+
+      @Override public boolean tryAdvance(final Consumer<? super A> action) {
+        while (s.tryAdvance(this)) {
+          final A a = current;
+          current = null;
+          if (p.test(a)) {
+            action.accept(a);
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override public void forEachRemaining(final Consumer<? super A> action) {
+        s.forEachRemaining(a -> {
+          if (p.test(a)) {
+            action.accept(a);
+          }
+        });
+      }
+
+      @Override public Spliterator<A> trySplit() {
+        final Spliterator<? extends A> prefix = s.trySplit();
+        return prefix == null ? null : new Split<A>(prefix, p);
+      }
+
+      /**
+       * @return the size of the source, an upper bound
+       */
+      @Override public long estimateSize() {
+        return s.estimateSize();
+      }
+
+      /**
+       * the characteristics of the source, which a filter keeps except for its
+       * size
+       */
+      @Override public int characteristics() {
+        return s.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+      }
+
+      @Override public Comparator<? super A> getComparator() {
+        // the source's elements are As, so its comparator compares As
+        @SuppressWarnings("unchecked")
+        final Comparator<? super A> comparator = (Comparator<? super A>) s.getComparator();
+        return comparator;
+      }
+    }
   }
 
   /**
@@ -852,23 +1711,170 @@ public class Iterables {
       return new Iter<>(ias);
     }
 
-    static class Iter<A> extends Iterators.Abstract<A> {
-      final Queue<Iterator<? extends A>> qas = new LinkedList<>();
+    /**
+     * Joins over collections, which is what {@link #concat(Iterable[])} and
+     * {@link Monoids#iterable()} build, are flattened into their leaves first
+     * so that the spliterator splits evenly however the joins are nested.
+     */
+    @Override public Spliterator<A> spliterator() {
+      if (!(ias instanceof Collection)) {
+        return new Split<>(ias.spliterator(), null, Long.MAX_VALUE, false);
+      }
+      final List<Iterable<? extends A>> leaves = new ArrayList<>();
+      final Deque<Iterator<? extends Iterable<? extends A>>> path = new ArrayDeque<>();
+      path.push(ias.iterator());
+      while (!path.isEmpty()) {
+        final Iterator<? extends Iterable<? extends A>> it = path.peek();
+        if (!it.hasNext()) {
+          path.pop();
+        } else {
+          final Iterable<? extends A> as = requireNonNull(it.next());
+          if (as instanceof Join && ((Join<?>) as).ias instanceof Collection) {
+            // a join nested in a join of A contains elements of type A
+            @SuppressWarnings("unchecked")
+            final Join<A> inner = (Join<A>) as;
+            path.push(inner.ias.iterator());
+          } else {
+            leaves.add(as);
+          }
+        }
+      }
+      // collections know their size, so a join of them does too
+      long size = 0;
+      for (final Iterable<? extends A> as : leaves) {
+        if (!(as instanceof Collection)) {
+          return new Split<>(leaves.spliterator(), null, Long.MAX_VALUE, false);
+        }
+        size += ((Collection<?>) as).size();
+      }
+      return new Split<>(leaves.spliterator(), null, size, true);
+    }
+
+    /**
+     * Splits the outer iterable, the inner iterables are only split once the
+     * outer one can not be split any further. A join of collections is sized
+     * until it is split, after which the size of each part is an estimate.
+     */
+    static final class Split<A> implements Spliterator<A> {
+      private final Spliterator<? extends Iterable<? extends A>> outer;
+      private Spliterator<? extends A> current;
+      /** The remaining size, exact if sized, {@code Long.MAX_VALUE} if unknown. */
+      private long size;
+      private boolean sized;
+
+      Split(final Spliterator<? extends Iterable<? extends A>> outer, final Spliterator<? extends A> current, final long size, final boolean sized) {
+        this.outer = outer;
+        this.current = current;
+        this.size = size;
+        this.sized = sized;
+      }
 
-      public Iter(final Iterable<? extends Iterable<? extends A>> ias) {
-        for (final Iterable<? extends A> a : ias) {
-          qas.add(requireNonNull(a.iterator()));
+      @Override public boolean tryAdvance(final Consumer<? super A> action) {
+        while (current == null || !current.tryAdvance(action)) {
+          if (!outer.tryAdvance(as -> current = requireNonNull(as).spliterator())) {
+            return false;
+          }
         }
+        if (size != Long.MAX_VALUE && size > 0) {
+          size--;
+        }
+        return true;
       }
 
-      @Override protected A computeNext() {
-        while (!qas.isEmpty() && !qas.peek().hasNext()) {
-          qas.remove();
+      @Override public void forEachRemaining(final Consumer<? super A> action) {
+        if (current != null) {
+          current.forEachRemaining(action);
+          current = null;
         }
-        if (qas.isEmpty()) {
-          return endOfData();
+        outer.forEachRemaining(as -> as.forEach(action));
+        size = 0;
+      }
+
+      @Override public Spliterator<A> trySplit() {
+        final Spliterator<? extends Iterable<? extends A>> prefix = outer.trySplit();
+        if (prefix != null) {
+          final long half = size == Long.MAX_VALUE ? size : size >>> 1;
+          final Split<A> result = new Split<>(prefix, current, half, false);
+          current = null;
+          split(half);
+          return result;
         }
-        return qas.peek().next();
+        if (current == null && !outer.tryAdvance(as -> current = requireNonNull(as).spliterator())) {
+          return null;
+        }
+        if (outer.getExactSizeIfKnown() == 0) {
+          @SuppressWarnings("unchecked")
+          final Spliterator<A> result = (Spliterator<A>) current.trySplit();
+          if (result != null) {
+            split(result.estimateSize());
+          }
+          return result;
+        }
+        @SuppressWarnings("unchecked")
+        final Spliterator<A> result = (Spliterator<A>) current;
+        current = null;
+        split(result.estimateSize());
+        return result;
+      }
+
+      /**
+       * once split off, the size of the other part is only known as an
+       * estimate, so neither part is sized any more
+       */
+      private void split(final long splitOff) {
+        if (size != Long.MAX_VALUE) {
+          size = splitOff < size ? size - splitOff : 0;
+        }
+        sized = false;
+      }
+
+      @Override public long estimateSize() {
+        if (outer.getExactSizeIfKnown() == 0) {
+          return current == null ? 0 : current.estimateSize();
+        }
+        return size;
+      }
+
+      @Override public int characteristics() {
+        return (outer.characteristics() & Spliterator.ORDERED) | (sized ? Spliterator.SIZED : 0);
+      }
+    }
+
+    /**
+     * Walks a tree of nested joins depth first, keeping the path on the heap
+     * rather than nesting iterators, so deep trees (for example the result of
+     * repeatedly appending with {@link Monoids#iterable()}) cost constant stack
+     * and amortised constant time per element.
+     */
+    static final class Iter<A> extends Iterators.Abstract<A> {
+      private final Deque<Iterator<? extends Iterable<? extends A>>> path = new ArrayDeque<>();
+      private Iterator<? extends A> current = emptyIterator();
+
+      Iter(final Iterable<? extends Iterable<? extends A>> ias) {
+        path.push(ias.iterator());
+      }
+
+      @Override protected A computeNext() {
+        while (!current.hasNext()) {
+          final Iterator<? extends Iterable<? extends A>> it = path.peek();
+          if (it == null) {
+            return endOfData();
+          }
+          if (!it.hasNext()) {
+            path.pop();
+          } else {
+            final Iterable<? extends A> as = requireNonNull(it.next());
+            if (as instanceof Join) {
+              // a join nested in a join of A contains elements of type A
+              @SuppressWarnings("unchecked")
+              final Join<A> inner = (Join<A>) as;
+              path.push(inner.ias.iterator());
+            } else {
+              current = requireNonNull(as.iterator());
+            }
+          }
+        }
+        return current.next();
       }
     }
   }
@@ -924,6 +1930,8 @@ public class Iterables {
    * @param start The value to begin iterating from.
    * @return An infinite Iterable of repeated applications of {@code f} to
    * {@code start}.
+   * @see LazyList#iterate(Function, Object) for a version that applies
+   * {@code f} at most once per element
    * @since 2.4
    */
   public static <A> Iterable<A> iterate(final Function<? super A, ? extends A> f, final A start) {
@@ -980,6 +1988,8 @@ public class Iterables {
    * return a pair containing null.
    * @param seed The start value to begin the unfold.
    * @return An Iterable that is a result of unfolding.
+   * @see LazyList#unfold(Function, Object) for a version that applies {@code f}
+   * at most once per element
    * @since 2.4
    */
   public static <A, B> Iterable<A> unfold(final Function<? super B, Option<Pair<A, B>>> f, final B seed) {
@@ -1085,6 +2095,57 @@ public class Iterables {
       return new Iter<>(xss, comparator);
     }
 
+    /**
+     * Merging can not be split, so this batches the merged iterator but keeps
+     * the size when all of the sources are collections and reports the
+     * ordering.
+     */
+    @Override public Spliterator<A> spliterator() {
+      long size = 0;
+      for (final Iterable<A> xs : xss) {
+        if (!(xs instanceof Collection)) {
+          return new Sorted<>(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), comparator);
+        }
+        size += ((Collection<?>) xs).size();
+      }
+      return new Sorted<>(Spliterators.spliterator(iterator(), size, Spliterator.ORDERED), comparator);
+    }
+
+    static final class Sorted<A> implements Spliterator<A> {
+      private final Spliterator<A> s;
+      private final Comparator<A> comparator;
+
+      Sorted(final Spliterator<A> s, final Comparator<A> comparator) {
+        this.s = s;
+        this.comparator = comparator;
+      }
+
+      @Override public boolean tryAdvance(final Consumer<? super A> action) {
+        return s.tryAdvance(action);
+      }
+
+      @Override public void forEachRemaining(final Consumer<? super A> action) {
+        s.forEachRemaining(action);
+      }
+
+      @Override public Spliterator<A> trySplit() {
+        final Spliterator<A> prefix = s.trySplit();
+        return prefix == null ? null : new Sorted<>(prefix, comparator);
+      }
+
+      @Override public long estimateSize() {
+        return s.estimateSize();
+      }
+
+      @Override public int characteristics() {
+        return s.characteristics() | Spliterator.SORTED;
+      }
+
+      @Override public Comparator<? super A> getComparator() {
+        return comparator;
+      }
+    }
+
     private static final class Iter<A> extends Iterators.Abstract<A> {
       private final TreeSet<Iterators.Peeking<A>> xss;
 
@@ -1161,6 +2222,14 @@ public class Iterables {
       return new Iter<>(as);
     }
 
+    /**
+     * A cycle is infinite unless the source is empty, so it is split by
+     * batching its iterator rather than by splitting the source.
+     */
+    @Override public Spliterator<A> spliterator() {
+      return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+    }
+
     static final class Iter<A> extends Iterators.Abstract<A> {
       Iterable<? extends A> as;
       Iterator<? extends A> ias;
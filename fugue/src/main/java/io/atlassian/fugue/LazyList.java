@@ -0,0 +1,476 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static io.atlassian.fugue.Iterables.makeString;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A lazy, persistent, singly linked list. Each cell is computed at most once,
+ * on first access, and then memoized; all consumers of the same list share the
+ * computed cells, so the generator behind a list (for example
+ * {@link #iterate(Function, Object)} or {@link #unfold(Function, Object)}) runs
+ * at most once per element.
+ * <p>
+ * Operations such as {@link #map(Function)}, {@link #filter(Predicate)},
+ * {@link #flatMap(Function)}, {@link #take(int)}, {@link #drop(int)} and
+ * {@link #zip(LazyList)} are lazy and evaluate their source one cell at a time
+ * using loops, so they do not consume stack proportional to the length of the
+ * list. Note that holding on to the head of a list retains every cell that has
+ * been computed so far.
+ * <p>
+ * Cells are computed under a per-cell lock, so a list may be shared between
+ * threads.
+ *
+ * @param <A> the element type
+ * @since 5.0
+ */
+public final class LazyList<A> implements Iterable<A> {
+  private static final Cell<?> END = new Cell<>(null, null);
+  private static final LazyList<?> EMPTY = new LazyList<>(END);
+
+  /** Computes the cell; null once {@link #cell} has been set. */
+  private volatile Supplier<Cell<A>> thunk;
+  private Cell<A> cell;
+
+  private LazyList(final Supplier<Cell<A>> thunk) {
+    this.thunk = thunk;
+  }
+
+  private LazyList(final Cell<A> cell) {
+    this.cell = cell;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * @param <A> the element type
+   * @return the empty list
+   */
+  public static <A> LazyList<A> empty() {
+    @SuppressWarnings("unchecked")
+    final LazyList<A> result = (LazyList<A>) EMPTY;
+    return result;
+  }
+
+  /**
+   * Prepends an element to a list in constant time.
+   *
+   * @param <A> the element type
+   * @param head the first element
+   * @param tail the rest of the list, must not be null
+   * @return a list starting with {@code head}
+   */
+  public static <A> LazyList<A> cons(final A head, final LazyList<A> tail) {
+    return new LazyList<>(new Cell<>(head, requireNonNull(tail)));
+  }
+
+  /**
+   * Prepends an element to a lazily computed list.
+   *
+   * @param <A> the element type
+   * @param head the first element
+   * @param tail computes the rest of the list on first access, must not be null
+   * or return null
+   * @return a list starting with {@code head}
+   */
+  public static <A> LazyList<A> cons(final A head, final Supplier<LazyList<A>> tail) {
+    return cons(head, defer(tail));
+  }
+
+  /**
+   * A list whose contents are computed on first access.
+   *
+   * @param <A> the element type
+   * @param list computes the list, must not be null or return null
+   * @return a list that defers to the computed list
+   */
+  public static <A> LazyList<A> defer(final Supplier<LazyList<A>> list) {
+    requireNonNull(list);
+    return new LazyList<>(() -> list.get().force());
+  }
+
+  /**
+   * @param <A> the element type
+   * @param as the elements
+   * @return a list of the elements
+   */
+  @SafeVarargs public static <A> LazyList<A> lazyList(final A... as) {
+    return fromIterable(Arrays.asList(as));
+  }
+
+  /**
+   * A list that lazily pulls elements from a single iterator over {@code as}.
+   * The source is traversed at most once, however many times the list is.
+   *
+   * @param <A> the element type
+   * @param as the source, must not be null
+   * @return a list of the elements of {@code as}
+   */
+  public static <A> LazyList<A> fromIterable(final Iterable<? extends A> as) {
+    if (as instanceof LazyList) {
+      @SuppressWarnings("unchecked")
+      final LazyList<A> list = (LazyList<A>) as;
+      return list;
+    }
+    requireNonNull(as);
+    return defer(() -> fromIterator(as.iterator()));
+  }
+
+  private static <A> LazyList<A> fromIterator(final Iterator<? extends A> it) {
+    return new LazyList<>(() -> it.hasNext() ? new Cell<>(it.next(), fromIterator(it)) : end());
+  }
+
+  /**
+   * The infinite list {@code start, f(start), f(f(start)), ...}. Each
+   * application of {@code f} happens at most once.
+   *
+   * @param <A> the element type
+   * @param f the iteration function
+   * @param start the first element
+   * @return an infinite list
+   * @see Iterables#iterate(Function, Object) for a non memoizing equivalent
+   */
+  public static <A> LazyList<A> iterate(final Function<? super A, ? extends A> f, final A start) {
+    requireNonNull(f);
+    return cons(start, () -> iterate(f, f.apply(start)));
+  }
+
+  /**
+   * Builds a list from a seed value until {@code f} returns {@code none()}.
+   * Each application of {@code f} happens at most once.
+   *
+   * @param <A> the element type
+   * @param <B> the seed type
+   * @param f returns the next element and the next seed, or none when done
+   * @param seed the initial seed
+   * @return the unfolded list
+   * @see Iterables#unfold(Function, Object) for a non memoizing equivalent
+   */
+  public static <A, B> LazyList<A> unfold(final Function<? super B, Option<Pair<A, B>>> f, final B seed) {
+    requireNonNull(f);
+    return new LazyList<>(() -> f.apply(seed).fold(LazyList::<A> end, p -> new Cell<>(p.left(), unfold(f, p.right()))));
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @return true if the list has no elements, forces the first cell
+   */
+  public boolean isEmpty() {
+    return force() == END;
+  }
+
+  /**
+   * @return the first element, or none if the list is empty
+   */
+  public Option<A> head() {
+    final Cell<A> c = force();
+    return c == END ? Option.none() : Option.some(c.head);
+  }
+
+  /**
+   * @return the list without its first element, empty if the list is empty
+   */
+  public LazyList<A> tail() {
+    final Cell<A> c = force();
+    return c == END ? this : c.tail;
+  }
+
+  /**
+   * @return the number of elements, forcing the whole list
+   */
+  public int size() {
+    int n = 0;
+    for (LazyList<A> l = this; l.force() != END; l = l.cell.tail) {
+      n++;
+    }
+    return n;
+  }
+
+  //
+  // lazy transformations
+  //
+
+  /**
+   * @param <B> the result type
+   * @param f function applied at most once to each element when it is first
+   * accessed
+   * @return the lazily mapped list
+   */
+  public <B> LazyList<B> map(final Function<? super A, ? extends B> f) {
+    requireNonNull(f);
+    return new LazyList<>(() -> {
+      final Cell<A> c = force();
+      return c == END ? end() : new Cell<>(f.apply(c.head), c.tail.map(f));
+    });
+  }
+
+  /**
+   * @param p the predicate to keep elements by
+   * @return the lazily filtered list
+   */
+  public LazyList<A> filter(final Predicate<? super A> p) {
+    requireNonNull(p);
+    return new LazyList<>(() -> {
+      for (LazyList<A> l = this;; l = l.cell.tail) {
+        final Cell<A> c = l.force();
+        if (c == END) {
+          return end();
+        }
+        if (p.test(c.head)) {
+          return new Cell<>(c.head, c.tail.filter(p));
+        }
+      }
+    });
+  }
+
+  /**
+   * @param <B> the result type
+   * @param f function returning the elements to substitute for each element
+   * @return the lazily flattened list
+   */
+  public <B> LazyList<B> flatMap(final Function<? super A, ? extends Iterable<? extends B>> f) {
+    requireNonNull(f);
+    return new LazyList<>(() -> {
+      for (LazyList<A> l = this;; l = l.cell.tail) {
+        final Cell<A> c = l.force();
+        if (c == END) {
+          return end();
+        }
+        final LazyList<B> inner = fromIterable(f.apply(c.head));
+        final Cell<B> first = inner.force();
+        if (first != END) {
+          final LazyList<A> rest = c.tail;
+          return new Cell<>(first.head, first.tail.concat(() -> rest.flatMap(f)));
+        }
+      }
+    });
+  }
+
+  /**
+   * @param n the maximum number of elements, must not be negative
+   * @return the first {@code n} elements of the list
+   */
+  public LazyList<A> take(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot take a negative number of elements");
+    }
+    if (n == 0) {
+      return empty();
+    }
+    return new LazyList<>(() -> {
+      final Cell<A> c = force();
+      return c == END ? end() : new Cell<>(c.head, c.tail.take(n - 1));
+    });
+  }
+
+  /**
+   * @param p the predicate elements must satisfy
+   * @return the longest prefix of elements satisfying {@code p}
+   */
+  public LazyList<A> takeWhile(final Predicate<? super A> p) {
+    requireNonNull(p);
+    return new LazyList<>(() -> {
+      final Cell<A> c = force();
+      return (c == END || !p.test(c.head)) ? end() : new Cell<>(c.head, c.tail.takeWhile(p));
+    });
+  }
+
+  /**
+   * @param n the number of elements to skip, must not be negative
+   * @return the list without its first {@code n} elements
+   */
+  public LazyList<A> drop(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot drop a negative number of elements");
+    }
+    if (n == 0) {
+      return this;
+    }
+    return new LazyList<>(() -> {
+      LazyList<A> l = this;
+      for (int i = 0; i < n && l.force() != END; i++) {
+        l = l.cell.tail;
+      }
+      return l.force();
+    });
+  }
+
+  /**
+   * @param p the predicate for elements to skip
+   * @return the list without its longest prefix satisfying {@code p}
+   */
+  public LazyList<A> dropWhile(final Predicate<? super A> p) {
+    requireNonNull(p);
+    return new LazyList<>(() -> {
+      LazyList<A> l = this;
+      while (l.force() != END && p.test(l.cell.head)) {
+        l = l.cell.tail;
+      }
+      return l.force();
+    });
+  }
+
+  /**
+   * @param <B> the other element type
+   * @param bs the list to pair elements with
+   * @return a list of pairs, as long as the shorter of the two lists
+   */
+  public <B> LazyList<Pair<A, B>> zip(final LazyList<B> bs) {
+    return zipWith(bs, Pair::pair);
+  }
+
+  /**
+   * @param <B> the other element type
+   * @param <C> the combined type
+   * @param bs the list to combine elements with
+   * @param f the combining function
+   * @return a list of combined elements, as long as the shorter of the two
+   * lists
+   */
+  public <B, C> LazyList<C> zipWith(final LazyList<B> bs, final BiFunction<? super A, ? super B, ? extends C> f) {
+    requireNonNull(bs);
+    requireNonNull(f);
+    return new LazyList<>(() -> {
+      final Cell<A> ca = force();
+      if (ca == END) {
+        return end();
+      }
+      final Cell<B> cb = bs.force();
+      return cb == END ? end() : new Cell<>(f.apply(ca.head, cb.head), ca.tail.zipWith(cb.tail, f));
+    });
+  }
+
+  /**
+   * @param that the list to follow this one
+   * @return this list followed by {@code that}
+   */
+  public LazyList<A> concat(final LazyList<A> that) {
+    requireNonNull(that);
+    return concat(() -> that);
+  }
+
+  private LazyList<A> concat(final Supplier<LazyList<A>> that) {
+    return new LazyList<>(() -> {
+      final Cell<A> c = force();
+      return c == END ? that.get().force() : new Cell<>(c.head, c.tail.concat(that));
+    });
+  }
+
+  //
+  // strict operations
+  //
+
+  /**
+   * @param <B> the accumulator type
+   * @param zero the starting value
+   * @param f the accumulating function
+   * @return the accumulated value, forcing the whole list
+   */
+  public <B> B foldLeft(final B zero, final BiFunction<B, ? super A, B> f) {
+    B acc = zero;
+    for (final A a : this) {
+      acc = f.apply(acc, a);
+    }
+    return acc;
+  }
+
+  /**
+   * @return a new mutable list of all the elements
+   */
+  public List<A> toList() {
+    final List<A> list = new ArrayList<>();
+    Iterables.addAll(list, this);
+    return list;
+  }
+
+  @Override public Iterator<A> iterator() {
+    return new Iterators.Unmodifiable<A>() {
+      private LazyList<A> current = LazyList.this;
+
+      @Override public boolean hasNext() {
+        return current.force() != END;
+      }
+
+      @Override public A next() {
+        final Cell<A> c = current.force();
+        if (c == END) {
+          throw new NoSuchElementException();
+        }
+        current = c.tail;
+        return c.head;
+      }
+    };
+  }
+
+  /**
+   * Prints at most around 100 characters, so is safe on infinite lists.
+   */
+  @Override public String toString() {
+    return makeString(this, "[", ", ", "]", 100);
+  }
+
+  //
+  // implementation
+  //
+
+  private Cell<A> force() {
+    if (thunk != null) {
+      synchronized (this) {
+        final Supplier<Cell<A>> t = thunk;
+        if (t != null) {
+          cell = requireNonNull(t.get());
+          thunk = null;
+        }
+      }
+    }
+    return cell;
+  }
+
+  private static <A> Cell<A> end() {
+    @SuppressWarnings("unchecked")
+    final Cell<A> result = (Cell<A>) END;
+    return result;
+  }
+
+  /**
+   * An evaluated cell. {@link #END} marks the end of the list.
+   */
+  static final class Cell<A> {
+    final A head;
+    final LazyList<A> tail;
+
+    Cell(final A head, final LazyList<A> tail) {
+      this.head = head;
+      this.tail = tail;
+    }
+  }
+}
@@ -16,6 +16,10 @@
 
 package io.atlassian.fugue;
 
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+
 import static io.atlassian.fugue.Iterables.concat;
 import static io.atlassian.fugue.Pair.pair;
 import static java.util.Collections.singletonList;
@@ -73,6 +77,39 @@ public interface Monoid<A> extends Semigroup<A> {
     return (n <= 0) ? zero() : Semigroup.super.multiply1p(n - 1, a);
   }
 
+  /**
+   * Sums the given values in parallel, relying on associativity: the list is
+   * split in halves until the parts have at most {@code threshold} elements,
+   * parts are summed with {@link #sum(Iterable)} and the results are appended
+   * in order. Can be overriden for performance reason.
+   *
+   * @param as The values to sum, must not be null and should be random access.
+   * @param pool The pool to run on, must not be null.
+   * @param threshold The maximum number of values summed sequentially, must be
+   * positive.
+   * @return The sum of the given values.
+   * @since 5.0
+   */
+  default A sumParallel(final List<A> as, final ForkJoinPool pool, final int threshold) {
+    return ForkJoinMonoids.sum(this, as, pool, threshold);
+  }
+
+  /**
+   * Sums the given values in parallel on the common fork/join pool, relying on
+   * associativity: the spliterator is split until its parts are small enough to
+   * keep every worker busy, parts are summed with {@link #sum(Iterable)} and
+   * the results are appended in encounter order. If the spliterator is not
+   * {@link Spliterator#ORDERED} the order the values are appended in is
+   * unspecified.
+   *
+   * @param as The values to sum, must not be null.
+   * @return The sum of the given values.
+   * @since 5.0
+   */
+  default A sumParallel(final Spliterator<A> as) {
+    return ForkJoinMonoids.sum(this, as, ForkJoinPool.commonPool());
+  }
+
   // Derived methods: should not be overriden:
 
   /**
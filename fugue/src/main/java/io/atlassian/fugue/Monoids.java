@@ -19,6 +19,7 @@ package io.atlassian.fugue;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import static io.atlassian.fugue.Either.left;
@@ -290,9 +291,79 @@ public final class Monoids {
       @Override public List<A> zero() {
         return emptyList();
       }
+
+      @Override public List<A> sum(final Iterable<List<A>> ls) {
+        final List<A> result = new ArrayList<>();
+        for (final List<A> l : ls) {
+          result.addAll(l);
+        }
+        return result;
+      }
+
+      /**
+       * Allocates the result once and copies the lists into it in parallel.
+       */
+      @Override public List<A> sumParallel(final List<List<A>> ls, final ForkJoinPool pool, final int threshold) {
+        return ForkJoinMonoids.concat(ls, pool, threshold);
+      }
+    };
+  }
+
+  /**
+   * A monoid for persistent vectors. Appending shares structure with both
+   * arguments and costs O(log n) rather than copying either of them.
+   *
+   * @param <A> internal type
+   * @return A monoid for vectors.
+   * @since 5.0
+   */
+  public static <A> Monoid<Vector<A>> vector() {
+    return new Monoid<Vector<A>>() {
+      @Override public Vector<A> append(final Vector<A> v1, final Vector<A> v2) {
+        return v1.concat(v2);
+      }
+
+      @Override public Vector<A> zero() {
+        return Vector.empty();
+      }
     };
   }
 
+  /**
+   * A monoid for the union of persistent hash maps, where values of equal keys
+   * are combined with the given semigroup.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   * @param semigroup combines the values of keys present in both maps
+   * @return A monoid for hash maps.
+   * @since 5.0
+   */
+  public static <K, V> Monoid<HashMap<K, V>> hashMap(final Semigroup<V> semigroup) {
+    return new Monoid<HashMap<K, V>>() {
+      @Override public HashMap<K, V> append(final HashMap<K, V> m1, final HashMap<K, V> m2) {
+        return m1.union(m2, semigroup);
+      }
+
+      @Override public HashMap<K, V> zero() {
+        return HashMap.empty();
+      }
+    };
+  }
+
+  /**
+   * A monoid for the union of persistent hash maps, where the right map's value
+   * wins for keys present in both maps.
+   *
+   * @param <K> key type
+   * @param <V> value type
+   * @return A monoid for hash maps.
+   * @since 5.0
+   */
+  public static <K, V> Monoid<HashMap<K, V>> hashMap() {
+    return hashMap(Semigroups.last());
+  }
+
   /**
    * A monoid for iterables.
    *
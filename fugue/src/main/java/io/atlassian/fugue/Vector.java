@@ -0,0 +1,863 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static io.atlassian.fugue.Iterables.makeString;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable, persistent indexed sequence with structural sharing.
+ * <p>
+ * Elements are stored in a 32-way relaxed radix balanced tree (RRB tree).
+ * Lookup, {@link #update(int, Object) update}, {@link #append(Object) append},
+ * {@link #prepend(Object) prepend} and {@link #concat(Vector) concat} are all
+ * O(log<sub>32</sub> n), and every modification shares all untouched nodes with
+ * the original vector, so older versions remain valid and cheap to keep.
+ * <p>
+ * Vectors do not accept null elements.
+ *
+ * @param <A> the element type
+ * @since 5.0
+ */
+public final class Vector<A> implements Iterable<A> {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+  /** Number of slots a rebalanced level may exceed the optimum by. */
+  private static final int EXTRAS = 2;
+
+  private static final Object[] EMPTY_LEAF = new Object[0];
+  private static final Vector<?> EMPTY = new Vector<>(EMPTY_LEAF, 0, 0);
+
+  /** A leaf {@code Object[]} when height is zero, otherwise a {@link Node}. */
+  private final Object root;
+  private final int height;
+  private final int size;
+
+  private Vector(final Object root, final int height, final int size) {
+    this.root = root;
+    this.height = height;
+    this.size = size;
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * The empty vector.
+   *
+   * @param <A> the element type
+   * @return an empty vector
+   */
+  public static <A> Vector<A> empty() {
+    @SuppressWarnings("unchecked")
+    final Vector<A> result = (Vector<A>) EMPTY;
+    return result;
+  }
+
+  /**
+   * Creates a vector containing the given elements in order.
+   *
+   * @param <A> the element type
+   * @param as the elements, must not be null and must not contain null
+   * @return a vector of the elements
+   */
+  @SafeVarargs public static <A> Vector<A> vector(final A... as) {
+    return Vector.<A> builder().addAll(Arrays.asList(as)).build();
+  }
+
+  /**
+   * Creates a vector containing the elements of the given iterable in iteration
+   * order. Returns the argument if it already is a vector.
+   *
+   * @param <A> the element type
+   * @param as the elements, must not be null and must not contain null
+   * @return a vector of the elements
+   */
+  public static <A> Vector<A> fromIterable(final Iterable<? extends A> as) {
+    if (as instanceof Vector) {
+      @SuppressWarnings("unchecked")
+      final Vector<A> v = (Vector<A>) as;
+      return v;
+    }
+    return Vector.<A> builder().addAll(as).build();
+  }
+
+  /**
+   * A mutable builder that constructs a fully packed vector in O(n).
+   *
+   * @param <A> the element type
+   * @return a new, empty builder
+   */
+  public static <A> Builder<A> builder() {
+    return new Builder<>();
+  }
+
+  //
+  // queries
+  //
+
+  /**
+   * @return the number of elements in this vector
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if this vector contains no elements
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the element at the given index.
+   *
+   * @param index the index, must be at least zero and less than {@link #size()}
+   * @return the element at the index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public A get(final int index) {
+    checkIndex(index);
+    Object node = root;
+    int i = index;
+    for (int h = height; h > 0; h--) {
+      final Node n = (Node) node;
+      final int slot = n.slotOf(h, i);
+      i -= n.offsetOf(h, slot);
+      node = n.children[slot];
+    }
+    @SuppressWarnings("unchecked")
+    final A a = (A) ((Object[]) node)[i];
+    return a;
+  }
+
+  /**
+   * Returns the element at the given index if there is one.
+   *
+   * @param index the index
+   * @return some element at the index, or none if the index is out of range
+   */
+  public Option<A> index(final int index) {
+    return (index < 0 || index >= size) ? Option.none() : Option.some(get(index));
+  }
+
+  //
+  // persistent updates
+  //
+
+  /**
+   * Returns a vector with the element at {@code index} replaced.
+   *
+   * @param index the index to replace, must be at least zero and less than
+   * {@link #size()}
+   * @param a the new element, must not be null
+   * @return a vector sharing all but one root to leaf path with this one
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public Vector<A> update(final int index, final A a) {
+    checkIndex(index);
+    return new Vector<>(updated(root, height, index, requireNonNull(a)), height, size);
+  }
+
+  /**
+   * Returns a vector with the element added to the end.
+   *
+   * @param a the element to add, must not be null
+   * @return a new vector one element longer than this one
+   */
+  public Vector<A> append(final A a) {
+    requireNonNull(a);
+    if (size == 0) {
+      return new Vector<>(new Object[] { a }, 0, 1);
+    }
+    final Object pushed = pushLast(root, height, a);
+    if (pushed != null) {
+      return new Vector<>(pushed, height, size + 1);
+    }
+    return new Vector<>(node(new Object[] { root, path(height, a) }, height + 1), height + 1, size + 1);
+  }
+
+  /**
+   * Returns a vector with the element added to the front.
+   *
+   * @param a the element to add, must not be null
+   * @return a new vector one element longer than this one
+   */
+  public Vector<A> prepend(final A a) {
+    requireNonNull(a);
+    if (size == 0) {
+      return new Vector<>(new Object[] { a }, 0, 1);
+    }
+    final Object pushed = pushFirst(root, height, a);
+    if (pushed != null) {
+      return new Vector<>(pushed, height, size + 1);
+    }
+    return new Vector<>(node(new Object[] { path(height, a), root }, height + 1), height + 1, size + 1);
+  }
+
+  /**
+   * Returns a vector with the elements of this vector followed by the elements
+   * of {@code that}. Only the nodes along the seam between the two trees are
+   * rebuilt.
+   *
+   * @param that the vector to append, must not be null
+   * @return the concatenation of the two vectors
+   */
+  public Vector<A> concat(final Vector<? extends A> that) {
+    if (that.isEmpty()) {
+      return this;
+    }
+    if (isEmpty()) {
+      @SuppressWarnings("unchecked")
+      final Vector<A> result = (Vector<A>) that;
+      return result;
+    }
+    final Node merged = concatSub(root, height, that.root, that.height);
+    return collapse(merged, Math.max(height, that.height) + 1, size + that.size);
+  }
+
+  /**
+   * Returns the first {@code n} elements of this vector.
+   *
+   * @param n number of elements to take, must not be negative
+   * @return a vector of at most {@code n} elements
+   */
+  public Vector<A> take(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot take a negative number of elements");
+    }
+    if (n >= size) {
+      return this;
+    }
+    if (n == 0) {
+      return empty();
+    }
+    return collapse(takeLeft(root, height, n), height, n);
+  }
+
+  /**
+   * Returns this vector without the first {@code n} elements.
+   *
+   * @param n number of elements to drop, must not be negative
+   * @return a vector of the remaining elements
+   */
+  public Vector<A> drop(final int n) {
+    if (n < 0) {
+      throw new IllegalArgumentException("Cannot drop a negative number of elements");
+    }
+    if (n >= size) {
+      return empty();
+    }
+    if (n == 0) {
+      return this;
+    }
+    return collapse(dropLeft(root, height, n), height, size - n);
+  }
+
+  //
+  // transformations
+  //
+
+  /**
+   * Applies the function to every element, preserving the shape of the tree.
+   *
+   * @param <B> the result element type
+   * @param f the function to apply, must not return null
+   * @return a vector of the results in the same order
+   */
+  public <B> Vector<B> map(final Function<? super A, ? extends B> f) {
+    requireNonNull(f);
+    return new Vector<>(mapped(root, height, f), height, size);
+  }
+
+  /**
+   * Folds the elements from left to right.
+   *
+   * @param <B> the accumulator type
+   * @param zero the starting value
+   * @param f the accumulating function
+   * @return the accumulated value
+   */
+  public <B> B foldLeft(final B zero, final BiFunction<B, ? super A, B> f) {
+    B acc = zero;
+    for (final A a : this) {
+      acc = f.apply(acc, a);
+    }
+    return acc;
+  }
+
+  @Override public Iterator<A> iterator() {
+    return new Iter();
+  }
+
+  @Override public Spliterator<A> spliterator() {
+    return new Split(0, size);
+  }
+
+  /**
+   * @return a new mutable list of the elements of this vector
+   */
+  public List<A> toList() {
+    final List<A> list = new ArrayList<>(size);
+    Iterables.addAll(list, this);
+    return list;
+  }
+
+  @Override public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Vector)) {
+      return false;
+    }
+    final Vector<?> that = (Vector<?>) o;
+    if (size != that.size) {
+      return false;
+    }
+    final Iterator<?> it = that.iterator();
+    for (final A a : this) {
+      if (!a.equals(it.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override public int hashCode() {
+    int hash = 1;
+    for (final A a : this) {
+      hash = 31 * hash + a.hashCode();
+    }
+    return hash;
+  }
+
+  @Override public String toString() {
+    return makeString(this, "[", ", ", "]");
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  //
+  // tree implementation
+  //
+
+  /**
+   * An internal tree node. Nodes whose children are all fully populated (except
+   * possibly the last) are indexed by radix and have no size table; other nodes
+   * carry cumulative child sizes.
+   */
+  static final class Node {
+    final Object[] children;
+    /** cumulative child sizes, or null when radix indexing is valid */
+    final int[] sizes;
+    final int size;
+
+    Node(final Object[] children, final int[] sizes, final int size) {
+      this.children = children;
+      this.sizes = sizes;
+      this.size = size;
+    }
+
+    int slotOf(final int height, final int index) {
+      final int shift = BITS * height;
+      if (sizes == null) {
+        return (index >>> shift) & MASK;
+      }
+      int slot = index >>> shift;
+      while (sizes[slot] <= index) {
+        slot++;
+      }
+      return slot;
+    }
+
+    int offsetOf(final int height, final int slot) {
+      if (sizes == null) {
+        return slot << (BITS * height);
+      }
+      return slot == 0 ? 0 : sizes[slot - 1];
+    }
+  }
+
+  /**
+   * Creates a node at {@code height} for the given children, computing a size
+   * table only if the children are not densely packed.
+   */
+  static Node node(final Object[] children, final int height) {
+    final int full = 1 << (BITS * height);
+    final int[] sizes = new int[children.length];
+    boolean dense = true;
+    int total = 0;
+    for (int i = 0; i < children.length; i++) {
+      final int s = sizeOf(children[i], height - 1);
+      if (s != full && i < children.length - 1) {
+        dense = false;
+      }
+      total += s;
+      sizes[i] = total;
+    }
+    return new Node(children, dense ? null : sizes, total);
+  }
+
+  static int sizeOf(final Object node, final int height) {
+    return height == 0 ? ((Object[]) node).length : ((Node) node).size;
+  }
+
+  /** Number of direct entries: elements for a leaf, children otherwise. */
+  private static int width(final Object node, final int height) {
+    return height == 0 ? ((Object[]) node).length : ((Node) node).children.length;
+  }
+
+  private static Object[] entries(final Object node, final int height) {
+    return height == 0 ? (Object[]) node : ((Node) node).children;
+  }
+
+  /** A single element wrapped in {@code height} levels of nodes. */
+  private static Object path(final int height, final Object a) {
+    Object node = new Object[] { a };
+    for (int h = 1; h <= height; h++) {
+      node = new Node(new Object[] { node }, null, 1);
+    }
+    return node;
+  }
+
+  private static <A> Vector<A> collapse(final Object node, final int height, final int size) {
+    Object root = node;
+    int h = height;
+    while (h > 0 && ((Node) root).children.length == 1) {
+      root = ((Node) root).children[0];
+      h--;
+    }
+    return new Vector<>(root, h, size);
+  }
+
+  private static Object updated(final Object node, final int height, final int index, final Object a) {
+    if (height == 0) {
+      final Object[] leaf = ((Object[]) node).clone();
+      leaf[index] = a;
+      return leaf;
+    }
+    final Node n = (Node) node;
+    final int slot = n.slotOf(height, index);
+    final Object[] children = n.children.clone();
+    children[slot] = updated(children[slot], height - 1, index - n.offsetOf(height, slot), a);
+    return new Node(children, n.sizes, n.size);
+  }
+
+  /** @return the node with {@code a} added at the end, or null if full */
+  private static Object pushLast(final Object node, final int height, final Object a) {
+    if (height == 0) {
+      final Object[] leaf = (Object[]) node;
+      if (leaf.length == WIDTH) {
+        return null;
+      }
+      final Object[] result = Arrays.copyOf(leaf, leaf.length + 1);
+      result[leaf.length] = a;
+      return result;
+    }
+    final Node n = (Node) node;
+    final int last = n.children.length - 1;
+    final Object pushed = pushLast(n.children[last], height - 1, a);
+    if (pushed != null) {
+      final Object[] children = n.children.clone();
+      children[last] = pushed;
+      if (n.sizes == null) {
+        return new Node(children, null, n.size + 1);
+      }
+      final int[] sizes = n.sizes.clone();
+      sizes[last]++;
+      return new Node(children, sizes, n.size + 1);
+    }
+    if (n.children.length == WIDTH) {
+      return null;
+    }
+    final Object[] children = Arrays.copyOf(n.children, n.children.length + 1);
+    children[n.children.length] = path(height - 1, a);
+    return node(children, height);
+  }
+
+  /** @return the node with {@code a} added at the front, or null if full */
+  private static Object pushFirst(final Object node, final int height, final Object a) {
+    if (height == 0) {
+      final Object[] leaf = (Object[]) node;
+      if (leaf.length == WIDTH) {
+        return null;
+      }
+      final Object[] result = new Object[leaf.length + 1];
+      result[0] = a;
+      System.arraycopy(leaf, 0, result, 1, leaf.length);
+      return result;
+    }
+    final Node n = (Node) node;
+    final Object pushed = pushFirst(n.children[0], height - 1, a);
+    final Object[] children;
+    if (pushed != null) {
+      children = n.children.clone();
+      children[0] = pushed;
+    } else if (n.children.length < WIDTH) {
+      children = new Object[n.children.length + 1];
+      children[0] = path(height - 1, a);
+      System.arraycopy(n.children, 0, children, 1, n.children.length);
+    } else {
+      return null;
+    }
+    return node(children, height);
+  }
+
+  /** Keeps the first {@code n} elements, {@code 0 < n <= size(node)}. */
+  private static Object takeLeft(final Object node, final int height, final int n) {
+    if (height == 0) {
+      final Object[] leaf = (Object[]) node;
+      return n == leaf.length ? leaf : Arrays.copyOf(leaf, n);
+    }
+    final Node nd = (Node) node;
+    final int slot = nd.slotOf(height, n - 1);
+    final Object[] children = Arrays.copyOf(nd.children, slot + 1);
+    children[slot] = takeLeft(children[slot], height - 1, n - nd.offsetOf(height, slot));
+    return node(children, height);
+  }
+
+  /** Drops the first {@code n} elements, {@code 0 <= n < size(node)}. */
+  private static Object dropLeft(final Object node, final int height, final int n) {
+    if (height == 0) {
+      final Object[] leaf = (Object[]) node;
+      return n == 0 ? leaf : Arrays.copyOfRange(leaf, n, leaf.length);
+    }
+    final Node nd = (Node) node;
+    final int slot = nd.slotOf(height, n);
+    final Object[] children = Arrays.copyOfRange(nd.children, slot, nd.children.length);
+    children[0] = dropLeft(children[0], height - 1, n - nd.offsetOf(height, slot));
+    return node(children, height);
+  }
+
+  private static Object mapped(final Object node, final int height, final Function<?, ?> f) {
+    @SuppressWarnings("unchecked")
+    final Function<Object, Object> g = (Function<Object, Object>) f;
+    if (height == 0) {
+      final Object[] leaf = ((Object[]) node).clone();
+      for (int i = 0; i < leaf.length; i++) {
+        leaf[i] = requireNonNull(g.apply(leaf[i]));
+      }
+      return leaf;
+    }
+    final Node n = (Node) node;
+    final Object[] children = new Object[n.children.length];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = mapped(n.children[i], height - 1, f);
+    }
+    return new Node(children, n.sizes, n.size);
+  }
+
+  /**
+   * Concatenates two subtrees, returning a node one level above the taller of
+   * the two whose children hold the merged content. Only the right spine of
+   * {@code left} and the left spine of {@code right} are rebuilt.
+   */
+  private static Node concatSub(final Object left, final int leftHeight, final Object right, final int rightHeight) {
+    if (leftHeight > rightHeight) {
+      final Node l = (Node) left;
+      final Node mid = concatSub(l.children[l.children.length - 1], leftHeight - 1, right, rightHeight);
+      return rebalance(l, mid, null, leftHeight);
+    }
+    if (leftHeight < rightHeight) {
+      final Node r = (Node) right;
+      final Node mid = concatSub(left, leftHeight, r.children[0], rightHeight - 1);
+      return rebalance(null, mid, r, rightHeight);
+    }
+    if (leftHeight == 0) {
+      final Object[] l = (Object[]) left;
+      final Object[] r = (Object[]) right;
+      if (l.length + r.length <= WIDTH) {
+        final Object[] leaf = Arrays.copyOf(l, l.length + r.length);
+        System.arraycopy(r, 0, leaf, l.length, r.length);
+        return node(new Object[] { leaf }, 1);
+      }
+      return node(new Object[] { l, r }, 1);
+    }
+    final Node l = (Node) left;
+    final Node r = (Node) right;
+    final Node mid = concatSub(l.children[l.children.length - 1], leftHeight - 1, r.children[0], rightHeight - 1);
+    return rebalance(l, mid, r, leftHeight);
+  }
+
+  /**
+   * Merges all but the last child of {@code left}, the children of
+   * {@code center} and all but the first child of {@code right} (all at
+   * {@code height - 1}), redistributing their entries so the level holds at
+   * most {@link #EXTRAS} more slots than optimal. Returns a node at
+   * {@code height + 1} holding one or two nodes at {@code height}.
+   */
+  private static Node rebalance(final Node left, final Node center, final Node right, final int height) {
+    final int leftCount = left == null ? 0 : left.children.length - 1;
+    final int rightCount = right == null ? 0 : right.children.length - 1;
+    final Object[] all = new Object[leftCount + center.children.length + rightCount];
+    if (leftCount > 0) {
+      System.arraycopy(left.children, 0, all, 0, leftCount);
+    }
+    System.arraycopy(center.children, 0, all, leftCount, center.children.length);
+    if (rightCount > 0) {
+      System.arraycopy(right.children, 1, all, leftCount + center.children.length, rightCount);
+    }
+
+    final int childHeight = height - 1;
+    final int[] plan = new int[all.length];
+    int total = 0;
+    for (int i = 0; i < all.length; i++) {
+      plan[i] = width(all[i], childHeight);
+      total += plan[i];
+    }
+    final int optimal = ((total - 1) >> BITS) + 1;
+    int count = all.length;
+    int i = 0;
+    while (optimal + EXTRAS < count) {
+      while (plan[i] > WIDTH - EXTRAS / 2) {
+        i++;
+      }
+      int remaining = plan[i];
+      while (remaining > 0) {
+        final int next = Math.min(remaining + plan[i + 1], WIDTH);
+        plan[i] = next;
+        remaining = remaining + plan[i + 1] - next;
+        i++;
+      }
+      System.arraycopy(plan, i + 1, plan, i, count - i - 1);
+      i--;
+      count--;
+    }
+
+    final Object[] merged = new Object[count];
+    int source = 0;
+    int offset = 0;
+    for (int slot = 0; slot < count; slot++) {
+      final int target = plan[slot];
+      if (offset == 0 && width(all[source], childHeight) == target) {
+        merged[slot] = all[source++];
+        continue;
+      }
+      final Object[] entries = new Object[target];
+      int filled = 0;
+      while (filled < target) {
+        final Object[] from = entries(all[source], childHeight);
+        final int n = Math.min(target - filled, from.length - offset);
+        System.arraycopy(from, offset, entries, filled, n);
+        filled += n;
+        offset += n;
+        if (offset == from.length) {
+          source++;
+          offset = 0;
+        }
+      }
+      merged[slot] = childHeight == 0 ? entries : node(entries, childHeight);
+    }
+
+    if (count <= WIDTH) {
+      return node(new Object[] { node(merged, height) }, height + 1);
+    }
+    return node(new Object[] { node(Arrays.copyOf(merged, WIDTH), height), node(Arrays.copyOfRange(merged, WIDTH, count), height) }, height + 1);
+  }
+
+  /**
+   * Reads elements leaf by leaf, descending from the root only when an index
+   * falls outside the current leaf.
+   */
+  final class Cursor {
+    private int leafStart = 0;
+    private Object[] leaf = EMPTY_LEAF;
+
+    A element(final int index) {
+      if (index < leafStart || index - leafStart >= leaf.length) {
+        Object node = root;
+        int i = index;
+        for (int h = height; h > 0; h--) {
+          final Node n = (Node) node;
+          final int slot = n.slotOf(h, i);
+          i -= n.offsetOf(h, slot);
+          node = n.children[slot];
+        }
+        leaf = (Object[]) node;
+        leafStart = index - i;
+      }
+      @SuppressWarnings("unchecked")
+      final A a = (A) leaf[index - leafStart];
+      return a;
+    }
+  }
+
+  final class Iter extends Iterators.Unmodifiable<A> {
+    private final Cursor cursor = new Cursor();
+    private int index = 0;
+
+    @Override public boolean hasNext() {
+      return index < size;
+    }
+
+    @Override public A next() {
+      if (index >= size) {
+        throw new NoSuchElementException();
+      }
+      return cursor.element(index++);
+    }
+  }
+
+  /**
+   * Splits an index range in half, so each part knows its exact size and reads
+   * its own leaves without copying.
+   */
+  final class Split implements Spliterator<A> {
+    private final Cursor cursor = new Cursor();
+    private int index;
+    private final int fence;
+
+    Split(final int index, final int fence) {
+      this.index = index;
+      this.fence = fence;
+    }
+
+    @Override public boolean tryAdvance(final Consumer<? super A> action) {
+      requireNonNull(action);
+      if (index >= fence) {
+        return false;
+      }
+      action.accept(cursor.element(index++));
+      return true;
+    }
+
+    @Override public void forEachRemaining(final Consumer<? super A> action) {
+      requireNonNull(action);
+      while (index < fence) {
+        action.accept(cursor.element(index++));
+      }
+    }
+
+    @Override public Spliterator<A> trySplit() {
+      final int mid = (index + fence) >>> 1;
+      if (mid <= index) {
+        return null;
+      }
+      final Split prefix = new Split(index, mid);
+      index = mid;
+      return prefix;
+    }
+
+    @Override public long estimateSize() {
+      return fence - index;
+    }
+
+    @Override public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE | Spliterator.NONNULL;
+    }
+  }
+
+  /**
+   * Mutable builder for vectors. Elements are packed into full leaves and the
+   * tree is built bottom up, so no intermediate vectors are created. Not thread
+   * safe.
+   *
+   * @param <A> the element type
+   */
+  public static final class Builder<A> {
+    private final List<Object[]> leaves = new ArrayList<>();
+    private Object[] current = new Object[WIDTH];
+    private int count = 0;
+    private int size = 0;
+
+    Builder() {}
+
+    /**
+     * Adds an element.
+     *
+     * @param a the element, must not be null
+     * @return this builder
+     */
+    public Builder<A> add(final A a) {
+      if (count == WIDTH) {
+        leaves.add(current);
+        current = new Object[WIDTH];
+        count = 0;
+      }
+      current[count++] = requireNonNull(a);
+      size++;
+      return this;
+    }
+
+    /**
+     * Adds all the elements of the iterable.
+     *
+     * @param as the elements, must not be null and must not contain null
+     * @return this builder
+     */
+    public Builder<A> addAll(final Iterable<? extends A> as) {
+      for (final A a : as) {
+        add(a);
+      }
+      return this;
+    }
+
+    Builder<A> combine(final Builder<A> that) {
+      for (final Object[] leaf : that.leaves) {
+        for (final Object a : leaf) {
+          @SuppressWarnings("unchecked")
+          final A element = (A) a;
+          add(element);
+        }
+      }
+      for (int i = 0; i < that.count; i++) {
+        @SuppressWarnings("unchecked")
+        final A element = (A) that.current[i];
+        add(element);
+      }
+      return this;
+    }
+
+    /**
+     * @return a vector of the elements added so far
+     */
+    public Vector<A> build() {
+      if (size == 0) {
+        return empty();
+      }
+      final List<Object> level = new ArrayList<>(leaves);
+      level.add(Arrays.copyOf(current, count));
+      int height = 0;
+      while (level.size() > 1) {
+        height++;
+        final List<Object> parents = new ArrayList<>((level.size() + MASK) >> BITS);
+        for (int i = 0; i < level.size(); i += WIDTH) {
+          parents.add(node(level.subList(i, Math.min(i + WIDTH, level.size())).toArray(), height));
+        }
+        level.clear();
+        level.addAll(parents);
+      }
+      return new Vector<>(level.get(0), height, size);
+    }
+  }
+}
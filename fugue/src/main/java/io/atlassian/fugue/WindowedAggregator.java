@@ -0,0 +1,235 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link Monoid} sum of a sliding window over a stream of values, either
+ * the last n values or the values added within the last period of time.
+ * <p>
+ * Adding a value, evicting the oldest and getting the sum are all amortised
+ * O(1) calls to the monoid, for any monoid and without needing an inverse. The
+ * window is kept as two stacks: new values are pushed onto a back stack along
+ * with its running sum, and old values are popped off a front stack that
+ * stores, for each value, the sum of it and every newer value in the front
+ * stack. When the front stack runs out the back stack is flipped onto it. The
+ * sum of the window is the top front sum appended to the back sum, so values
+ * are always appended oldest first.
+ * <p>
+ * Aggregators are not thread safe.
+ *
+ * @param <A> the type of the values
+ * @since 5.0
+ */
+public final class WindowedAggregator<A> {
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final Monoid<A> monoid;
+  private final int maxSize;
+  private final long maxAgeNanos;
+  /** Null for count based windows, which do not keep times. */
+  private final LongSupplier nanoTime;
+
+  /** Newest values, oldest first, with their running sum. */
+  private Object[] back = new Object[INITIAL_CAPACITY];
+  private long[] backTimes;
+  private int backSize = 0;
+  private A backSum;
+
+  /**
+   * Sums of the oldest values, from {@code frontStart} (the oldest) to
+   * {@code frontEnd}, where {@code frontSums[i]} is the sum of the values from
+   * {@code i} to {@code frontEnd}. The values themselves are not needed.
+   */
+  private Object[] frontSums = new Object[0];
+  private long[] frontTimes;
+  private int frontStart = 0;
+  private int frontEnd = 0;
+
+  private WindowedAggregator(final Monoid<A> monoid, final int maxSize, final long maxAgeNanos, final LongSupplier nanoTime) {
+    this.monoid = requireNonNull(monoid);
+    this.maxSize = maxSize;
+    this.maxAgeNanos = maxAgeNanos;
+    this.nanoTime = nanoTime;
+    this.backSum = monoid.zero();
+    if (nanoTime != null) {
+      backTimes = new long[INITIAL_CAPACITY];
+      frontTimes = new long[0];
+    }
+  }
+
+  //
+  // factories
+  //
+
+  /**
+   * An aggregator over the last {@code size} values added.
+   *
+   * @param <A> the type of the values
+   * @param monoid the monoid to sum values with, must not be null
+   * @param size the number of values in the window, must be positive
+   * @return an empty aggregator
+   */
+  public static <A> WindowedAggregator<A> lastN(final Monoid<A> monoid, final int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive");
+    }
+    return new WindowedAggregator<>(monoid, size, Long.MAX_VALUE, null);
+  }
+
+  /**
+   * An aggregator over the values added less than {@code maxAge} ago, according
+   * to {@link System#nanoTime()}.
+   *
+   * @param <A> the type of the values
+   * @param monoid the monoid to sum values with, must not be null
+   * @param maxAge the length of the window, must be positive
+   * @return an empty aggregator
+   */
+  public static <A> WindowedAggregator<A> lastDuration(final Monoid<A> monoid, final Duration maxAge) {
+    return lastDuration(monoid, maxAge, System::nanoTime);
+  }
+
+  static <A> WindowedAggregator<A> lastDuration(final Monoid<A> monoid, final Duration maxAge, final LongSupplier nanoTime) {
+    if (maxAge.isNegative() || maxAge.isZero()) {
+      throw new IllegalArgumentException("Max age must be positive");
+    }
+    return new WindowedAggregator<>(monoid, Integer.MAX_VALUE, maxAge.toNanos(), requireNonNull(nanoTime));
+  }
+
+  //
+  // operations
+  //
+
+  /**
+   * Adds a value to the window, evicting the oldest value if the window is
+   * full, and any values that have expired.
+   *
+   * @param a the value to add, must not be null
+   */
+  public void add(final A a) {
+    requireNonNull(a);
+    final long now = expire();
+    if (size() == maxSize) {
+      evict();
+    }
+    if (backSize == back.length) {
+      back = Arrays.copyOf(back, backSize << 1);
+      if (backTimes != null) {
+        backTimes = Arrays.copyOf(backTimes, backSize << 1);
+      }
+    }
+    back[backSize] = a;
+    if (backTimes != null) {
+      backTimes[backSize] = now;
+    }
+    backSize++;
+    backSum = monoid.append(backSum, a);
+  }
+
+  /**
+   * Returns the sum of the values in the window, oldest first, after evicting
+   * any values that have expired.
+   *
+   * @return the sum of the window, zero if it is empty
+   */
+  public A get() {
+    expire();
+    if (frontStart == frontEnd) {
+      return backSum;
+    }
+    return monoid.append(frontSum(frontStart), backSum);
+  }
+
+  /**
+   * @return the number of values in the window, including any that have expired
+   * since the last call to {@link #add(Object)} or {@link #get()}
+   */
+  public int size() {
+    return backSize + frontEnd - frontStart;
+  }
+
+  /**
+   * Evicts expired values from a time based window.
+   *
+   * @return the current time, or zero for count based windows
+   */
+  private long expire() {
+    if (nanoTime == null) {
+      return 0;
+    }
+    final long now = nanoTime.getAsLong();
+    while (size() > 0 && now - oldestTime() >= maxAgeNanos) {
+      evict();
+    }
+    return now;
+  }
+
+  private long oldestTime() {
+    return (frontStart < frontEnd) ? frontTimes[frontStart] : backTimes[0];
+  }
+
+  private void evict() {
+    if (frontStart == frontEnd) {
+      flip();
+    }
+    frontSums[frontStart] = null;
+    frontStart++;
+  }
+
+  /**
+   * Moves the back stack onto the empty front stack, summing from the newest
+   * value to the oldest.
+   */
+  private void flip() {
+    if (frontSums.length < backSize) {
+      frontSums = new Object[back.length];
+      if (frontTimes != null) {
+        frontTimes = new long[back.length];
+      }
+    }
+    if (frontTimes != null) {
+      System.arraycopy(backTimes, 0, frontTimes, 0, backSize);
+    }
+    A sum = monoid.zero();
+    for (int i = backSize - 1; i >= 0; i--) {
+      @SuppressWarnings("unchecked")
+      final A a = (A) back[i];
+      sum = monoid.append(a, sum);
+      frontSums[i] = sum;
+      back[i] = null;
+    }
+    frontStart = 0;
+    frontEnd = backSize;
+    backSize = 0;
+    backSum = monoid.zero();
+  }
+
+  private A frontSum(final int i) {
+    @SuppressWarnings("unchecked")
+    final A a = (A) frontSums[i];
+    return a;
+  }
+
+  @Override public String toString() {
+    return "WindowedAggregator(" + get() + ")";
+  }
+}
@@ -20,6 +20,8 @@ import io.atlassian.fugue.Functions;
 import io.atlassian.fugue.Iterables;
 import io.atlassian.fugue.Monoid;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 
 /**
@@ -92,6 +94,28 @@ public final class MonoidLaws<A> {
     return IsEq.isEq(monoid.sum(as), Functions.fold(monoid::append, monoid.zero(), as));
   }
 
+  /**
+   * The parallel sum of a list must be equal to the sum function.
+   *
+   * @param as a {@link java.util.List}
+   * @return a {@link io.atlassian.fugue.law.IsEq} where sum(as) is equal to
+   * sumParallel(as, pool, threshold) with a small threshold
+   */
+  public IsEq<A> sumParallelEqualSum(final List<A> as) {
+    return IsEq.isEq(monoid.sum(as), monoid.sumParallel(as, ForkJoinPool.commonPool(), 2));
+  }
+
+  /**
+   * The parallel sum of a spliterator must be equal to the sum function.
+   *
+   * @param as a {@link java.util.List}
+   * @return a {@link io.atlassian.fugue.law.IsEq} where sum(as) is equal to
+   * sumParallel(as.spliterator())
+   */
+  public IsEq<A> sumParallelSpliteratorEqualSum(final List<A> as) {
+    return IsEq.isEq(monoid.sum(as), monoid.sumParallel(as.spliterator()));
+  }
+
   /**
    * The multiply function of your monoid must be equal to the sum function
    * called with an iterable containing {@code n} copies of the input type.
@@ -0,0 +1,86 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class BloomFilterTest {
+
+  private static BloomFilter<Integer> range(final int from, final int to) {
+    final BloomFilter<Integer> filter = BloomFilter.create(10000, 0.01);
+    for (int i = from; i < to; i++) {
+      filter.add(i);
+    }
+    return filter;
+  }
+
+  @Test public void noFalseNegatives() {
+    final BloomFilter<Integer> filter = range(0, 10000);
+    for (int i = 0; i < 10000; i++) {
+      assertThat(filter.mightContain(i), is(true));
+    }
+  }
+
+  @Test public void falsePositiveRateNearTarget() {
+    final BloomFilter<Integer> filter = range(0, 10000);
+    int falsePositives = 0;
+    for (int i = 10000; i < 110000; i++) {
+      if (filter.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives, lessThan(1500));
+  }
+
+  @Test public void emptyContainsNothing() {
+    assertThat(BloomFilter.<String> create(10, 0.01).mightContain("a"), is(false));
+  }
+
+  @Test public void customHash() {
+    final BloomFilter<String> filter = BloomFilter.<String> create(100, 0.01, String::length).add("abc");
+    assertThat(filter.mightContain("xyz"), is(true));
+    assertThat(filter.mightContain("ab"), is(false));
+  }
+
+  @Test public void sizedForProbability() {
+    final BloomFilter<Integer> filter = BloomFilter.create(1000, 0.01);
+    assertThat(filter.size(), is(9600));
+    assertThat(filter.hashes(), is(7));
+  }
+
+  @Test public void monoidIsUnion() {
+    final Monoid<BloomFilter<Integer>> monoid = BloomFilter.monoid(10000, 0.01);
+    final BloomFilter<Integer> a = range(0, 500);
+    final BloomFilter<Integer> b = range(500, 1000);
+    assertThat(monoid.append(a, b), is(range(0, 1000)));
+    assertThat(monoid.sum(asList(a, b, a)), is(range(0, 1000)));
+    assertThat(monoid.append(monoid.zero(), a), is(a));
+    assertThat(a, is(range(0, 500)));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void mergeDifferentSizes() {
+    BloomFilter.<Integer> create(10, 0.01).addAll(BloomFilter.<Integer> create(10000, 0.01));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void zeroProbability() {
+    BloomFilter.create(10, 0);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ConcurrentMonoidAccumulatorTest {
+
+  private static final int THREADS = 8;
+  private static final int PER_THREAD = 10000;
+
+  private static void concurrently(final Consumer<Integer> task) throws InterruptedException {
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int thread = t;
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+        } catch (final InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        task.accept(thread);
+      }));
+    }
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  @Test public void startsAtZero() {
+    assertThat(ConcurrentMonoidAccumulator.of(Monoids.string).get(), is(""));
+    assertThat(ConcurrentMonoidAccumulator.of(Monoids.intAddition).get(), is(0));
+    assertThat(ConcurrentMonoidAccumulator.of(Monoids.longAddition).get(), is(0L));
+  }
+
+  @Test public void singleThreadKeepsOrder() {
+    final ConcurrentMonoidAccumulator<String> acc = ConcurrentMonoidAccumulator.of(Monoids.string);
+    acc.accumulate("a");
+    acc.accumulate("b");
+    acc.accumulate("c");
+    assertThat(acc.get(), is("abc"));
+  }
+
+  @Test public void concurrentGenericMonoid() throws InterruptedException {
+    final ConcurrentMonoidAccumulator<BigInteger> acc = ConcurrentMonoidAccumulator.of(Monoids.bigintAddition);
+    concurrently(thread -> {
+      for (int i = 0; i < PER_THREAD; i++) {
+        acc.accumulate(BigInteger.ONE);
+      }
+    });
+    assertThat(acc.get(), is(BigInteger.valueOf(THREADS * PER_THREAD)));
+  }
+
+  @Test public void concurrentLongAddition() throws InterruptedException {
+    final ConcurrentMonoidAccumulator<Long> acc = ConcurrentMonoidAccumulator.of(Monoids.longAddition);
+    concurrently(thread -> {
+      for (int i = 0; i < PER_THREAD; i++) {
+        acc.accumulate((long) thread);
+      }
+    });
+    assertThat(acc.get(), is((long) PER_THREAD * (THREADS * (THREADS - 1) / 2)));
+  }
+
+  @Test public void concurrentIntAddition() throws InterruptedException {
+    final ConcurrentMonoidAccumulator<Integer> acc = ConcurrentMonoidAccumulator.of(Monoids.intAddition);
+    concurrently(thread -> {
+      for (int i = 0; i < PER_THREAD; i++) {
+        acc.accumulate(1);
+      }
+    });
+    assertThat(acc.get(), is(THREADS * PER_THREAD));
+  }
+
+  @Test public void intAdditionOverflowsLikeInts() {
+    final ConcurrentMonoidAccumulator<Integer> acc = ConcurrentMonoidAccumulator.of(Monoids.intAddition);
+    acc.accumulate(Integer.MAX_VALUE);
+    acc.accumulate(1);
+    assertThat(acc.get(), is(Integer.MAX_VALUE + 1));
+  }
+
+  @Test public void reset() {
+    final ConcurrentMonoidAccumulator<String> acc = ConcurrentMonoidAccumulator.of(Monoids.string);
+    acc.accumulate("a");
+    acc.reset();
+    acc.accumulate("b");
+    assertThat(acc.get(), is("b"));
+  }
+}
@@ -0,0 +1,207 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import io.atlassian.fugue.FingerTree.IndexedSeq;
+import io.atlassian.fugue.FingerTree.PriorityQueue;
+import io.atlassian.fugue.FingerTree.RangeIndex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.atlassian.fugue.Option.none;
+import static io.atlassian.fugue.Option.some;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FingerTreeTest {
+
+  private static FingerTree<Integer, Integer> sized() {
+    return FingerTree.empty(Monoids.intAddition, i -> 1);
+  }
+
+  private static FingerTree<Integer, Integer> range(final int from, final int to) {
+    FingerTree<Integer, Integer> tree = sized();
+    for (int i = from; i < to; i++) {
+      tree = tree.append(i);
+    }
+    return tree;
+  }
+
+  private static List<Integer> list(final int from, final int to) {
+    return IntStream.range(from, to).boxed().collect(Collectors.toList());
+  }
+
+  private static List<Integer> toList(final Iterable<Integer> as) {
+    final List<Integer> result = new ArrayList<>();
+    as.forEach(result::add);
+    return result;
+  }
+
+  @Test public void empty() {
+    final FingerTree<Integer, Integer> tree = sized();
+    assertThat(tree.isEmpty(), is(true));
+    assertThat(tree.measure(), is(0));
+    assertThat(tree.head(), is(none()));
+    assertThat(tree.tail().isEmpty(), is(true));
+    assertThat(tree, emptyIterable());
+  }
+
+  @Test public void appendAndPrepend() {
+    FingerTree<Integer, Integer> tree = sized();
+    for (int i = 0; i < 100; i++) {
+      tree = tree.append(i).prepend(-i - 1);
+    }
+    assertThat(tree.measure(), is(200));
+    assertThat(toList(tree), is(list(-100, 100)));
+    assertThat(tree.head(), is(some(-100)));
+    assertThat(tree.last(), is(some(99)));
+  }
+
+  @Test public void tailAndInit() {
+    FingerTree<Integer, Integer> tree = range(0, 100);
+    final List<Integer> expected = list(0, 100);
+    while (!tree.isEmpty()) {
+      assertThat(toList(tree), is(expected));
+      tree = tree.tail();
+      expected.remove(0);
+      if (!tree.isEmpty()) {
+        tree = tree.init();
+        expected.remove(expected.size() - 1);
+      }
+    }
+    assertThat(expected.isEmpty(), is(true));
+  }
+
+  @Test public void concat() {
+    for (int n = 0; n < 40; n++) {
+      for (int m = 0; m < 40; m += 3) {
+        final FingerTree<Integer, Integer> tree = range(0, n).concat(range(n, n + m));
+        assertThat(tree.measure(), is(n + m));
+        assertThat(toList(tree), is(list(0, n + m)));
+      }
+    }
+  }
+
+  @Test public void splitEverywhere() {
+    final FingerTree<Integer, Integer> tree = range(0, 200);
+    for (int i = 0; i <= 200; i++) {
+      final int index = i;
+      final Pair<FingerTree<Integer, Integer>, FingerTree<Integer, Integer>> split = tree.split(n -> n > index);
+      assertThat(toList(split.left()), is(list(0, i)));
+      assertThat(toList(split.right()), is(list(i, 200)));
+      assertThat(split.left().measure(), is(i));
+    }
+  }
+
+  @Test public void find() {
+    final FingerTree<Integer, Integer> tree = range(0, 500);
+    for (int i = 0; i < 500; i++) {
+      final int index = i;
+      assertThat(tree.find(n -> n > index), is(some(i)));
+    }
+    assertThat(tree.find(n -> n > 500), is(none()));
+  }
+
+  @Test public void indexedSeq() {
+    IndexedSeq<String> seq = IndexedSeq.empty();
+    for (int i = 0; i < 100; i++) {
+      seq = seq.append("a" + i);
+    }
+    assertThat(seq.size(), is(100));
+    assertThat(seq.get(42), is("a42"));
+    final IndexedSeq<String> updated = seq.update(42, "b");
+    assertThat(updated.get(42), is("b"));
+    assertThat(updated.get(43), is("a43"));
+    assertThat(updated.size(), is(100));
+    assertThat(seq.get(42), is("a42"));
+    final Pair<IndexedSeq<String>, IndexedSeq<String>> split = seq.splitAt(30);
+    assertThat(split.left().size(), is(30));
+    assertThat(split.right().get(0), is("a30"));
+    assertThat(split.right().concat(split.left()).get(70), is("a0"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class) public void indexedSeqGetOutOfBounds() {
+    IndexedSeq.<String> empty().append("a").get(1);
+  }
+
+  @Test public void priorityQueueMatchesSorting() {
+    final Random random = new Random(17);
+    final List<Integer> values = new ArrayList<>();
+    PriorityQueue<Integer> queue = PriorityQueue.empty(Comparator.naturalOrder());
+    for (int i = 0; i < 300; i++) {
+      final int value = random.nextInt(50);
+      values.add(value);
+      queue = queue.insert(value);
+    }
+    values.sort(Comparator.naturalOrder());
+    final List<Integer> removed = new ArrayList<>();
+    while (!queue.isEmpty()) {
+      removed.add(queue.min().get());
+      queue = queue.removeMin();
+    }
+    assertThat(removed, is(values));
+  }
+
+  @Test public void priorityQueueIsStable() {
+    final PriorityQueue<Pair<Integer, String>> queue = PriorityQueue.<Pair<Integer, String>> empty(Comparator.comparing(Pair::left))
+      .insert(Pair.pair(2, "a")).insert(Pair.pair(1, "b")).insert(Pair.pair(1, "c"));
+    assertThat(queue.min().get().right(), is("b"));
+    assertThat(queue.removeMin().min().get().right(), is("c"));
+  }
+
+  @Test public void priorityQueueMerge() {
+    final PriorityQueue<Integer> queue = PriorityQueue.<Integer> empty(Comparator.naturalOrder()).insert(5).insert(3)
+      .merge(PriorityQueue.<Integer> empty(Comparator.naturalOrder()).insert(4).insert(1));
+    assertThat(queue.min(), is(some(1)));
+    assertThat(queue.removeMin().min(), is(some(3)));
+  }
+
+  @Test public void rangeIndexSums() {
+    final Random random = new Random(3);
+    final List<Pair<Integer, Long>> entries = new ArrayList<>();
+    RangeIndex<Integer, Long> index = RangeIndex.empty(Comparator.naturalOrder(), Monoids.longAddition);
+    for (int i = 0; i < 300; i++) {
+      final int key = random.nextInt(100);
+      final long value = random.nextInt(1000);
+      entries.add(Pair.pair(key, value));
+      index = index.insert(key, value);
+    }
+    for (int from = 0; from < 100; from += 7) {
+      for (int to = from; to <= 100; to += 11) {
+        final int lo = from;
+        final int hi = to;
+        final long expected = entries.stream().filter(e -> e.left() >= lo && e.left() < hi).mapToLong(Pair::right).sum();
+        assertThat(index.sum(from, to), is(expected));
+      }
+    }
+    assertThat(index.sum(), is(entries.stream().mapToLong(Pair::right).sum()));
+  }
+
+  @Test public void rangeIndexIsSortedAndDropsBefore() {
+    final RangeIndex<Integer, Long> index = RangeIndex.<Integer, Long> empty(Comparator.naturalOrder(), Monoids.longAddition).insert(3, 30L)
+      .insert(1, 10L).insert(2, 20L).insert(1, 11L);
+    assertThat(index.toString(), is("[Pair(1, 10), Pair(1, 11), Pair(2, 20), Pair(3, 30)]"));
+    assertThat(index.dropBefore(2).sum(), is(50L));
+    assertThat(index.dropBefore(4).isEmpty(), is(true));
+  }
+}
@@ -19,7 +19,10 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static io.atlassian.fugue.Functions.apply;
@@ -146,6 +149,26 @@ public class FunctionsTest {
     countingPredicate(-1);
   }
 
+  @Test public void forMapWithFilterSkipsDefiniteMisses() {
+    final AtomicInteger lookups = new AtomicInteger();
+    final Map<Integer, String> map = new HashMap<Integer, String>() {
+      {
+        put(1, "one");
+      }
+
+      @Override public String get(final Object key) {
+        lookups.incrementAndGet();
+        return super.get(key);
+      }
+    };
+    final BloomFilter<Integer> filter = BloomFilter.<Integer> create(10, 0.0001).add(1);
+    final Function<Integer, Option<String>> lookup = forMap(map, filter);
+    assertThat(lookup.apply(1), is(some("one")));
+    assertThat(lookups.get(), is(1));
+    assertThat(lookup.apply(2), is(none()));
+    assertThat(lookups.get(), is(1));
+  }
+
   @Test public void forMapWithDefaultWithValue() {
     assertThat(forMapWithDefault(new HashMap<Integer, Integer>() {
       {
@@ -0,0 +1,195 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static io.atlassian.fugue.Option.none;
+import static io.atlassian.fugue.Option.some;
+import static io.atlassian.fugue.Pair.pair;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class HashMapTest {
+
+  @Test public void emptyMap() {
+    assertThat(HashMap.<String, Integer> empty().get("a"), is(none()));
+    assertThat(HashMap.empty().size(), is(0));
+  }
+
+  @Test public void putAndGet() {
+    final HashMap<String, Integer> m = HashMap.<String, Integer> empty().put("a", 1).put("b", 2);
+    assertThat(m.get("a"), is(some(1)));
+    assertThat(m.get("b"), is(some(2)));
+    assertThat(m.get("c"), is(none()));
+    assertThat(m.size(), is(2));
+  }
+
+  @Test public void putIsPersistent() {
+    final HashMap<String, Integer> m1 = HashMap.<String, Integer> empty().put("a", 1);
+    final HashMap<String, Integer> m2 = m1.put("a", 2);
+    assertThat(m1.get("a"), is(some(1)));
+    assertThat(m2.get("a"), is(some(2)));
+    assertThat(m2.size(), is(1));
+  }
+
+  @Test public void putSameValueReturnsSameMap() {
+    final Integer one = 1;
+    final HashMap<String, Integer> m = HashMap.<String, Integer> empty().put("a", one);
+    assertThat(m.put("a", one), sameInstance(m));
+  }
+
+  @Test public void removeMissingReturnsSameMap() {
+    final HashMap<String, Integer> m = HashMap.<String, Integer> empty().put("a", 1);
+    assertThat(m.remove("b"), sameInstance(m));
+  }
+
+  @Test public void removeIsPersistent() {
+    final HashMap<String, Integer> m1 = HashMap.<String, Integer> empty().put("a", 1).put("b", 2);
+    final HashMap<String, Integer> m2 = m1.remove("a");
+    assertThat(m1.get("a"), is(some(1)));
+    assertThat(m2.get("a"), is(none()));
+    assertThat(m2.size(), is(1));
+  }
+
+  @Test public void collidingKeys() {
+    final HashMap<Collider, Integer> m = HashMap.<Collider, Integer> empty().put(new Collider("a"), 1).put(new Collider("b"), 2)
+      .put(new Collider("c"), 3);
+    assertThat(m.size(), is(3));
+    assertThat(m.get(new Collider("b")), is(some(2)));
+    final HashMap<Collider, Integer> removed = m.remove(new Collider("b"));
+    assertThat(removed.get(new Collider("b")), is(none()));
+    assertThat(removed.get(new Collider("c")), is(some(3)));
+    assertThat(removed.size(), is(2));
+  }
+
+  @Test public void randomOperationsMatchJavaMap() {
+    final Random random = new Random(7);
+    final Map<Integer, Integer> expected = new java.util.HashMap<>();
+    HashMap<Integer, Integer> m = HashMap.empty();
+    for (int i = 0; i < 20000; i++) {
+      final int key = random.nextInt(5000);
+      if (random.nextInt(3) == 0) {
+        m = m.remove(key);
+        expected.remove(key);
+      } else {
+        m = m.put(key, i);
+        expected.put(key, i);
+      }
+    }
+    assertThat(m.size(), is(expected.size()));
+    assertThat(m.toMap(), is(expected));
+  }
+
+  @Test public void builderMatchesPersistentPuts() {
+    final HashMap.Builder<Integer, String> builder = HashMap.builder();
+    HashMap<Integer, String> persistent = HashMap.empty();
+    for (int i = 0; i < 10000; i++) {
+      builder.put(i, String.valueOf(i));
+      persistent = persistent.put(i, String.valueOf(i));
+    }
+    for (int i = 0; i < 10000; i += 3) {
+      builder.remove(i);
+      persistent = persistent.remove(i);
+    }
+    final HashMap<Integer, String> built = builder.build();
+    assertThat(built, is(persistent));
+    assertThat(built.size(), is(persistent.size()));
+  }
+
+  @Test public void builderDoesNotMutateBuiltMap() {
+    final HashMap.Builder<Integer, Integer> builder = HashMap.builder();
+    builder.put(1, 1).put(2, 2);
+    final HashMap<Integer, Integer> built = builder.build();
+    builder.put(3, 3).remove(1);
+    assertThat(built.size(), is(2));
+    assertThat(built.get(1), is(some(1)));
+    assertThat(built.get(3), is(none()));
+  }
+
+  @Test public void toBuilderDoesNotMutateSource() {
+    final HashMap<Integer, Integer> m = HashMap.<Integer, Integer> empty().put(1, 1).put(2, 2);
+    final HashMap<Integer, Integer> m2 = m.toBuilder().put(1, 10).remove(2).put(3, 3).build();
+    assertThat(m.toMap().toString(), is("{1=1, 2=2}"));
+    assertThat(m2.get(1), is(some(10)));
+    assertThat(m2.get(2), is(none()));
+    assertThat(m2.size(), is(2));
+  }
+
+  @Test public void iterateEntries() {
+    final HashMap<String, Integer> m = HashMap.fromIterable(asList(pair("a", 1), pair("b", 2)));
+    assertThat(Iterables.size(m), is(2));
+    assertThat(m.toMap().toString(), is("{a=1, b=2}"));
+    assertThat(m.keys(), containsInAnyOrder("a", "b"));
+    assertThat(m.values(), containsInAnyOrder(1, 2));
+  }
+
+  @Test public void union() {
+    final HashMap<String, Integer> m1 = HashMap.fromIterable(asList(pair("a", 1), pair("b", 2)));
+    final HashMap<String, Integer> m2 = HashMap.fromIterable(asList(pair("b", 3), pair("c", 4), pair("d", 5)));
+    final HashMap<String, Integer> sum = m1.union(m2, Monoids.intAddition);
+    assertThat(sum.size(), is(4));
+    assertThat(sum.get("a"), is(some(1)));
+    assertThat(sum.get("b"), is(some(5)));
+    assertThat(sum.get("d"), is(some(5)));
+    assertThat(m1.union(m2, Semigroups.first()).get("b"), is(some(2)));
+  }
+
+  @Test public void monoid() {
+    final Monoid<HashMap<String, Integer>> monoid = Monoids.hashMap();
+    final HashMap<String, Integer> m = monoid.sum(asList(HashMap.<String, Integer> empty().put("a", 1), monoid.zero(), HashMap
+      .<String, Integer> empty().put("a", 2)));
+    assertThat(m.get("a"), is(some(2)));
+  }
+
+  @Test public void mapValues() {
+    final HashMap<String, Integer> m = HashMap.<String, Integer> empty().put("a", 1).put("b", 2);
+    assertThat(m.mapValues(i -> i * 10).values(), containsInAnyOrder(10, 20));
+  }
+
+  @Test public void equalsAndHashCode() {
+    final HashMap<String, Integer> m1 = HashMap.<String, Integer> empty().put("a", 1).put("b", 2);
+    final HashMap<String, Integer> m2 = HashMap.<String, Integer> empty().put("b", 2).put("a", 1);
+    assertThat(m1, is(m2));
+    assertThat(m1.hashCode(), is(m2.hashCode()));
+  }
+
+  @Test(expected = NullPointerException.class) public void putNullValue() {
+    HashMap.<String, Integer> empty().put("a", null);
+  }
+
+  static final class Collider {
+    private final String name;
+
+    Collider(final String name) {
+      this.name = name;
+    }
+
+    @Override public int hashCode() {
+      return 42;
+    }
+
+    @Override public boolean equals(final Object o) {
+      return o instanceof Collider && ((Collider) o).name.equals(name);
+    }
+  }
+}
@@ -4,8 +4,14 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static io.atlassian.fugue.Iterables.concat;
+import static io.atlassian.fugue.Iterables.join;
+import static io.atlassian.fugue.Iterables.map;
+import static io.atlassian.fugue.Iterables.rangeUntil;
+import static io.atlassian.fugue.Iterables.size;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.emptyIterable;
@@ -49,4 +55,36 @@ public class IterablesConcatTest {
     assertThat(concat(Arrays.asList(1, 2)).toString(), is("[1, 2]"));
   }
 
+  @Test public void deeplyLeftNestedConcat() {
+    Iterable<Integer> nested = Collections.emptyList();
+    for (int i = 0; i < 100000; i++) {
+      nested = concat(nested, Collections.singletonList(i));
+    }
+    assertThat(size(nested), is(100000));
+    assertThat(Iterables.first(Iterables.drop(99999, nested)).get(), is(99999));
+  }
+
+  @Test public void deeplyRightNestedConcat() {
+    Iterable<Integer> nested = Collections.emptyList();
+    for (int i = 0; i < 100000; i++) {
+      nested = concat(Collections.singletonList(i), nested);
+    }
+    assertThat(size(nested), is(100000));
+    assertThat(Iterables.first(nested).get(), is(99999));
+  }
+
+  @Test public void deeplyNestedMonoidSumSplits() {
+    final Monoid<Iterable<Integer>> monoid = Monoids.iterable();
+    Iterable<Integer> nested = monoid.zero();
+    for (int i = 0; i < 100000; i++) {
+      nested = monoid.append(nested, Collections.singletonList(i));
+    }
+    final long sum = StreamSupport.stream(nested.spliterator(), true).collect(Collectors.summingLong(i -> i));
+    assertThat(sum, is(4999950000L));
+  }
+
+  @Test public void joinOfLazyIterables() {
+    final Iterable<Integer> joined = join(map(rangeUntil(0, 3), i -> concat(Collections.singletonList(i), Collections.singletonList(i))));
+    assertThat(joined, contains(0, 0, 1, 1, 2, 2));
+  }
 }
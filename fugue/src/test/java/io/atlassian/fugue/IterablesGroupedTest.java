@@ -0,0 +1,136 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.atlassian.fugue.Iterables.batched;
+import static io.atlassian.fugue.Iterables.cycle;
+import static io.atlassian.fugue.Iterables.groupAdjacentBy;
+import static io.atlassian.fugue.Iterables.grouped;
+import static io.atlassian.fugue.Iterables.iterate;
+import static io.atlassian.fugue.Iterables.sliding;
+import static io.atlassian.fugue.Iterables.take;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IterablesGroupedTest {
+
+  @Test public void groupedExactMultiple() {
+    assertThat(grouped(2, asList(1, 2, 3, 4)).toString(), is("[[1, 2], [3, 4]]"));
+  }
+
+  @Test public void groupedWithRemainder() {
+    final Iterable<List<Integer>> chunks = grouped(2, asList(1, 2, 3));
+    assertThat(chunks.toString(), is("[[1, 2], [3]]"));
+    assertThat(Iterables.size(Iterables.first(Iterables.drop(1, chunks)).get()), is(1));
+  }
+
+  @Test public void groupedEmpty() {
+    assertThat(grouped(2, emptyList()), emptyIterable());
+  }
+
+  @Test public void groupedInfinite() {
+    assertThat(take(2, grouped(3, cycle(1, 2))).toString(), is("[[1, 2, 1], [2, 1, 2]]"));
+  }
+
+  @Test public void groupedHugeSizeOnSmallInput() {
+    assertThat(grouped(Integer.MAX_VALUE, asList(1, 2)).toString(), is("[[1, 2]]"));
+  }
+
+  @Test public void groupedChunkLargerThanInitialBuffer() {
+    final List<List<Integer>> chunks = new ArrayList<>();
+    grouped(3000, take(7000, cycle(1))).forEach(chunks::add);
+    assertThat(chunks.size(), is(3));
+    assertThat(chunks.get(0).size(), is(3000));
+    assertThat(chunks.get(1).size(), is(3000));
+    assertThat(chunks.get(2).size(), is(1000));
+  }
+
+  @Test(expected = UnsupportedOperationException.class) public void groupedIsReadOnly() {
+    Iterables.first(grouped(2, asList(1, 2))).get().set(0, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void groupedZero() {
+    grouped(0, asList(1, 2));
+  }
+
+  @Test public void slidingByOne() {
+    assertThat(sliding(3, 1, asList(1, 2, 3, 4, 5)).toString(), is("[[1, 2, 3], [2, 3, 4], [3, 4, 5]]"));
+  }
+
+  @Test public void slidingWithPartialLastWindow() {
+    assertThat(sliding(2, 2, asList(1, 2, 3, 4, 5)).toString(), is("[[1, 2], [3, 4], [5]]"));
+  }
+
+  @Test public void slidingStepLargerThanSize() {
+    assertThat(sliding(2, 3, asList(1, 2, 3, 4, 5, 6, 7)).toString(), is("[[1, 2], [4, 5], [7]]"));
+  }
+
+  @Test public void slidingShorterThanSize() {
+    assertThat(sliding(5, 1, asList(1, 2, 3)).toString(), is("[[1, 2, 3]]"));
+  }
+
+  @Test public void slidingEmpty() {
+    assertThat(sliding(2, 1, emptyList()), emptyIterable());
+  }
+
+  @Test public void slidingInfinite() {
+    assertThat(take(3, sliding(2, 1, iterate(i -> i + 1, 0))).toString(), is("[[0, 1], [1, 2], [2, 3]]"));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void slidingZeroStep() {
+    sliding(2, 0, asList(1, 2));
+  }
+
+  @Test public void groupAdjacent() {
+    assertThat(groupAdjacentBy(asList(1, 3, 2, 4, 5, 6), i -> i % 2).toString(), is("[[1, 3], [2, 4], [5], [6]]"));
+  }
+
+  @Test public void groupAdjacentEmpty() {
+    assertThat(groupAdjacentBy(emptyList(), i -> i), emptyIterable());
+  }
+
+  @Test public void groupAdjacentInfinite() {
+    assertThat(take(2, groupAdjacentBy(iterate(i -> i + 1, 0), i -> i / 3)).toString(), is("[[0, 1, 2], [3, 4, 5]]"));
+  }
+
+  @Test public void batchedBySize() {
+    assertThat(batched(2, Duration.ofHours(1), asList(1, 2, 3, 4, 5)).toString(), is("[[1, 2], [3, 4], [5]]"));
+  }
+
+  @Test public void batchedByAge() {
+    final AtomicLong now = new AtomicLong();
+    // each element takes 10ns to arrive
+    final Iterable<Integer> slow = Iterables.map(iterate(i -> i + 1, 0), i -> {
+      now.addAndGet(10);
+      return i;
+    });
+    assertThat(take(2, batched(100, Duration.ofNanos(25), slow, now::get)).toString(), is("[[0, 1, 2, 3], [4, 5, 6, 7]]"));
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void batchedNegativeAge() {
+    batched(2, Duration.ofSeconds(-1), asList(1, 2));
+  }
+}
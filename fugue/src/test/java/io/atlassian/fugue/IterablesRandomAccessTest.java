@@ -0,0 +1,105 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.atlassian.fugue.Iterables.drop;
+import static io.atlassian.fugue.Iterables.intersperse;
+import static io.atlassian.fugue.Iterables.map;
+import static io.atlassian.fugue.Iterables.size;
+import static io.atlassian.fugue.Iterables.take;
+import static io.atlassian.fugue.Iterables.zip;
+import static io.atlassian.fugue.Iterables.zipWithIndex;
+import static io.atlassian.fugue.Pair.pair;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class IterablesRandomAccessTest {
+
+  @Test public void mapOverListIsRandomAccessList() {
+    final Iterable<Integer> mapped = map(asList(1, 2, 3), i -> i * 10);
+    assertThat(mapped, instanceOf(RandomAccess.class));
+    assertThat(((List<Integer>) mapped).get(2), is(30));
+    assertThat(mapped, contains(10, 20, 30));
+  }
+
+  @Test public void mapOverLinkedListIsNotRandomAccess() {
+    final Iterable<Integer> mapped = map(new LinkedList<>(asList(1, 2, 3)), i -> i * 10);
+    assertThat(mapped, not(instanceOf(RandomAccess.class)));
+    assertThat(mapped, contains(10, 20, 30));
+  }
+
+  @Test public void sizeAndDropOfMappedListDoNotApplyFunction() {
+    final AtomicInteger calls = new AtomicInteger();
+    final Iterable<Integer> mapped = map(asList(1, 2, 3, 4, 5), i -> {
+      calls.incrementAndGet();
+      return i;
+    });
+    assertThat(size(mapped), is(5));
+    final Iterable<Integer> page = take(2, drop(2, mapped));
+    assertThat(calls.get(), is(0));
+    assertThat(page, contains(3, 4));
+    assertThat(calls.get(), is(2));
+  }
+
+  @Test public void mappedListIsAView() {
+    final List<Integer> source = new ArrayList<>(asList(1, 2));
+    final Iterable<Integer> mapped = map(source, i -> -i);
+    source.add(3);
+    assertThat(size(mapped), is(3));
+    assertThat(mapped, contains(-1, -2, -3));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class) public void mappedListGetOutOfBounds() {
+    ((List<Integer>) map(asList(1, 2), i -> i)).get(2);
+  }
+
+  @Test(expected = UnsupportedOperationException.class) public void mappedListIsReadOnly() {
+    ((List<Integer>) map(new ArrayList<>(asList(1, 2)), i -> i)).set(0, 3);
+  }
+
+  @Test public void zipLists() {
+    final Iterable<Pair<String, Integer>> zipped = zip(asList("a", "b", "c"), asList(1, 2));
+    assertThat(zipped, instanceOf(RandomAccess.class));
+    assertThat(size(zipped), is(2));
+    assertThat(((List<Pair<String, Integer>>) zipped).get(1), is(pair("b", 2)));
+  }
+
+  @Test public void zipWithIndexOverList() {
+    final Iterable<Pair<String, Integer>> indexed = zipWithIndex(asList("a", "b", "c"));
+    assertThat(indexed, instanceOf(RandomAccess.class));
+    assertThat(size(indexed), is(3));
+    assertThat(((List<Pair<String, Integer>>) indexed).get(2), is(pair("c", 2)));
+  }
+
+  @Test public void intersperseList() {
+    final Iterable<Integer> interspersed = intersperse(asList(1, 2, 3), 0);
+    assertThat(size(interspersed), is(5));
+    assertThat(interspersed, contains(1, 0, 2, 0, 3));
+    assertThat(size(intersperse(new ArrayList<Integer>(), 0)), is(0));
+  }
+}
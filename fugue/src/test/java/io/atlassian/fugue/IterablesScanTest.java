@@ -0,0 +1,86 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.atlassian.fugue.Iterables.iterate;
+import static io.atlassian.fugue.Iterables.parallelPrefix;
+import static io.atlassian.fugue.Iterables.scan;
+import static io.atlassian.fugue.Iterables.scanLeft;
+import static io.atlassian.fugue.Iterables.take;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IterablesScanTest {
+
+  @Test public void scanLeftIncludesZero() {
+    assertThat(scanLeft(asList(1, 2, 3), "", (s, i) -> s + i), contains("", "1", "12", "123"));
+  }
+
+  @Test public void scanLeftEmpty() {
+    assertThat(scanLeft(emptyList(), 0, (a, b) -> a), contains(0));
+  }
+
+  @Test public void scanLeftIsLazy() {
+    assertThat(take(4, scanLeft(iterate(i -> i + 1, 1), 0, Integer::sum)), contains(0, 1, 3, 6));
+  }
+
+  @Test public void scanLeftIsReusable() {
+    final Iterable<Integer> sums = scanLeft(asList(1, 2), 0, Integer::sum);
+    assertThat(sums, contains(0, 1, 3));
+    assertThat(sums, contains(0, 1, 3));
+  }
+
+  @Test public void scanMonoid() {
+    assertThat(scan(asList(1, 2, 3, 4), Monoids.intAddition), contains(1, 3, 6, 10));
+  }
+
+  @Test public void scanMonoidEmpty() {
+    assertThat(scan(new ArrayList<Integer>(), Monoids.intAddition), emptyIterable());
+  }
+
+  @Test public void parallelPrefixMatchesScan() {
+    final List<Long> numbers = IntStream.range(0, 100000).mapToObj(i -> (long) i).collect(Collectors.toList());
+    final List<Long> sums = parallelPrefix(numbers, Monoids.longAddition, ForkJoinPool.commonPool(), 100);
+    assertThat(sums, is(Iterables.collect(scan(numbers, Monoids.longAddition), Collectors.toList())));
+  }
+
+  @Test public void parallelPrefixKeepsOrder() {
+    final List<String> letters = IntStream.range(0, 1000).mapToObj(i -> String.valueOf((char) ('a' + i % 26))).collect(Collectors.toList());
+    final List<String> prefixes = parallelPrefix(letters, Monoids.string, ForkJoinPool.commonPool(), 7);
+    assertThat(prefixes.get(999), is(String.join("", letters)));
+    assertThat(prefixes.get(2), is("abc"));
+  }
+
+  @Test public void parallelPrefixEmpty() {
+    assertThat(parallelPrefix(new ArrayList<Integer>(), Monoids.intAddition), emptyIterable());
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void parallelPrefixZeroThreshold() {
+    parallelPrefix(asList(1, 2), Monoids.intAddition, ForkJoinPool.commonPool(), 0);
+  }
+}
@@ -0,0 +1,180 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static io.atlassian.fugue.Iterables.concat;
+import static io.atlassian.fugue.Iterables.cycle;
+import static io.atlassian.fugue.Iterables.drop;
+import static io.atlassian.fugue.Iterables.filter;
+import static io.atlassian.fugue.Iterables.intersperse;
+import static io.atlassian.fugue.Iterables.map;
+import static io.atlassian.fugue.Iterables.mergeSorted;
+import static io.atlassian.fugue.Iterables.take;
+import static io.atlassian.fugue.Iterables.zipWith;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+public class IterablesSpliteratorTest {
+  private static final List<Integer> NUMBERS = IntStream.range(0, 10000).boxed().collect(Collectors.toList());
+  /** sized and splittable, but not a list */
+  private static final ArrayDeque<Integer> DEQUE = new ArrayDeque<>(NUMBERS);
+
+  private static <A> List<A> parallel(final Iterable<A> as) {
+    return StreamSupport.stream(as.spliterator(), true).collect(Collectors.toList());
+  }
+
+  private static <A> List<A> sequential(final Iterable<A> as) {
+    final List<A> result = new ArrayList<>();
+    as.forEach(result::add);
+    return result;
+  }
+
+  @Test public void mappedKeepsSize() {
+    final Iterable<Integer> mapped = map(DEQUE, i -> i * 2);
+    final Spliterator<Integer> s = mapped.spliterator();
+    assertThat(s.getExactSizeIfKnown(), is(10000L));
+    assertThat(s.hasCharacteristics(Spliterator.SUBSIZED), is(true));
+    assertThat(s.trySplit(), notNullValue());
+    assertThat(parallel(mapped), is(sequential(mapped)));
+  }
+
+  @Test public void filterIsNotSized() {
+    final Iterable<Integer> evens = filter(DEQUE, i -> i % 2 == 0);
+    assertThat(evens.spliterator().hasCharacteristics(Spliterator.SIZED), is(false));
+    assertThat(parallel(evens), is(sequential(evens)));
+  }
+
+  @Test public void filterKeepsSorted() {
+    final Comparator<Integer> descending = Comparator.reverseOrder();
+    final TreeSet<Integer> sorted = new TreeSet<>(descending);
+    sorted.addAll(NUMBERS);
+    final Spliterator<Integer> s = filter(sorted, i -> i % 2 == 0).spliterator();
+    assertThat(s.hasCharacteristics(Spliterator.SORTED), is(true));
+    assertThat(s.getComparator(), is(descending));
+    assertThat(parallel(filter(sorted, i -> i % 2 == 0)), is(sequential(filter(sorted, i -> i % 2 == 0))));
+  }
+
+  @Test public void takeFromMappedList() {
+    final Iterable<Integer> taken = take(1234, map(DEQUE, i -> i + 1));
+    assertThat(taken.spliterator().getExactSizeIfKnown(), is(1234L));
+    assertThat(parallel(taken), is(sequential(taken)));
+  }
+
+  @Test public void dropFromMappedList() {
+    final Iterable<Integer> dropped = drop(1234, map(DEQUE, i -> i + 1));
+    assertThat(dropped.spliterator().getExactSizeIfKnown(), is(10000L - 1234));
+    assertThat(parallel(dropped), is(sequential(dropped)));
+  }
+
+  @Test public void takeFromNonListIsReusable() {
+    final Iterable<Integer> taken = take(2, new LinkedHashSet<>(asList(1, 2, 3)));
+    assertThat(taken, contains(1, 2));
+    assertThat(taken, contains(1, 2));
+  }
+
+  @Test public void dropMoreThanAvailable() {
+    final Iterable<Integer> dropped = drop(20000, map(DEQUE, i -> i));
+    assertThat(dropped.spliterator().getExactSizeIfKnown(), is(0L));
+    assertThat(parallel(dropped).isEmpty(), is(true));
+  }
+
+  @Test public void zipLists() {
+    final Iterable<Integer> zipped = zipWith((Integer a, Integer b) -> a * b).apply(NUMBERS, take(5000, NUMBERS));
+    assertThat(zipped.spliterator().getExactSizeIfKnown(), is(5000L));
+    assertThat(parallel(zipped), is(sequential(zipped)));
+  }
+
+  @Test public void zipSizedViews() {
+    final Iterable<Integer> zipped = zipWith((Integer a, Integer b) -> a - b).apply(map(DEQUE, i -> i * 3), DEQUE);
+    assertThat(zipped.spliterator().getExactSizeIfKnown(), is(10000L));
+    assertThat(parallel(zipped), is(sequential(zipped)));
+  }
+
+  @Test public void intersperseKeepsSize() {
+    final Iterable<Integer> interspersed = intersperse(DEQUE, -1);
+    assertThat(interspersed.spliterator().getExactSizeIfKnown(), is(19999L));
+    assertThat(parallel(interspersed), is(sequential(interspersed)));
+  }
+
+  @Test public void intersperseSplitSizes() {
+    final Spliterator<Integer> suffix = intersperse(DEQUE, -1).spliterator();
+    final Spliterator<Integer> prefix = suffix.trySplit();
+    assertThat(prefix.getExactSizeIfKnown() + suffix.getExactSizeIfKnown(), is(19999L));
+  }
+
+  @Test public void joinLists() {
+    final Iterable<Integer> joined = concat(NUMBERS, take(10, NUMBERS), asList(1, 2, 3), NUMBERS);
+    assertThat(parallel(joined), is(sequential(joined)));
+  }
+
+  @Test public void joinCollectionsIsSized() {
+    final Iterable<Integer> joined = concat(NUMBERS, asList(1, 2, 3), DEQUE);
+    final Spliterator<Integer> s = joined.spliterator();
+    assertThat(s.getExactSizeIfKnown(), is(20003L));
+    assertThat(s.tryAdvance(i -> {}), is(true));
+    assertThat(s.getExactSizeIfKnown(), is(20002L));
+    final Spliterator<Integer> prefix = s.trySplit();
+    assertThat(prefix.estimateSize() + s.estimateSize(), is(20002L));
+    assertThat(StreamSupport.stream(joined.spliterator(), true).count(), is(20003L));
+    assertThat(parallel(joined), is(sequential(joined)));
+  }
+
+  @Test public void joinWithFilterIsNotSized() {
+    assertThat(concat(NUMBERS, filter(NUMBERS, i -> i < 10)).spliterator().hasCharacteristics(Spliterator.SIZED), is(false));
+  }
+
+  @Test public void concatSingleList() {
+    final Iterable<Integer> joined = concat(NUMBERS);
+    final Spliterator<Integer> s = joined.spliterator();
+    assertThat(s.trySplit(), notNullValue());
+    assertThat(parallel(joined), is(sequential(joined)));
+  }
+
+  @Test public void cycleIsOrdered() {
+    final Iterable<Integer> cycled = take(100, cycle(1, 2, 3));
+    assertThat(cycle(1, 2).spliterator().hasCharacteristics(Spliterator.ORDERED), is(true));
+    assertThat(parallel(cycled), is(sequential(cycled)));
+  }
+
+  @Test public void mergeSortedIsSortedAndSized() {
+    final Comparator<Integer> ordering = Comparator.naturalOrder();
+    final List<List<Integer>> sources = new ArrayList<>();
+    sources.add(NUMBERS);
+    sources.add(asList(3, 5, 7));
+    final Iterable<Integer> merged = mergeSorted(sources, ordering);
+    final Spliterator<Integer> s = merged.spliterator();
+    assertThat(s.getExactSizeIfKnown(), is(10003L));
+    assertThat(s.hasCharacteristics(Spliterator.SORTED), is(true));
+    assertThat(s.getComparator(), is(ordering));
+    assertThat(parallel(merged), is(sequential(merged)));
+  }
+}
@@ -17,13 +17,16 @@ package io.atlassian.fugue;
 
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -34,6 +37,7 @@ import static io.atlassian.fugue.Iterables.findFirst;
 import static io.atlassian.fugue.Iterables.join;
 import static io.atlassian.fugue.Iterables.map;
 import static io.atlassian.fugue.Iterables.partition;
+import static io.atlassian.fugue.Iterables.partitionTo;
 import static io.atlassian.fugue.Iterables.rangeTo;
 import static io.atlassian.fugue.Iterables.rangeUntil;
 import static java.util.Arrays.asList;
@@ -175,6 +179,80 @@ public class IterablesTest {
     assertThat(part.right(), contains(1, 2));
   }
 
+  @Test public void partitionTestsEachElementOnce() {
+    final AtomicInteger tests = new AtomicInteger();
+    final Pair<Iterable<Integer>, Iterable<Integer>> part = partition(asList(1, 2, 3, 4), i -> {
+      tests.incrementAndGet();
+      return i % 2 == 0;
+    });
+    assertThat(part.right(), contains(1, 3));
+    assertThat(part.left(), contains(2, 4));
+    assertThat(tests.get(), is(4));
+  }
+
+  @Test public void partitionIteratesAgainByFiltering() {
+    final Pair<Iterable<Integer>, Iterable<Integer>> part = partition(asList(1, 2, 3, 4), i -> i % 2 == 0);
+    assertThat(part.left(), contains(2, 4));
+    assertThat(part.right(), contains(1, 3));
+    assertThat(part.left(), contains(2, 4));
+    assertThat(part.right(), contains(1, 3));
+  }
+
+  @Test public void partitionReadInStepReleasesElements() {
+    final List<WeakReference<Object>> first = new ArrayList<>();
+    final Iterable<Object> source = map(rangeTo(1, 1000000), i -> {
+      final Object o = new Object();
+      if (first.size() < 100) {
+        first.add(new WeakReference<>(o));
+      }
+      return o;
+    });
+    final AtomicInteger n = new AtomicInteger();
+    final Pair<Iterable<Object>, Iterable<Object>> part = partition(source, o -> n.incrementAndGet() % 2 == 0);
+    final Iterator<Object> left = part.left().iterator();
+    final Iterator<Object> right = part.right().iterator();
+    assertThat(readInStep(left, right), is(500000));
+    for (int i = 0; i < 10; i++) {
+      System.gc();
+    }
+    assertThat(first.stream().filter(ref -> ref.get() != null).count(), is(0L));
+    assertThat(left.hasNext() || right.hasNext(), is(false));
+  }
+
+  private static int readInStep(final Iterator<Object> left, final Iterator<Object> right) {
+    int pairs = 0;
+    while (left.hasNext() && right.hasNext()) {
+      left.next();
+      right.next();
+      pairs++;
+    }
+    return pairs;
+  }
+
+  @Test public void partitionTraversesSourceOnce() {
+    final Iterator<Integer> once = asList(1, 2, 3, 4).iterator();
+    final Pair<Iterable<Integer>, Iterable<Integer>> part = partition(() -> once, i -> i > 2);
+    assertThat(part.left(), contains(3, 4));
+    assertThat(part.right(), contains(1, 2));
+  }
+
+  @Test public void partitionIsLazy() {
+    final AtomicInteger tests = new AtomicInteger();
+    final Pair<Iterable<Integer>, Iterable<Integer>> part = partition(rangeTo(1, Integer.MAX_VALUE), i -> {
+      tests.incrementAndGet();
+      return i % 10 == 0;
+    });
+    assertThat(tests.get(), is(0));
+    assertThat(Iterables.first(part.left()), is(Option.some(10)));
+    assertThat(tests.get(), is(10));
+  }
+
+  @Test public void partitionToCollections() {
+    final Pair<List<Integer>, List<Integer>> part = partitionTo(asList(1, 2, 3, 4), i -> i > 2, new ArrayList<>(), new ArrayList<>());
+    assertThat(part.left(), contains(3, 4));
+    assertThat(part.right(), contains(1, 2));
+  }
+
   @Test public void flatMapConcatenates() {
     final Iterable<String> result = Iterables.flatMap(asList("123", "ABC"), CharSplitter::new);
     assertThat(result, contains("1", "2", "3", "A", "B", "C"));
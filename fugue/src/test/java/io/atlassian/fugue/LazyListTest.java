@@ -0,0 +1,168 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.atlassian.fugue.LazyList.lazyList;
+import static io.atlassian.fugue.Option.none;
+import static io.atlassian.fugue.Option.some;
+import static io.atlassian.fugue.Pair.pair;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LazyListTest {
+
+  @Test public void empty() {
+    assertThat(LazyList.<Integer> empty(), emptyIterable());
+    assertThat(LazyList.empty().isEmpty(), is(true));
+    assertThat(LazyList.empty().head(), is(none()));
+  }
+
+  @Test public void cons() {
+    final LazyList<Integer> l = LazyList.cons(1, LazyList.cons(2, LazyList.empty()));
+    assertThat(l, contains(1, 2));
+    assertThat(l.head(), is(some(1)));
+    assertThat(l.tail(), contains(2));
+  }
+
+  @Test public void iterateAppliesFunctionOncePerElement() {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyList<Integer> l = LazyList.iterate(i -> {
+      calls.incrementAndGet();
+      return i + 1;
+    }, 0);
+    assertThat(l.take(5), contains(0, 1, 2, 3, 4));
+    assertThat(l.take(5), contains(0, 1, 2, 3, 4));
+    assertThat(calls.get(), is(4));
+  }
+
+  @Test public void unfoldAppliesFunctionOncePerElement() {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyList<Integer> l = LazyList.unfold(i -> {
+      calls.incrementAndGet();
+      return i > 3 ? none() : some(pair(i, i + 1));
+    }, 1);
+    assertThat(l, contains(1, 2, 3));
+    assertThat(l, contains(1, 2, 3));
+    assertThat(calls.get(), is(4));
+  }
+
+  @Test public void fromIterableTraversesSourceOnce() {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyList<Integer> l = LazyList.fromIterable(Iterables.map(asList(1, 2, 3), i -> {
+      calls.incrementAndGet();
+      return i;
+    }));
+    assertThat(l, contains(1, 2, 3));
+    assertThat(l, contains(1, 2, 3));
+    assertThat(calls.get(), is(3));
+  }
+
+  @Test public void mapIsLazy() {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0).map(i -> {
+      calls.incrementAndGet();
+      return i * 2;
+    });
+    assertThat(calls.get(), is(0));
+    assertThat(l.take(3), contains(0, 2, 4));
+    assertThat(calls.get(), is(3));
+  }
+
+  @Test public void filter() {
+    assertThat(lazyList(1, 2, 3, 4).filter(i -> i % 2 == 0), contains(2, 4));
+  }
+
+  @Test public void filterIsStackSafe() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0).filter(i -> i > 1000000);
+    assertThat(l.head(), is(some(1000001)));
+  }
+
+  @Test public void flatMap() {
+    assertThat(lazyList(1, 2, 3).flatMap(i -> asList(i, i)), contains(1, 1, 2, 2, 3, 3));
+  }
+
+  @Test public void flatMapOverManyEmptiesIsStackSafe() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0).flatMap(i -> i % 100000 == 99999 ? asList(i) : emptyList());
+    assertThat(l.take(3), contains(99999, 199999, 299999));
+  }
+
+  @Test public void takeAndDrop() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0);
+    assertThat(l.drop(1000000).take(2), contains(1000000, 1000001));
+    assertThat(lazyList(1, 2).drop(5), emptyIterable());
+    assertThat(lazyList(1, 2).take(5), contains(1, 2));
+  }
+
+  @Test public void takeWhileAndDropWhile() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0);
+    assertThat(l.takeWhile(i -> i < 3), contains(0, 1, 2));
+    assertThat(l.dropWhile(i -> i < 3).take(2), contains(3, 4));
+  }
+
+  @Test public void zip() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0);
+    assertThat(lazyList("a", "b").zip(l).toString(), is("[Pair(a, 0), Pair(b, 1)]"));
+  }
+
+  @Test public void concat() {
+    assertThat(lazyList(1, 2).concat(lazyList(3)), contains(1, 2, 3));
+    assertThat(LazyList.<Integer> empty().concat(lazyList(3)), contains(3));
+  }
+
+  @Test public void sizeAndFold() {
+    final LazyList<Integer> l = LazyList.iterate(i -> i + 1, 0).take(100);
+    assertThat(l.size(), is(100));
+    assertThat(l.foldLeft(0, Integer::sum), is(4950));
+  }
+
+  @Test public void toStringOnInfiniteList() {
+    assertThat(LazyList.iterate(i -> i, 1).toString().endsWith("...]"), is(true));
+  }
+
+  @Test public void sharedBetweenThreadsEvaluatesOnce() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    final LazyList<Integer> l = LazyList.iterate(i -> {
+      calls.incrementAndGet();
+      return i + 1;
+    }, 0).take(10000);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Integer>> sums = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        sums.add(executor.submit(() -> l.foldLeft(0, Integer::sum)));
+      }
+      for (final Future<Integer> sum : sums) {
+        assertThat(sum.get(), is(49995000));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(calls.get(), is(9999));
+  }
+}
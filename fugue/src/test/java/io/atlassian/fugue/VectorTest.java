@@ -0,0 +1,251 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static io.atlassian.fugue.Iterables.drop;
+import static io.atlassian.fugue.Iterables.size;
+import static io.atlassian.fugue.Iterables.take;
+import static io.atlassian.fugue.Vector.vector;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VectorTest {
+
+  @Test public void emptyVector() {
+    assertThat(Vector.<Integer> empty(), emptyIterable());
+    assertThat(Vector.empty().size(), is(0));
+  }
+
+  @Test public void vectorOfElements() {
+    assertThat(vector(1, 2, 3), contains(1, 2, 3));
+  }
+
+  @Test public void getAcrossLevels() {
+    final Vector<Integer> v = range(0, 40000);
+    for (int i = 0; i < 40000; i++) {
+      assertThat(v.get(i), is(i));
+    }
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class) public void getNegative() {
+    vector(1).get(-1);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class) public void getPastEnd() {
+    vector(1).get(1);
+  }
+
+  @Test public void index() {
+    assertThat(vector(1, 2).index(1), is(Option.some(2)));
+    assertThat(vector(1, 2).index(2), is(Option.<Integer> none()));
+  }
+
+  @Test public void appendIsPersistent() {
+    final Vector<Integer> v = vector(1, 2);
+    final Vector<Integer> v2 = v.append(3);
+    assertThat(v, contains(1, 2));
+    assertThat(v2, contains(1, 2, 3));
+  }
+
+  @Test public void appendMany() {
+    Vector<Integer> v = Vector.empty();
+    for (int i = 0; i < 5000; i++) {
+      v = v.append(i);
+    }
+    assertThat(v, is(range(0, 5000)));
+  }
+
+  @Test public void prependMany() {
+    Vector<Integer> v = Vector.empty();
+    for (int i = 4999; i >= 0; i--) {
+      v = v.prepend(i);
+    }
+    assertThat(v.size(), is(5000));
+    assertThat(v, is(range(0, 5000)));
+  }
+
+  @Test public void updateIsPersistent() {
+    final Vector<Integer> v = range(0, 100);
+    final Vector<Integer> v2 = v.update(50, -1);
+    assertThat(v.get(50), is(50));
+    assertThat(v2.get(50), is(-1));
+    assertThat(v2.get(51), is(51));
+  }
+
+  @Test public void concat() {
+    assertThat(vector(1, 2).concat(vector(3, 4)), contains(1, 2, 3, 4));
+  }
+
+  @Test public void concatEmpty() {
+    final Vector<Integer> v = vector(1);
+    assertThat(v.concat(Vector.empty()) == v, is(true));
+    assertThat(Vector.<Integer> empty().concat(v) == v, is(true));
+  }
+
+  @Test public void concatManySmall() {
+    Vector<Integer> v = Vector.empty();
+    for (int i = 0; i < 3000; i++) {
+      v = v.concat(vector(i, i + 1, i + 2).take(i % 3 + 1));
+    }
+    final List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      expected.addAll(asList(i, i + 1, i + 2).subList(0, i % 3 + 1));
+    }
+    assertVector(v, expected);
+  }
+
+  @Test public void concatTreeShaped() {
+    final List<Vector<Integer>> vs = new ArrayList<>();
+    for (int i = 0; i < 1024; i++) {
+      vs.add(range(i * 37, (i + 1) * 37));
+    }
+    while (vs.size() > 1) {
+      final List<Vector<Integer>> next = new ArrayList<>();
+      for (int i = 0; i < vs.size(); i += 2) {
+        next.add(vs.get(i).concat(vs.get(i + 1)));
+      }
+      vs.clear();
+      vs.addAll(next);
+    }
+    assertVector(vs.get(0), range(0, 1024 * 37).toList());
+  }
+
+  @Test public void randomOperationsMatchList() {
+    final Random random = new Random(42);
+    Vector<Integer> v = Vector.empty();
+    List<Integer> expected = new ArrayList<>();
+    for (int step = 0; step < 2000; step++) {
+      final int value = random.nextInt();
+      switch (random.nextInt(6)) {
+        case 0:
+          v = v.append(value);
+          expected.add(value);
+          break;
+        case 1:
+          v = v.prepend(value);
+          expected.add(0, value);
+          break;
+        case 2:
+          final int n = random.nextInt(200);
+          v = v.concat(range(value, value + n));
+          expected.addAll(range(value, value + n).toList());
+          break;
+        case 3:
+          final int m = random.nextInt(200);
+          v = range(value, value + m).concat(v);
+          expected.addAll(0, range(value, value + m).toList());
+          break;
+        case 4:
+          if (!expected.isEmpty()) {
+            final int i = random.nextInt(expected.size());
+            v = v.drop(i);
+            expected = new ArrayList<>(expected.subList(i, expected.size()));
+          }
+          break;
+        default:
+          if (!expected.isEmpty()) {
+            final int i = random.nextInt(expected.size());
+            v = v.update(i, value);
+            expected.set(i, value);
+          }
+      }
+    }
+    assertVector(v, expected);
+  }
+
+  @Test public void takeAndDrop() {
+    final Vector<Integer> v = range(0, 2000);
+    assertVector(v.take(1500).drop(700), range(700, 1500).toList());
+  }
+
+  @Test public void iterablesInterop() {
+    final Vector<Integer> v = range(0, 100);
+    assertThat(size(v), is(100));
+    assertThat(take(3, v), contains(0, 1, 2));
+    assertThat(drop(97, v), contains(97, 98, 99));
+    assertThat(Vector.fromIterable(v) == v, is(true));
+  }
+
+  @Test public void map() {
+    assertThat(vector(1, 2, 3).map(i -> i * 2), contains(2, 4, 6));
+  }
+
+  @Test public void foldLeft() {
+    assertThat(range(0, 100).foldLeft(0, Integer::sum), is(4950));
+  }
+
+  @Test public void monoid() {
+    final Monoid<Vector<Integer>> m = Monoids.vector();
+    assertThat(m.sum(asList(vector(1), m.zero(), vector(2, 3))), contains(1, 2, 3));
+  }
+
+  @Test public void collector() {
+    assertThat(IntStream.range(0, 1000).boxed().parallel().collect(FugueCollectors.toVector()), is(range(0, 1000)));
+  }
+
+  @Test public void spliteratorSplitsBySize() {
+    final Spliterator<Integer> right = range(0, 5000).spliterator();
+    assertThat(right.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+    final Spliterator<Integer> left = right.trySplit();
+    assertThat(left.estimateSize(), is(2500L));
+    assertThat(right.estimateSize(), is(2500L));
+    final List<Integer> elements = new ArrayList<>();
+    left.forEachRemaining(elements::add);
+    while (right.tryAdvance(elements::add)) {}
+    assertThat(elements, is(range(0, 5000).toList()));
+  }
+
+  @Test public void parallelStream() {
+    assertThat(StreamSupport.stream(range(0, 100000).spliterator(), true).mapToLong(i -> i).sum(), is(4999950000L));
+  }
+
+  @Test public void toStringIsBracketed() {
+    assertThat(vector(1, 2).toString(), is("[1, 2]"));
+  }
+
+  @Test public void equalsAndHashCode() {
+    assertThat(vector(1, 2, 3).equals(vector(0, 1, 2, 3).drop(1)), is(true));
+    assertThat(vector(1, 2, 3).hashCode(), is(asList(1, 2, 3).hashCode()));
+  }
+
+  @Test(expected = NullPointerException.class) public void appendNull() {
+    vector(1).append(null);
+  }
+
+  private static Vector<Integer> range(final int from, final int to) {
+    return IntStream.range(from, to).boxed().collect(FugueCollectors.toVector());
+  }
+
+  private static void assertVector(final Vector<Integer> v, final List<Integer> expected) {
+    assertThat(v.size(), is(expected.size()));
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(v.get(i), is(expected.get(i)));
+    }
+    assertThat(v.toList(), is(expected));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+   Copyright 2018 Atlassian
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+package io.atlassian.fugue;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WindowedAggregatorTest {
+
+  @Test public void emptyIsZero() {
+    assertThat(WindowedAggregator.lastN(Monoids.intAddition, 3).get(), is(0));
+  }
+
+  @Test public void lastNMatchesRecomputation() {
+    final int size = 7;
+    final WindowedAggregator<String> window = WindowedAggregator.lastN(Monoids.string, size);
+    final List<String> added = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final String s = String.valueOf((char) ('a' + i % 26));
+      window.add(s);
+      added.add(s);
+      final List<String> last = added.subList(Math.max(0, added.size() - size), added.size());
+      assertThat(window.get(), is(Monoids.string.sum(last)));
+      assertThat(window.size(), is(last.size()));
+    }
+  }
+
+  @Test public void lastNOfOne() {
+    final WindowedAggregator<Integer> window = WindowedAggregator.lastN(Monoids.intAddition, 1);
+    window.add(5);
+    window.add(2);
+    assertThat(window.get(), is(2));
+  }
+
+  @Test public void lastDurationEvictsExpired() {
+    final AtomicLong now = new AtomicLong();
+    final WindowedAggregator<String> window = WindowedAggregator.lastDuration(Monoids.string, Duration.ofNanos(30), now::get);
+    for (int i = 0; i < 6; i++) {
+      window.add(String.valueOf(i));
+      now.addAndGet(10);
+    }
+    // 4 and 5 were added at 40 and 50, and now is 60
+    assertThat(window.get(), is("45"));
+    now.addAndGet(15);
+    assertThat(window.get(), is("5"));
+    now.addAndGet(100);
+    assertThat(window.get(), is(""));
+    assertThat(window.size(), is(0));
+    window.add("x");
+    assertThat(window.get(), is("x"));
+  }
+
+  @Test public void lastDurationMatchesRecomputation() {
+    final AtomicLong now = new AtomicLong();
+    final WindowedAggregator<Long> window = WindowedAggregator.lastDuration(Monoids.longAddition, Duration.ofNanos(100), now::get);
+    final List<Pair<Long, Long>> added = new ArrayList<>();
+    for (long i = 0; i < 500; i++) {
+      now.addAndGet(i % 13);
+      window.add(i);
+      added.add(Pair.pair(now.get(), i));
+      final long expected = added.stream().filter(p -> now.get() - p.left() < 100).mapToLong(Pair::right).sum();
+      assertThat(window.get(), is(expected));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void lastNZero() {
+    WindowedAggregator.lastN(Monoids.intAddition, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class) public void lastDurationZero() {
+    WindowedAggregator.lastDuration(Monoids.intAddition, Duration.ZERO);
+  }
+}